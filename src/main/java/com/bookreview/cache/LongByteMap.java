@@ -0,0 +1,117 @@
+package com.bookreview.cache;
+
+/**
+ * Open-addressing map from positive {@code long} keys to non-zero {@code byte}
+ * values, about nine bytes per slot instead of the ~70 a boxed
+ * {@code HashMap<Long, Byte>} entry costs. Zero is reserved as the empty key
+ * and as the "absent" value.
+ * <p>
+ * Not thread-safe; callers synchronize.
+ */
+public final class LongByteMap {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private byte[] values;
+    private int size;
+
+    public LongByteMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongByteMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new byte[capacity];
+    }
+
+    /**
+     * @return the value for {@code key}, or 0 if absent
+     */
+    public byte get(long key) {
+        int slot = find(keys, key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    public void put(long key, byte value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+        if (value == 0) {
+            remove(key);
+            return;
+        }
+        int slot = find(keys, key);
+        if (keys[slot] != key) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                resize(keys.length << 1);
+                slot = find(keys, key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    public void remove(long key) {
+        int mask = keys.length - 1;
+        int slot = find(keys, key);
+        if (keys[slot] != key) {
+            return;
+        }
+        // Backward-shift deletion keeps every probe chain unbroken without tombstones.
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != 0) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = 0;
+        values[gap] = 0;
+        size--;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        byte[] oldValues = values;
+        keys = new long[capacity];
+        values = new byte[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = find(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /** Slot holding {@code key}, or the empty slot where it would go. */
+    private static int find(long[] keys, long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "LongByteMap[size=" + size + ", capacity=" + keys.length + "]";
+    }
+}
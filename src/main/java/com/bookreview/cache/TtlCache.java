@@ -0,0 +1,76 @@
+package com.bookreview.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small bounded map whose entries expire a fixed time after they were written.
+ * <p>
+ * Expired entries are dropped lazily on read and swept when the map is full;
+ * if a sweep does not get it back under capacity, arbitrary entries are
+ * evicted until it is 10% below. That is cruder than LRU but costs nothing on
+ * the read path, which is what the callers care about.
+ */
+public final class TtlCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public TtlCache(long ttlNanos, int maxSize) {
+        this.ttlNanos = ttlNanos;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the live value for {@code key}, or null if absent or expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAtNanos >= 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        if (maxSize <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            evict(now);
+        }
+        entries.put(key, new Entry<>(value, now + ttlNanos));
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> now - entry.expiresAtNanos >= 0);
+        int target = maxSize - Math.max(1, maxSize / 10);
+        Iterator<K> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.bookreview.catalog;
+
+import com.bookreview.entity.ActionType;
+import lombok.Value;
+
+/**
+ * Published by {@code BookService} inside the writing transaction. In-memory
+ * structures consume it with {@code @TransactionalEventListener} so they only
+ * ever see committed state.
+ */
+@Value
+public class BookChangedEvent {
+    ActionType action;
+    Long bookId;
+    /** Null for {@link ActionType#DELETE}. */
+    BookSnapshot snapshot;
+
+    public static BookChangedEvent created(BookSnapshot snapshot) {
+        return new BookChangedEvent(ActionType.CREATE, snapshot.getId(), snapshot);
+    }
+
+    public static BookChangedEvent updated(BookSnapshot snapshot) {
+        return new BookChangedEvent(ActionType.UPDATE, snapshot.getId(), snapshot);
+    }
+
+    public static BookChangedEvent deleted(Long bookId) {
+        return new BookChangedEvent(ActionType.DELETE, bookId, null);
+    }
+
+    public boolean isDelete() {
+        return action == ActionType.DELETE;
+    }
+}
@@ -0,0 +1,26 @@
+package com.bookreview.catalog;
+
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published inside the transaction that changed the rating aggregates of one
+ * or more books. Rating writes do not touch {@code books.updated_at}, so
+ * listeners caching book state need this event as well as {@link BookChangedEvent}.
+ * Set-wise writers publish one event for all the books they touched, so
+ * listeners can reload them together.
+ */
+@Value
+public class BookRatingChangedEvent {
+    List<Long> bookIds;
+
+    public BookRatingChangedEvent(Long bookId) {
+        this.bookIds = List.of(bookId);
+    }
+
+    public BookRatingChangedEvent(Collection<Long> bookIds) {
+        this.bookIds = List.copyOf(bookIds);
+    }
+}
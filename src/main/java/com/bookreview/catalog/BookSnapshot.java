@@ -0,0 +1,66 @@
+package com.bookreview.catalog;
+
+import com.bookreview.entity.Book;
+import com.bookreview.entity.BookStatus;
+import com.bookreview.entity.Genre;
+import com.bookreview.entity.User;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable, detached copy of the book fields the in-memory catalog structures
+ * need. Built inside the writing transaction so listeners never touch lazy
+ * associations after commit.
+ */
+@Value
+@Builder
+public class BookSnapshot {
+    Long id;
+    String title;
+    String subtitle;
+    String description;
+    String publisher;
+    String language;
+    BookStatus status;
+    LocalDate publicationDate;
+    BigDecimal price;
+    Boolean isFree;
+    List<String> genreNames;
+    List<Long> genreIds;
+    Long authorId;
+    String authorUsername;
+    List<Long> coAuthorIds;
+    LocalDateTime updatedAt;
+
+    public static BookSnapshot of(Book book) {
+        return BookSnapshot.builder()
+            .id(book.getId())
+            .title(book.getTitle())
+            .subtitle(book.getSubtitle())
+            .description(book.getDescription())
+            .publisher(book.getPublisher())
+            .language(book.getLanguage())
+            .status(book.getStatus())
+            .publicationDate(book.getPublicationDate())
+            .price(book.getPrice())
+            .isFree(book.getIsFree())
+            .genreNames(book.getGenres() != null
+                ? book.getGenres().stream().map(Genre::getName).toList()
+                : List.of())
+            .genreIds(book.getGenres() != null
+                ? book.getGenres().stream().map(Genre::getId).toList()
+                : List.of())
+            .authorId(book.getAuthor() != null ? book.getAuthor().getId() : null)
+            .authorUsername(book.getAuthor() != null ? book.getAuthor().getUsername() : null)
+            .coAuthorIds(book.getCoAuthors() != null
+                ? book.getCoAuthors().stream().map(User::getId).toList()
+                : List.of())
+            .updatedAt(book.getUpdatedAt())
+            .build();
+    }
+}
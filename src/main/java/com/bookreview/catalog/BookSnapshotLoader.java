@@ -0,0 +1,105 @@
+package com.bookreview.catalog;
+
+import com.bookreview.entity.Book;
+import com.bookreview.repository.BookRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Walks the whole catalog in id order for in-memory index rebuilds. Each chunk
+ * runs in its own read-only transaction, so the persistence context never
+ * holds more than one chunk of books.
+ */
+@Component
+public class BookSnapshotLoader {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public BookSnapshotLoader(BookRepository bookRepository, PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Rebuild {@code indexes} from a single scan. If the scan fails, every
+     * rebuild is aborted and the indexes keep serving their current state.
+     *
+     * @return number of books scanned
+     */
+    public long rebuild(List<? extends CatalogIndex> indexes) {
+        List<CatalogIndex.Build> builds = new ArrayList<>(indexes.size());
+        long count;
+        try {
+            for (CatalogIndex index : indexes) {
+                if (index.isEnabled()) {
+                    builds.add(index.startRebuild());
+                }
+            }
+            if (builds.isEmpty()) {
+                return 0;
+            }
+            count = forEach(book -> builds.forEach(build -> build.add(book)));
+        } catch (RuntimeException e) {
+            builds.forEach(CatalogIndex.Build::abort);
+            throw e;
+        }
+        // Each finish releases its own index, so one failing does not hold the others.
+        RuntimeException failure = null;
+        for (CatalogIndex.Build build : builds) {
+            try {
+                build.finish();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return count;
+    }
+
+    /**
+     * @return number of books passed to the consumer
+     */
+    public long forEach(Consumer<BookSnapshot> consumer) {
+        long count = 0;
+        long afterId = 0;
+        while (true) {
+            final long cursor = afterId;
+            List<BookSnapshot> chunk = readOnlyTransaction.execute(status -> {
+                List<Long> ids = bookRepository.findIdsAfter(cursor, PageRequest.ofSize(CHUNK_SIZE));
+                if (ids.isEmpty()) {
+                    return List.<BookSnapshot>of();
+                }
+                List<Book> books = bookRepository.findWithGenresByIdIn(ids);
+                // Initializes co-authors on the same instances, so snapshots do not lazy-load them.
+                bookRepository.findWithCoAuthorsByIdIn(ids);
+                return books.stream()
+                    .map(BookSnapshot::of)
+                    .toList();
+            });
+            if (chunk == null || chunk.isEmpty()) {
+                return count;
+            }
+            for (BookSnapshot snapshot : chunk) {
+                consumer.accept(snapshot);
+                afterId = Math.max(afterId, snapshot.getId());
+            }
+            count += chunk.size();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.bookreview.catalog;
+
+/**
+ * An in-memory index built from a full scan of the catalog. At startup
+ * {@link CatalogIndexStartup} builds all of them from one shared scan.
+ */
+public interface CatalogIndex {
+
+    /**
+     * Whether the index is in use; a disabled index is never built.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Start a rebuild. Every book is then passed to the returned build in id
+     * order, and the build is finished or, if the scan fails, aborted.
+     */
+    Build startRebuild();
+
+    interface Build {
+
+        void add(BookSnapshot book);
+
+        /** Replay changes committed during the scan and swap the new state in. */
+        void finish();
+
+        /** Drop the new state; the index keeps serving the old one. */
+        void abort();
+    }
+}
@@ -0,0 +1,35 @@
+package com.bookreview.catalog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Builds every {@link CatalogIndex} once the application is ready, reading
+ * the catalog once for all of them rather than once each.
+ */
+@Component
+public class CatalogIndexStartup {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogIndexStartup.class);
+
+    private final BookSnapshotLoader bookSnapshotLoader;
+    private final List<CatalogIndex> indexes;
+
+    public CatalogIndexStartup(BookSnapshotLoader bookSnapshotLoader, List<CatalogIndex> indexes) {
+        this.bookSnapshotLoader = bookSnapshotLoader;
+        this.indexes = indexes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexes() {
+        long started = System.nanoTime();
+        long books = bookSnapshotLoader.rebuild(indexes);
+        logger.info("Catalog indexes built from one scan of {} books in {} ms",
+            books, (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,143 @@
+package com.bookreview.catalog;
+
+import com.bookreview.dto.GenreDTO;
+import com.bookreview.entity.Genre;
+import com.bookreview.repository.GenreRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * All genres held in memory as one immutable {@link Snapshot}, swapped
+ * atomically after every committed genre write. Reads never touch the
+ * database, and the list endpoints are served from JSON serialized once per
+ * snapshot.
+ * <p>
+ * Genres written around {@code GenreService} (imports, SQL scripts) are
+ * picked up on the next reload; callers resolving ids should treat a miss as
+ * "not loaded yet" rather than "does not exist".
+ */
+@Component
+public class GenreCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenreCatalog.class);
+
+    private final GenreRepository genreRepository;
+    private final ObjectMapper objectMapper;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public GenreCatalog(GenreRepository genreRepository, ObjectMapper objectMapper) {
+        this.genreRepository = genreRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public List<GenreDTO> all() {
+        return snapshot().all;
+    }
+
+    public List<GenreDTO> active() {
+        return snapshot().active;
+    }
+
+    public byte[] allJson() {
+        return snapshot().allJson;
+    }
+
+    public byte[] activeJson() {
+        return snapshot().activeJson;
+    }
+
+    public Optional<GenreDTO> byId(Long id) {
+        return Optional.ofNullable(snapshot().byId.get(id));
+    }
+
+    public Optional<GenreDTO> bySlug(String slug) {
+        return Optional.ofNullable(snapshot().bySlug.get(slug));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGenreChanged(GenreChangedEvent event) {
+        reload();
+    }
+
+    /**
+     * Load every genre and swap the snapshot in. Serialized so a slow reload
+     * can never overwrite the result of one that started after it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        reloadLock.lock();
+        try {
+            List<Genre> genres = genreRepository.findAll();
+            snapshot = new Snapshot(genres.stream()
+                .sorted(Comparator.comparing(Genre::getId))
+                .map(GenreCatalog::toDTO)
+                .toList(), objectMapper);
+            logger.debug("Genre catalog reloaded: {} genres", genres.size());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reloadLock.lock();
+            try {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    public static GenreDTO toDTO(Genre genre) {
+        return GenreDTO.builder()
+                .id(genre.getId())
+                .name(genre.getName())
+                .slug(genre.getSlug())
+                .description(genre.getDescription())
+                .isActive(genre.getIsActive())
+                .build();
+    }
+
+    private static final class Snapshot {
+        final List<GenreDTO> all;
+        final List<GenreDTO> active;
+        final Map<Long, GenreDTO> byId;
+        final Map<String, GenreDTO> bySlug;
+        final byte[] allJson;
+        final byte[] activeJson;
+
+        Snapshot(List<GenreDTO> all, ObjectMapper objectMapper) {
+            this.all = all;
+            this.active = all.stream().filter(genre -> Boolean.TRUE.equals(genre.getIsActive())).toList();
+            this.byId = all.stream().collect(Collectors.toUnmodifiableMap(GenreDTO::getId, Function.identity()));
+            this.bySlug = all.stream().collect(Collectors.toUnmodifiableMap(GenreDTO::getSlug, Function.identity()));
+            try {
+                this.allJson = objectMapper.writeValueAsBytes(all);
+                this.activeJson = objectMapper.writeValueAsBytes(active);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize genre catalog", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.bookreview.catalog;
+
+import lombok.Value;
+
+/**
+ * Published by {@code GenreService} inside the writing transaction; the
+ * {@link GenreCatalog} reloads once it commits.
+ */
+@Value
+public class GenreChangedEvent {
+    Long genreId;
+}
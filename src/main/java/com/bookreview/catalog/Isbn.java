@@ -0,0 +1,77 @@
+package com.bookreview.catalog;
+
+/**
+ * ISBN normalization. ISBN-10 and ISBN-13 forms of the same book map to the
+ * same 13-digit key, so one indexed column answers lookups by either.
+ */
+public final class Isbn {
+
+    private Isbn() {
+    }
+
+    /**
+     * The ISBN-13 digits for {@code raw}, ignoring spaces and dashes, or null
+     * if it is not a well-formed ISBN-10 or ISBN-13 with a valid check digit.
+     */
+    public static String toIsbn13(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(13);
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c == 'X' || c == 'x') {
+                digits.append('X');
+            } else if (c != '-' && c != ' ') {
+                return null;
+            }
+            if (digits.length() > 13) {
+                return null;
+            }
+        }
+        if (digits.length() == 10) {
+            if (!isValidIsbn10(digits)) {
+                return null;
+            }
+            String first12 = "978" + digits.substring(0, 9);
+            return first12 + isbn13CheckDigit(first12);
+        }
+        String isbn13 = digits.toString();
+        boolean valid = isbn13.length() == 13
+            && (isbn13.startsWith("978") || isbn13.startsWith("979"))
+            && isbn13.indexOf('X') < 0
+            && isbn13CheckDigit(isbn13.substring(0, 12)) == isbn13.charAt(12);
+        return valid ? isbn13 : null;
+    }
+
+    /**
+     * The key for a book with the given ISBN columns: the ISBN-13 when it is
+     * valid, else the ISBN-10.
+     */
+    public static String key(String isbn, String isbn13) {
+        String key = toIsbn13(isbn13);
+        return key != null ? key : toIsbn13(isbn);
+    }
+
+    private static boolean isValidIsbn10(CharSequence digits) {
+        int sum = 0;
+        for (int i = 0; i < 10; i++) {
+            char c = digits.charAt(i);
+            if (c == 'X' && i != 9) {
+                return false;
+            }
+            sum += (10 - i) * (c == 'X' ? 10 : c - '0');
+        }
+        return sum % 11 == 0;
+    }
+
+    private static char isbn13CheckDigit(String first12) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (first12.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+}
@@ -0,0 +1,193 @@
+package com.bookreview.catalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The state of an in-memory index, guarded by a read-write lock, and the
+ * protocol for replacing it with a freshly built one.
+ * <p>
+ * A rebuild loads the new state without holding the lock while committed
+ * changes keep flowing into the current state through {@link #apply}. Those
+ * changes are also recorded and replayed onto the new state just before it
+ * is swapped in, so a change that commits after the rebuild read its row is
+ * not lost. Rebuilds are serialized by a {@link ReentrantLock}, not a
+ * monitor, since they spend most of their time in JDBC.
+ *
+ * @param <S> the index state; not thread-safe, only touched under the lock
+ * @param <E> one committed change
+ */
+public final class ReplayingRebuild<S, E> {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final BiConsumer<S, E> applier;
+
+    private S state;
+    private List<E> pending;
+
+    /**
+     * @param initial state until the first rebuild; null if there is none
+     * @param applier applies one change to a state
+     */
+    public ReplayingRebuild(S initial, BiConsumer<S, E> applier) {
+        this.state = initial;
+        this.applier = applier;
+    }
+
+    /**
+     * Apply a committed change to the current state, if there is one, and to
+     * the state a running rebuild is about to swap in.
+     */
+    public void apply(E change) {
+        lock.writeLock().lock();
+        try {
+            if (state != null) {
+                applier.accept(state, change);
+            }
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Run {@code reader} against the current state (null before the first
+     * build, if there was no initial state) under the read lock.
+     */
+    public <T> T read(Function<? super S, T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(state);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Run {@code writer} against the current state under the write lock.
+     */
+    public <T> T write(Function<? super S, T> writer) {
+        lock.writeLock().lock();
+        try {
+            return writer.apply(state);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Build a new state with {@code loader} and swap it in.
+     *
+     * @return the new state, now current
+     */
+    public S rebuild(Supplier<S> loader) {
+        start();
+        S fresh;
+        try {
+            fresh = loader.get();
+        } catch (RuntimeException e) {
+            abort();
+            throw e;
+        }
+        finish(fresh);
+        return fresh;
+    }
+
+    /**
+     * Build with {@code loader} unless a state exists already; for indexes
+     * that start empty and may be first read before the startup build.
+     */
+    public void rebuildIfAbsent(Supplier<S> loader) {
+        if (read(current -> current != null)) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            if (read(current -> current == null)) {
+                rebuild(loader);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild {@code fresh} from a full catalog scan, for a {@link CatalogIndex}.
+     *
+     * @param add puts one book into a state
+     * @param onFinished runs once {@code fresh} is current
+     */
+    public CatalogIndex.Build startCatalogRebuild(S fresh, BiConsumer<S, BookSnapshot> add, Consumer<S> onFinished) {
+        start();
+        return new CatalogIndex.Build() {
+            @Override
+            public void add(BookSnapshot book) {
+                add.accept(fresh, book);
+            }
+
+            @Override
+            public void finish() {
+                ReplayingRebuild.this.finish(fresh);
+                onFinished.accept(fresh);
+            }
+
+            @Override
+            public void abort() {
+                ReplayingRebuild.this.abort();
+            }
+        };
+    }
+
+    /**
+     * Start recording changes for a rebuild, which the same thread then ends
+     * with {@link #finish} or {@link #abort}.
+     */
+    private void start() {
+        rebuildLock.lock();
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void finish(S fresh) {
+        try {
+            lock.writeLock().lock();
+            try {
+                for (E change : pending) {
+                    applier.accept(fresh, change);
+                }
+                state = fresh;
+            } finally {
+                pending = null;
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void abort() {
+        try {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.bookreview.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+
+/**
+ * Reports how requests are executed and whether the connection pool fits it.
+ * <p>
+ * Virtual threads are opt-in through Spring Boot's
+ * {@code spring.threads.virtual.enabled}, which moves Tomcat's request
+ * executor, the application task executor and the scheduler onto them. Boot
+ * checks the JVM it runs on, not the release this was compiled for, so this
+ * Java 17 build enables them when started on Java 21 or later; on older
+ * runtimes the flag is ignored and this logs a warning rather than letting the
+ * setting look active.
+ * <p>
+ * With platform threads, {@code server.tomcat.threads.max} caps how many
+ * requests can wait on the database at once. With virtual threads nothing
+ * does except the Hikari pool, so {@code spring.datasource.hikari.maximum-pool-size}
+ * and {@code connection-timeout} become the effective concurrency limit and
+ * queueing deadline. Code that blocks while holding a monitor pins its
+ * carrier thread; such sections, on request paths and in scheduled flushes
+ * and rebuilds alike, use {@code ReentrantLock} instead, and {@code -Djdk.tracePinnedThreads=short} reports any that remain.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingConfig.class);
+    private static final int FIRST_VIRTUAL_THREAD_RELEASE = 21;
+
+    private final DataSource dataSource;
+    private final boolean virtualRequested;
+    private final int maxRequestThreads;
+
+    public ThreadingConfig(DataSource dataSource,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualRequested,
+                           @Value("${server.tomcat.threads.max:200}") int maxRequestThreads) {
+        this.dataSource = dataSource;
+        this.virtualRequested = virtualRequested;
+        this.maxRequestThreads = maxRequestThreads;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportExecutionMode() {
+        int release = Runtime.version().feature();
+        Integer poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : null;
+        if (virtualRequested && release < FIRST_VIRTUAL_THREAD_RELEASE) {
+            logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; " +
+                "serving requests on up to {} platform threads", release, maxRequestThreads);
+        } else if (virtualRequested) {
+            logger.info("Serving requests on virtual threads; database concurrency is bounded by the " +
+                "connection pool ({} connections)", poolSize != null ? poolSize : "unknown");
+        } else {
+            logger.info("Serving requests on up to {} platform threads with {} database connections",
+                maxRequestThreads, poolSize != null ? poolSize : "unknown");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.bookreview.controller;
+
+import com.bookreview.search.BookSearchIndex;
+import com.bookreview.search.SearchIndexStats;
+import com.bookreview.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final BookSearchIndex bookSearchIndex;
+    private final ExportService exportService;
+
+    @GetMapping("/search/stats")
+    public ResponseEntity<SearchIndexStats> getSearchIndexStats() {
+        return ResponseEntity.ok(bookSearchIndex.stats());
+    }
+
+    @GetMapping(value = "/export/books", produces = NDJSON)
+    public void exportBooks(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        exportService.exportBooks(response.getOutputStream());
+    }
+
+    @GetMapping(value = "/export/reviews", produces = NDJSON)
+    public void exportReviews(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        exportService.exportReviews(response.getOutputStream());
+    }
+}
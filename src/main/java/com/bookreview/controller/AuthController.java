@@ -1,17 +1,22 @@
 package com.bookreview.controller;
 
 import com.bookreview.exception.InvalidCredentialsException;
+import com.bookreview.exception.PasswordHashingBusyException;
+import com.bookreview.security.AuthenticatedUser;
 import com.bookreview.security.JwtUtil;
+import com.bookreview.security.LoginAttemptTracker;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -24,23 +29,48 @@ public class AuthController {
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final LoginAttemptTracker loginAttemptTracker;
 
+    /**
+     * Issue a token. Locked accounts are turned away with 429 before any
+     * password hashing; a saturated hashing pool answers 503.
+     */
     @PostMapping("/login")
     public ResponseEntity<Map<String, String>> login(@RequestBody Map<String, String> loginData) {
         String username = loginData.get("username");
         logger.info("Login attempt for username: {}", username);
+        if (username != null) {
+            long retryAfter = loginAttemptTracker.remainingLockSeconds(username);
+            if (retryAfter > 0) {
+                return tooManyAttempts(username, retryAfter);
+            }
+        }
         try {
             logger.debug("Authenticating user: {}", username);
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             username, loginData.get("password")));
             logger.debug("Authentication successful for user: {}", username);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            String token = jwtUtil.generateToken(userDetails.getUsername());
+            AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+            loginAttemptTracker.recordSuccess(user.getUsername());
+            String token = jwtUtil.generateToken(user);
             logger.info("JWT generated for user: {}", username);
             return ResponseEntity.ok(Map.of("token", token));
+        } catch (PasswordHashingBusyException e) {
+            throw e;
+        } catch (LockedException e) {
+            loginAttemptTracker.restoreLock(username);
+            return tooManyAttempts(username, loginAttemptTracker.remainingLockSeconds(username));
+        } catch (BadCredentialsException e) {
+            if (loginAttemptTracker.recordFailure(username)) {
+                logger.warn("Locked user {} after repeated failed logins", username);
+            }
+            logger.warn("Authentication failed for user: {}", username);
+            throw new InvalidCredentialsException("Invalid credentials");
         } catch (AuthenticationException e) {
+            if (e.getCause() instanceof PasswordHashingBusyException busy) {
+                throw busy;
+            }
             logger.warn("Authentication failed for user: {}", username);
             throw new InvalidCredentialsException("Invalid credentials");
         } catch (Exception e) {
@@ -48,4 +78,11 @@ public class AuthController {
             return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
         }
     }
+
+    private ResponseEntity<Map<String, String>> tooManyAttempts(String username, long retryAfterSeconds) {
+        logger.warn("Rejected login for locked user: {}", username);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, retryAfterSeconds)))
+                .body(Map.of("error", "Too many failed login attempts; try again later"));
+    }
 }
@@ -2,24 +2,49 @@ package com.bookreview.controller;
 
 import com.bookreview.dto.BookDTO;
 import com.bookreview.dto.BookCreateRequest;
+import com.bookreview.dto.BookCursorSort;
+import com.bookreview.dto.BookImportResult;
+import com.bookreview.dto.BrowsePage;
+import com.bookreview.dto.CursorPage;
+import com.bookreview.dto.IsbnResolution;
+import com.bookreview.dto.RankedBookDTO;
+import com.bookreview.dto.SuggestionDTO;
 import com.bookreview.entity.Book;
 import com.bookreview.entity.BookStatus;
 import com.bookreview.entity.Genre;
 import com.bookreview.entity.User;
+import com.bookreview.exception.IndexNotReadyException;
 import com.bookreview.repository.GenreRepository;
 import com.bookreview.repository.UserRepository;
 import com.bookreview.repository.BookRepository;
+import com.bookreview.search.BookSuggester;
+import com.bookreview.search.SearchOperator;
+import com.bookreview.service.BookBrowseService;
+import com.bookreview.service.BookDetailService;
+import com.bookreview.service.BookImportService;
+import com.bookreview.service.BookLookupService;
 import com.bookreview.service.BookService;
+import com.bookreview.service.BookViewCounter;
+import com.bookreview.service.LeaderboardService;
+import com.bookreview.service.RecommendationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.persistence.EntityNotFoundException;
+import java.io.IOException;
 import java.security.Principal;
 import java.util.List;
 import java.util.Map;
@@ -34,9 +59,19 @@ import org.slf4j.LoggerFactory;
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookDetailService bookDetailService;
+    private final BookViewCounter bookViewCounter;
+    private final LeaderboardService leaderboardService;
+    private final RecommendationService recommendationService;
+    private final BookSuggester bookSuggester;
+    private final BookLookupService bookLookupService;
+    private final BookBrowseService bookBrowseService;
     // Removed UserRepository dependency
 
     private static final Logger logger = LoggerFactory.getLogger(BookController.class);
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 20;
 
     @GetMapping
     public ResponseEntity<List<BookDTO>> getAllBooks() {
@@ -56,15 +91,108 @@ public class BookController {
         }
     }
 
+    /**
+     * Bulk import; the body is {@code text/csv} with a header row or
+     * {@code application/x-ndjson} with one book per line. Responds 200 with
+     * per-row errors even when some rows were rejected.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                         HttpServletRequest request,
+                                         Principal principal) throws IOException {
+        BookImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))
+            ? BookImportService.Format.CSV
+            : BookImportService.Format.NDJSON;
+        try {
+            User author = bookService.getCurrentUser(principal);
+            BookImportResult result = bookImportService.importBooks(request.getInputStream(), format, author);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected book import: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/top")
+    public ResponseEntity<List<RankedBookDTO>> getTopBooks(@RequestParam(defaultValue = "10") int limit) {
+        int bounded = Math.max(1, Math.min(limit, leaderboardService.getMaxLimit()));
+        return ResponseEntity.ok(leaderboardService.getTopBooks(bounded));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(@RequestParam(defaultValue = "") String q,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        int bounded = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return ResponseEntity.ok(bookSuggester.suggest(q, bounded));
+    }
+
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<?> getBookByIsbn(@PathVariable String isbn) {
+        return bookLookupService.findByIsbn(isbn)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", "Book not found")));
+    }
+
+    @PostMapping("/isbn/resolve")
+    public ResponseEntity<?> resolveIsbns(@RequestBody List<String> isbns) {
+        try {
+            List<IsbnResolution> resolutions = bookLookupService.resolveIsbns(isbns);
+            return ResponseEntity.ok(resolutions);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<?> getBook(@PathVariable Long id) {
-        Optional<BookDTO> bookOpt = bookService.getBook(id);
-        if (bookOpt.isPresent()) {
-            return ResponseEntity.ok(bookOpt.get());
-        } else {
+    public ResponseEntity<?> getBook(@PathVariable Long id, WebRequest webRequest) {
+        Optional<BookDetailService.BookDetail> detail = bookDetailService.getBookDetail(id);
+        if (detail.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", "Book not found"));
+        }
+        bookViewCounter.recordView(id);
+        if (webRequest.checkNotModified(detail.get().getEtag())) {
+            bookDetailService.recordNotModified();
+            return null;
+        }
+        return ResponseEntity.ok()
+            .eTag(detail.get().getEtag())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(detail.get().getBody());
+    }
+
+    @GetMapping("/{id}/ratings")
+    public ResponseEntity<?> getRatingHistogram(@PathVariable Long id) {
+        return bookService.getRatingHistogram(id)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", "Book not found")));
+    }
+
+    @GetMapping("/{id}/recommendations")
+    public ResponseEntity<?> getRecommendations(@PathVariable Long id,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        int bounded = Math.max(1, Math.min(limit, RecommendationService.MAX_LIMIT));
+        Optional<List<RankedBookDTO>> books = recommendationService.getRecommendations(id, bounded);
+        if (books.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", "Book not found"));
+        }
+        return ResponseEntity.ok(books.get());
+    }
+
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<?> getSimilarBooks(@PathVariable Long id,
+                                             @RequestParam(defaultValue = "10") int limit) {
+        int bounded = Math.max(1, Math.min(limit, RecommendationService.MAX_LIMIT));
+        Optional<List<RankedBookDTO>> books = recommendationService.getSimilarBooks(id, bounded);
+        if (books.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(Map.of("error", "Book not found"));
         }
+        return ResponseEntity.ok(books.get());
     }
 
     @GetMapping("/genre/{genreId}")
@@ -145,17 +273,55 @@ public class BookController {
         return ResponseEntity.ok(books);
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<BookDTO>> getBooksByCursor(
+            @RequestParam(defaultValue = "NEWEST") BookCursorSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        return ResponseEntity.ok(bookService.getBooksByCursor(sort, cursor, pageSize));
+    }
+
+    /**
+     * Filter with any of genre, status, language, publisher, year, free and
+     * price (band: 0-10, 10-25, 25-50, 50+), each repeatable.
+     */
+    @GetMapping("/browse")
+    public ResponseEntity<?> browseBooks(@RequestParam MultiValueMap<String, String> params,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        try {
+            BrowsePage page = bookBrowseService.browse(params, cursor, pageSize);
+            return ResponseEntity.ok(page);
+        } catch (IndexNotReadyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Page<BookDTO>> searchBooks(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "AND") SearchOperator operator,
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String author,
             @RequestParam(required = false) String genre,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<BookDTO> books = bookService.searchBooks(title, author, genre, pageable);
+        Page<BookDTO> books = StringUtils.hasText(q)
+            ? bookService.searchBooks(q, operator, pageable)
+            : bookService.searchBooks(title, author, genre, pageable);
         return ResponseEntity.ok(books);
     }
 
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<List<RankedBookDTO>> fuzzySearchTitles(@RequestParam String q,
+                                                                 @RequestParam(defaultValue = "10") int limit) {
+        int bounded = Math.max(1, Math.min(limit, MAX_CURSOR_PAGE_SIZE));
+        return ResponseEntity.ok(bookLookupService.fuzzyTitleSearch(q, bounded));
+    }
+
     // Removed getCurrentUser method from controller
 }
\ No newline at end of file
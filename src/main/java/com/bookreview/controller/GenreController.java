@@ -2,11 +2,14 @@ package com.bookreview.controller;
 
 import com.bookreview.dto.GenreDTO;
 import com.bookreview.dto.GenreCreateRequest;
+import com.bookreview.dto.RankedBookDTO;
 import com.bookreview.entity.Genre;
 import com.bookreview.repository.GenreRepository;
 import com.bookreview.service.GenreService;
+import com.bookreview.service.LeaderboardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -22,10 +25,13 @@ import java.util.Map;
 public class GenreController {
 
     private final GenreService genreService;
+    private final LeaderboardService leaderboardService;
 
     @GetMapping
-    public ResponseEntity<List<GenreDTO>> getAllGenres() {
-        return ResponseEntity.ok(genreService.getAllGenres());
+    public ResponseEntity<byte[]> getAllGenres() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(genreService.getAllGenresJson());
     }
 
     @GetMapping("/{id}")
@@ -39,10 +45,23 @@ public class GenreController {
         }
     }
 
+    @GetMapping("/{id}/top")
+    public ResponseEntity<?> getTopBooksInGenre(@PathVariable Long id,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        if (genreService.getGenre(id).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Genre not found"));
+        }
+        int bounded = Math.max(1, Math.min(limit, leaderboardService.getMaxLimit()));
+        List<RankedBookDTO> books = leaderboardService.getTopBooksInGenre(id, bounded);
+        return ResponseEntity.ok(books);
+    }
+
     @GetMapping("/active")
-    public ResponseEntity<List<GenreDTO>> getActiveGenres() {
-        List<GenreDTO> genres = genreService.getActiveGenres();
-        return ResponseEntity.ok(genres);
+    public ResponseEntity<byte[]> getActiveGenres() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(genreService.getActiveGenresJson());
     }
 
     @GetMapping("/slug/{slug}")
@@ -1,12 +1,17 @@
 package com.bookreview.controller;
 
+import com.bookreview.dto.CursorPage;
+import com.bookreview.dto.ReviewBatchItem;
+import com.bookreview.dto.ReviewBatchResult;
 import com.bookreview.dto.ReviewDTO;
 import com.bookreview.entity.Review;
 import com.bookreview.entity.User;
 import com.bookreview.entity.Book;
 import com.bookreview.repository.UserRepository;
 import com.bookreview.repository.BookRepository;
+import com.bookreview.service.ReviewBatchService;
 import com.bookreview.service.ReviewService;
+import com.bookreview.service.ReviewVoteService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
@@ -28,7 +33,11 @@ import org.springframework.http.HttpStatus;
 @RequiredArgsConstructor
 public class ReviewController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final ReviewService reviewService;
+    private final ReviewVoteService reviewVoteService;
+    private final ReviewBatchService reviewBatchService;
 
     @GetMapping("/book/{bookId}")
     public ResponseEntity<?> getReviewsByBook(@PathVariable Long bookId) {
@@ -41,6 +50,20 @@ public class ReviewController {
         }
     }
 
+    @GetMapping("/book/{bookId}/cursor")
+    public ResponseEntity<?> getReviewsByBookCursor(@PathVariable Long bookId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "10") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        try {
+            CursorPage<ReviewDTO> reviews = reviewService.getReviewsByBookIdCursor(bookId, cursor, pageSize);
+            return ResponseEntity.ok(reviews);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getReview(@PathVariable Long id) {
         Optional<ReviewDTO> review = reviewService.getReview(id);
@@ -73,6 +96,21 @@ public class ReviewController {
         }
     }
 
+    /**
+     * Partner upload of reviews written by other users. Responds 200 with a
+     * status per review even when some were rejected.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> createReviews(@RequestBody List<ReviewBatchItem> items) {
+        try {
+            ReviewBatchResult result = reviewBatchService.createReviews(items);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateReview(@PathVariable Long id,
                                          @Valid @RequestBody ReviewUpdateRequest request,
@@ -103,4 +141,22 @@ public class ReviewController {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
+
+    @PostMapping("/{id}/vote")
+    public ResponseEntity<?> voteOnReview(@PathVariable Long id,
+                                          @RequestParam boolean helpful,
+                                          Principal principal) {
+        try {
+            ReviewVoteService.Outcome outcome = reviewVoteService.vote(id, helpful, principal);
+            if (outcome == ReviewVoteService.Outcome.UNCHANGED) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "You have already cast this vote"));
+            }
+            return ResponseEntity.ok(Map.of("reviewId", id, "helpful", helpful, "outcome", outcome));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
@@ -0,0 +1,8 @@
+package com.bookreview.dto;
+
+public enum BookCursorSort {
+    /** created_at DESC, id DESC */
+    NEWEST,
+    /** average_rating DESC, id DESC, then unrated books by id DESC */
+    TOP_RATED
+}
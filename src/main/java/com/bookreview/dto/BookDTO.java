@@ -20,6 +20,9 @@ public class BookDTO {
     private String isbn;
     private LocalDate publicationDate;
     private Double averageRating;
+    private Integer reviewCount;
+    /** Review counts by star rating, one star first. */
+    private List<Integer> ratingHistogram;
     private String description;
     private BookStatus status;
     private String publisher;
@@ -0,0 +1,26 @@
+package com.bookreview.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BookImportResult {
+    private int totalRows;
+    private int imported;
+    private int failed;
+    /** First {@code BookImportService.MAX_REPORTED_ERRORS} failures; {@code failed} counts all of them. */
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private int line;
+        private String title;
+        private String message;
+    }
+}
@@ -0,0 +1,21 @@
+package com.bookreview.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One keyset page of {@code /books/browse}, with the total match count and
+ * value counts per facet (largest first) for the same filters.
+ */
+@Data
+@AllArgsConstructor
+public class BrowsePage {
+    private List<BookDTO> content;
+    private String nextCursor;
+    private boolean hasNext;
+    private long total;
+    private Map<String, Map<String, Long>> facets;
+}
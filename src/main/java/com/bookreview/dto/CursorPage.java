@@ -0,0 +1,19 @@
+package com.bookreview.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing. Pass {@code nextCursor} back as
+ * {@code cursor} to continue; it is null on the last slice. No total count is
+ * computed.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
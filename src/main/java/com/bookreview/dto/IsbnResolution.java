@@ -0,0 +1,18 @@
+package com.bookreview.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IsbnResolution {
+    /** As submitted. */
+    private String isbn;
+    /** Normalized ISBN-13, or null if {@code isbn} is not a valid ISBN. */
+    private String isbn13;
+    /** Null if no book has this ISBN. */
+    private Long bookId;
+    private String title;
+}
@@ -0,0 +1,13 @@
+package com.bookreview.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RankedBookDTO {
+    private int rank;
+    /** What the list is ordered by: Bayesian average, similarity, etc. depending on the endpoint. */
+    private double score;
+    private BookDTO book;
+}
@@ -0,0 +1,16 @@
+package com.bookreview.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class RatingHistogramDTO {
+    private Long bookId;
+    private int reviewCount;
+    private Double averageRating;
+    /** Review counts by star rating, one star first. */
+    private List<Integer> counts;
+}
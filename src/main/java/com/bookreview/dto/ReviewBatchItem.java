@@ -0,0 +1,38 @@
+package com.bookreview.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One review in a {@code POST /reviews/batch} upload, written on behalf of
+ * {@code username}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewBatchItem {
+    @NotBlank(message = "Username is required")
+    private String username;
+
+    @NotNull(message = "Book ID is required")
+    private Long bookId;
+
+    @NotNull(message = "Rating is required")
+    @Min(value = 1, message = "Rating must be between 1 and 5")
+    @Max(value = 5, message = "Rating must be between 1 and 5")
+    private Integer rating;
+
+    @NotBlank(message = "Title is required")
+    @Size(max = 200, message = "Title must not exceed 200 characters")
+    private String title;
+
+    @NotNull(message = "Content is required")
+    @Size(max = 2000, message = "Content must not exceed 2000 characters")
+    private String content;
+}
@@ -0,0 +1,31 @@
+package com.bookreview.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ReviewBatchResult {
+    private int total;
+    private int created;
+    private int failed;
+    /** One entry per submitted review, in submission order. */
+    private List<ItemResult> items = new ArrayList<>();
+    /** Rating summary of every book that gained a review, by book id. */
+    private List<RatingHistogramDTO> books = new ArrayList<>();
+
+    public enum Status { CREATED, INVALID, USER_NOT_FOUND, BOOK_NOT_FOUND, DUPLICATE, FAILED }
+
+    @Data
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private Status status;
+        private Long reviewId;
+        private String message;
+    }
+}
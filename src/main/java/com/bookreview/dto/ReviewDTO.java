@@ -15,4 +15,6 @@ public class ReviewDTO {
     private LocalDateTime updatedAt;
     private String username;
     private Long bookId;
+    private Integer helpfulCount;
+    private Integer notHelpfulCount;
 } 
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.bookreview.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SuggestionDTO {
+    /** The matched title, subtitle or username, as stored. */
+    private String text;
+    /** TITLE, SUBTITLE or AUTHOR. */
+    private String type;
+    /** Null for authors. */
+    private Long bookId;
+    /** Null for books. */
+    private Long userId;
+}
@@ -0,0 +1,11 @@
+package com.bookreview.exception;
+
+/**
+ * An in-memory index needed to answer the request has not finished its first
+ * build; the caller should retry shortly.
+ */
+public class IndexNotReadyException extends RuntimeException {
+    public IndexNotReadyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.bookreview.exception;
+
+/**
+ * The password hashing pool is saturated; the caller should retry shortly.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,199 @@
+package com.bookreview.facet;
+
+import com.bookreview.catalog.BookChangedEvent;
+import com.bookreview.catalog.BookSnapshot;
+import com.bookreview.catalog.BookSnapshotLoader;
+import com.bookreview.catalog.CatalogIndex;
+import com.bookreview.catalog.ReplayingRebuild;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Facet filtering and counting behind {@code /books/browse}.
+ * <p>
+ * Keeps one {@link IdBitmap} of book ids per facet value. A browse request
+ * ORs the selected values within each facet, ANDs across facets, and counts
+ * every facet value against that result, all under one read lock. Counts for
+ * a facet the request filters on ignore that facet's own selection, so the
+ * UI can show what choosing another value would give. Built by
+ * {@link com.bookreview.catalog.CatalogIndexStartup} and kept current from
+ * {@link BookChangedEvent}s.
+ */
+@Component
+public class BookFacetIndex implements CatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookFacetIndex.class);
+
+    private final BookSnapshotLoader bookSnapshotLoader;
+    private final ReplayingRebuild<State, BookChangedEvent> state = new ReplayingRebuild<>(new State(), State::apply);
+    private volatile boolean ready;
+
+    public BookFacetIndex(BookSnapshotLoader bookSnapshotLoader) {
+        this.bookSnapshotLoader = bookSnapshotLoader;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void rebuild() {
+        bookSnapshotLoader.rebuild(List.of(this));
+    }
+
+    @Override
+    public Build startRebuild() {
+        long started = System.nanoTime();
+        return state.startCatalogRebuild(new State(), State::put, fresh -> {
+            ready = true;
+            logger.info("Facet index built in {} ms: {} books, {} facet values",
+                (System.nanoTime() - started) / 1_000_000, fresh.all.cardinality(), fresh.bitmaps.size());
+        });
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        state.apply(event);
+    }
+
+    /**
+     * One page of matching book ids after {@code afterId}, ascending, with the
+     * total and the top {@code maxFacetValues} counts of every facet.
+     *
+     * @param filters selected values per facet, already {@link Facet#normalize normalized}
+     */
+    public BrowseResult browse(Map<Facet, Set<String>> filters, long afterId, int size, int maxFacetValues) {
+        return state.read(current -> current.browse(filters, afterId, size, maxFacetValues));
+    }
+
+    /**
+     * @param counts value to count per facet, largest first
+     */
+    public record BrowseResult(List<Long> bookIds, boolean hasNext, long total,
+                               Map<Facet, Map<String, Long>> counts) {
+    }
+
+    /**
+     * Facet values are interned: value ids index {@link #bitmaps}. Not
+     * thread-safe; guarded by the {@link ReplayingRebuild}.
+     */
+    private static final class State {
+        final IdBitmap all = new IdBitmap();
+        final List<IdBitmap> bitmaps = new ArrayList<>();
+        final Map<Facet, Map<String, Integer>> valueIds = new EnumMap<>(Facet.class);
+        final Map<Long, int[]> valuesByBook = new HashMap<>();
+
+        State() {
+            for (Facet facet : Facet.values()) {
+                valueIds.put(facet, new HashMap<>());
+            }
+        }
+
+        void apply(BookChangedEvent event) {
+            if (event.isDelete()) {
+                remove(event.getBookId());
+            } else {
+                put(event.getSnapshot());
+            }
+        }
+
+        void put(BookSnapshot book) {
+            remove(book.getId());
+            int id = Math.toIntExact(book.getId());
+            List<Integer> values = new ArrayList<>();
+            for (Facet facet : Facet.values()) {
+                for (String value : facet.values(book)) {
+                    int valueId = valueIds.get(facet).computeIfAbsent(value, v -> {
+                        bitmaps.add(new IdBitmap());
+                        return bitmaps.size() - 1;
+                    });
+                    if (!values.contains(valueId)) {
+                        values.add(valueId);
+                        bitmaps.get(valueId).add(id);
+                    }
+                }
+            }
+            all.add(id);
+            valuesByBook.put(book.getId(), values.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        void remove(long bookId) {
+            int[] values = valuesByBook.remove(bookId);
+            if (values == null) {
+                return;
+            }
+            int id = Math.toIntExact(bookId);
+            for (int valueId : values) {
+                bitmaps.get(valueId).remove(id);
+            }
+            all.remove(id);
+        }
+
+        BrowseResult browse(Map<Facet, Set<String>> filters, long afterId, int size, int maxFacetValues) {
+            Map<Facet, IdBitmap> selected = new EnumMap<>(Facet.class);
+            for (Map.Entry<Facet, Set<String>> filter : filters.entrySet()) {
+                IdBitmap union = new IdBitmap();
+                for (String value : filter.getValue()) {
+                    Integer valueId = valueIds.get(filter.getKey()).get(value);
+                    if (valueId != null) {
+                        union = union.or(bitmaps.get(valueId));
+                    }
+                }
+                selected.put(filter.getKey(), union);
+            }
+            IdBitmap result = intersect(selected, null);
+
+            List<Long> page = new ArrayList<>(size + 1);
+            if (afterId < Integer.MAX_VALUE) {
+                result.forEachFrom((int) Math.max(0, afterId + 1), id -> {
+                    page.add((long) id);
+                    return page.size() <= size;
+                });
+            }
+            boolean hasNext = page.size() > size;
+            List<Long> bookIds = hasNext ? List.copyOf(page.subList(0, size)) : page;
+
+            Map<Facet, Map<String, Long>> counts = new EnumMap<>(Facet.class);
+            for (Facet facet : Facet.values()) {
+                IdBitmap base = selected.containsKey(facet) ? intersect(selected, facet) : result;
+                List<Map.Entry<String, Long>> facetCounts = new ArrayList<>();
+                for (Map.Entry<String, Integer> value : valueIds.get(facet).entrySet()) {
+                    IdBitmap bitmap = bitmaps.get(value.getValue());
+                    long count = base == all ? bitmap.cardinality() : bitmap.andCardinality(base);
+                    if (count > 0) {
+                        facetCounts.add(Map.entry(value.getKey(), count));
+                    }
+                }
+                facetCounts.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+                Map<String, Long> top = new LinkedHashMap<>();
+                for (Map.Entry<String, Long> entry : facetCounts.subList(0, Math.min(maxFacetValues, facetCounts.size()))) {
+                    top.put(entry.getKey(), entry.getValue());
+                }
+                counts.put(facet, top);
+            }
+            return new BrowseResult(bookIds, hasNext, result.cardinality(), counts);
+        }
+
+        /** All books matching every selection except {@code except}'s. */
+        private IdBitmap intersect(Map<Facet, IdBitmap> selected, Facet except) {
+            IdBitmap result = all;
+            for (Map.Entry<Facet, IdBitmap> selection : selected.entrySet()) {
+                if (selection.getKey() != except) {
+                    result = result.and(selection.getValue());
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.bookreview.facet;
+
+import com.bookreview.catalog.BookSnapshot;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * The dimensions {@code /books/browse} can filter and count on. Values are
+ * strings; {@link #getParam()} is the query parameter that filters on them.
+ */
+public enum Facet {
+    GENRE("genre", book -> book.getGenreIds() != null
+        ? book.getGenreIds().stream().map(String::valueOf).toList()
+        : List.of()),
+    STATUS("status", book -> single(book.getStatus() != null ? book.getStatus().name() : null)),
+    LANGUAGE("language", book -> single(book.getLanguage() != null ? book.getLanguage().toLowerCase(Locale.ROOT) : null)),
+    PUBLISHER("publisher", book -> single(book.getPublisher())),
+    YEAR("year", book -> single(book.getPublicationDate() != null
+        ? String.valueOf(book.getPublicationDate().getYear())
+        : null)),
+    FREE("free", book -> single(String.valueOf(Boolean.TRUE.equals(book.getIsFree())))),
+    PRICE("price", book -> single(priceBand(book.getPrice())));
+
+    private static final BigDecimal[] PRICE_BAND_LIMITS = {
+        BigDecimal.TEN, BigDecimal.valueOf(25), BigDecimal.valueOf(50)
+    };
+    private static final String[] PRICE_BANDS = {"0-10", "10-25", "25-50", "50+"};
+
+    private final String param;
+    private final Function<BookSnapshot, List<String>> extractor;
+
+    Facet(String param, Function<BookSnapshot, List<String>> extractor) {
+        this.param = param;
+        this.extractor = extractor;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    List<String> values(BookSnapshot book) {
+        return extractor.apply(book);
+    }
+
+    /**
+     * A filter value as it is indexed: status, language and the free flag
+     * are case-insensitive.
+     */
+    public String normalize(String value) {
+        return switch (this) {
+            case STATUS -> value.toUpperCase(Locale.ROOT);
+            case LANGUAGE, FREE -> value.toLowerCase(Locale.ROOT);
+            default -> value;
+        };
+    }
+
+    public static Facet fromParam(String param) {
+        for (Facet facet : values()) {
+            if (facet.param.equals(param)) {
+                return facet;
+            }
+        }
+        return null;
+    }
+
+    static String priceBand(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        for (int i = 0; i < PRICE_BAND_LIMITS.length; i++) {
+            if (price.compareTo(PRICE_BAND_LIMITS[i]) < 0) {
+                return PRICE_BANDS[i];
+            }
+        }
+        return PRICE_BANDS[PRICE_BANDS.length - 1];
+    }
+
+    private static List<String> single(String value) {
+        return value != null && !value.isBlank() ? List.of(value) : List.of();
+    }
+}
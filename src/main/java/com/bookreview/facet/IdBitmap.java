@@ -0,0 +1,470 @@
+package com.bookreview.facet;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Compressed set of non-negative int ids, laid out like a Roaring bitmap:
+ * ids are split on their high 16 bits into chunks, and each chunk stores its
+ * low 16 bits as a sorted {@code char[]} while it holds at most
+ * {@value #ARRAY_MAX} ids, else as a 65536-bit bitset. Sparse facet values
+ * (one publisher among thousands) cost two bytes per book, dense ones (a
+ * status) one bit per id, and intersections work chunk by chunk.
+ * <p>
+ * Not thread-safe; {@link BookFacetIndex} guards it with its lock.
+ */
+final class IdBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    /** High 16 bits of each chunk, ascending. */
+    private int[] highs = new int[0];
+    private Object[] chunks = new Object[0];
+    private int chunkCount;
+
+    void add(int id) {
+        int i = chunkIndex(id >>> 16);
+        if (i < 0) {
+            i = -i - 1;
+            insertChunk(i, id >>> 16, new ArrayChunk());
+        }
+        chunks[i] = chunk(i).add((char) id);
+    }
+
+    void remove(int id) {
+        int i = chunkIndex(id >>> 16);
+        if (i < 0) {
+            return;
+        }
+        Chunk chunk = chunk(i).remove((char) id);
+        if (chunk.cardinality() == 0) {
+            System.arraycopy(highs, i + 1, highs, i, chunkCount - i - 1);
+            System.arraycopy(chunks, i + 1, chunks, i, chunkCount - i - 1);
+            chunks[--chunkCount] = null;
+        } else {
+            chunks[i] = chunk;
+        }
+    }
+
+    boolean contains(int id) {
+        int i = chunkIndex(id >>> 16);
+        return i >= 0 && chunk(i).contains((char) id);
+    }
+
+    long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            cardinality += chunk(i).cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * Size of the intersection, without building it.
+     */
+    long andCardinality(IdBitmap other) {
+        long cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (highs[i] == other.highs[j]) {
+                cardinality += chunk(i).andCardinality(other.chunk(j));
+                i++;
+                j++;
+            } else if (highs[i] < other.highs[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    IdBitmap and(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (highs[i] == other.highs[j]) {
+                Chunk chunk = chunk(i).and(other.chunk(j));
+                if (chunk.cardinality() > 0) {
+                    result.insertChunk(result.chunkCount, highs[i], chunk);
+                }
+                i++;
+                j++;
+            } else if (highs[i] < other.highs[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return result;
+    }
+
+    IdBitmap or(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount || j < other.chunkCount) {
+            if (j == other.chunkCount || (i < chunkCount && highs[i] < other.highs[j])) {
+                result.insertChunk(result.chunkCount, highs[i], chunk(i).copy());
+                i++;
+            } else if (i == chunkCount || other.highs[j] < highs[i]) {
+                result.insertChunk(result.chunkCount, other.highs[j], other.chunk(j).copy());
+                j++;
+            } else {
+                result.insertChunk(result.chunkCount, highs[i], chunk(i).or(other.chunk(j)));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Visit ids {@code >= from} in ascending order until {@code visitor}
+     * returns false.
+     */
+    void forEachFrom(int from, IntPredicate visitor) {
+        int i = chunkIndex(from >>> 16);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        for (; i < chunkCount; i++) {
+            int high = highs[i] << 16;
+            char low = highs[i] == from >>> 16 ? (char) from : 0;
+            if (!chunk(i).forEachFrom(low, value -> visitor.test(high | value))) {
+                return;
+            }
+        }
+    }
+
+    private Chunk chunk(int i) {
+        return (Chunk) chunks[i];
+    }
+
+    private int chunkIndex(int high) {
+        return Arrays.binarySearch(highs, 0, chunkCount, high);
+    }
+
+    private void insertChunk(int i, int high, Chunk chunk) {
+        if (chunkCount == highs.length) {
+            int grown = Math.max(4, chunkCount * 2);
+            highs = Arrays.copyOf(highs, grown);
+            chunks = Arrays.copyOf(chunks, grown);
+        }
+        System.arraycopy(highs, i, highs, i + 1, chunkCount - i);
+        System.arraycopy(chunks, i, chunks, i + 1, chunkCount - i);
+        highs[i] = high;
+        chunks[i] = chunk;
+        chunkCount++;
+    }
+
+    /**
+     * The low 16 bits of one chunk's ids. Mutators return the chunk to keep,
+     * which changes representation when it crosses {@value #ARRAY_MAX}.
+     */
+    private interface Chunk {
+        Chunk add(char value);
+
+        Chunk remove(char value);
+
+        boolean contains(char value);
+
+        int cardinality();
+
+        int andCardinality(Chunk other);
+
+        Chunk and(Chunk other);
+
+        Chunk or(Chunk other);
+
+        Chunk copy();
+
+        boolean forEachFrom(char from, IntPredicate visitor);
+    }
+
+    private static final class ArrayChunk implements Chunk {
+        char[] values;
+        int size;
+
+        ArrayChunk() {
+            this(new char[4], 0);
+        }
+
+        ArrayChunk(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        public Chunk add(char value) {
+            int i = Arrays.binarySearch(values, 0, size, value);
+            if (i >= 0) {
+                return this;
+            }
+            if (size == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            i = -i - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, size * 2)));
+            }
+            System.arraycopy(values, i, values, i + 1, size - i);
+            values[i] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        public Chunk remove(char value) {
+            int i = Arrays.binarySearch(values, 0, size, value);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, size - i - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return size;
+        }
+
+        @Override
+        public int andCardinality(Chunk other) {
+            if (other instanceof BitmapChunk) {
+                int count = 0;
+                for (int i = 0; i < size; i++) {
+                    if (other.contains(values[i])) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+            ArrayChunk that = (ArrayChunk) other;
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size && j < that.size) {
+                if (values[i] == that.values[j]) {
+                    count++;
+                    i++;
+                    j++;
+                } else if (values[i] < that.values[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public Chunk and(Chunk other) {
+            char[] out = new char[Math.min(size, other.cardinality())];
+            int n = 0;
+            if (other instanceof BitmapChunk) {
+                for (int i = 0; i < size; i++) {
+                    if (other.contains(values[i])) {
+                        out[n++] = values[i];
+                    }
+                }
+                return new ArrayChunk(out, n);
+            }
+            ArrayChunk that = (ArrayChunk) other;
+            int i = 0;
+            int j = 0;
+            while (i < size && j < that.size) {
+                if (values[i] == that.values[j]) {
+                    out[n++] = values[i];
+                    i++;
+                    j++;
+                } else if (values[i] < that.values[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return new ArrayChunk(out, n);
+        }
+
+        @Override
+        public Chunk or(Chunk other) {
+            if (other instanceof BitmapChunk) {
+                return other.or(this);
+            }
+            ArrayChunk that = (ArrayChunk) other;
+            if (size + that.size > ARRAY_MAX) {
+                return toBitmap().or(that);
+            }
+            char[] out = new char[size + that.size];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < size || j < that.size) {
+                if (j == that.size || (i < size && values[i] < that.values[j])) {
+                    out[n++] = values[i++];
+                } else if (i == size || that.values[j] < values[i]) {
+                    out[n++] = that.values[j++];
+                } else {
+                    out[n++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ArrayChunk(out, n);
+        }
+
+        @Override
+        public Chunk copy() {
+            return new ArrayChunk(Arrays.copyOf(values, Math.max(size, 1)), size);
+        }
+
+        @Override
+        public boolean forEachFrom(char from, IntPredicate visitor) {
+            int i = Arrays.binarySearch(values, 0, size, from);
+            for (i = i >= 0 ? i : -i - 1; i < size; i++) {
+                if (!visitor.test(values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        BitmapChunk toBitmap() {
+            BitmapChunk bitmap = new BitmapChunk();
+            for (int i = 0; i < size; i++) {
+                bitmap.words[values[i] >>> 6] |= 1L << values[i];
+            }
+            bitmap.cardinality = size;
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapChunk implements Chunk {
+        final long[] words = new long[WORDS];
+        int cardinality;
+
+        @Override
+        public Chunk add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public Chunk remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) != 0) {
+                words[value >>> 6] &= ~bit;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public int andCardinality(Chunk other) {
+            if (other instanceof ArrayChunk) {
+                return other.andCardinality(this);
+            }
+            long[] that = ((BitmapChunk) other).words;
+            int count = 0;
+            for (int w = 0; w < WORDS; w++) {
+                count += Long.bitCount(words[w] & that[w]);
+            }
+            return count;
+        }
+
+        @Override
+        public Chunk and(Chunk other) {
+            if (other instanceof ArrayChunk) {
+                return other.and(this);
+            }
+            long[] that = ((BitmapChunk) other).words;
+            BitmapChunk result = new BitmapChunk();
+            for (int w = 0; w < WORDS; w++) {
+                result.words[w] = words[w] & that[w];
+                result.cardinality += Long.bitCount(result.words[w]);
+            }
+            return result.cardinality <= ARRAY_MAX ? result.toArray() : result;
+        }
+
+        @Override
+        public Chunk or(Chunk other) {
+            BitmapChunk result = (BitmapChunk) copy();
+            if (other instanceof ArrayChunk array) {
+                for (int i = 0; i < array.size; i++) {
+                    result.add(array.values[i]);
+                }
+                return result;
+            }
+            long[] that = ((BitmapChunk) other).words;
+            result.cardinality = 0;
+            for (int w = 0; w < WORDS; w++) {
+                result.words[w] |= that[w];
+                result.cardinality += Long.bitCount(result.words[w]);
+            }
+            return result;
+        }
+
+        @Override
+        public Chunk copy() {
+            BitmapChunk copy = new BitmapChunk();
+            System.arraycopy(words, 0, copy.words, 0, WORDS);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        public boolean forEachFrom(char from, IntPredicate visitor) {
+            int w = from >>> 6;
+            long word = words[w] & (-1L << from);
+            while (true) {
+                while (word != 0) {
+                    int value = (w << 6) | Long.numberOfTrailingZeros(word);
+                    if (!visitor.test(value)) {
+                        return false;
+                    }
+                    word &= word - 1;
+                }
+                if (++w == WORDS) {
+                    return true;
+                }
+                word = words[w];
+            }
+        }
+
+        ArrayChunk toArray() {
+            char[] values = new char[cardinality];
+            int n = 0;
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayChunk(values, n);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.bookreview.entity;
 
+import com.bookreview.catalog.Isbn;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -11,18 +12,22 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 @Entity
 @Table(name = "books", indexes = {
     @Index(name = "idx_books_title", columnList = "title"),
     @Index(name = "idx_books_isbn", columnList = "isbn"),
+    @Index(name = "idx_books_isbn_key", columnList = "isbn_key"),
     @Index(name = "idx_books_author", columnList = "author_id"),
     @Index(name = "idx_books_avg_rating", columnList = "average_rating"),
     @Index(name = "idx_books_publication_date", columnList = "publication_date"),
     @Index(name = "idx_books_status", columnList = "status"),
     @Index(name = "idx_books_created_at", columnList = "created_at"),
-    @Index(name = "idx_books_search", columnList = "search_vector"),
+    @Index(name = "idx_books_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_books_avg_rating_id", columnList = "average_rating, id"),
     @Index(name = "idx_books_title_author", columnList = "title, author_id")
 })
 @EntityListeners(AuditingEntityListener.class)
@@ -49,6 +54,10 @@ public class Book {
     @Column(name = "isbn_13", length = 20)
     private String isbn13;
 
+    /** ISBN-13 digits of {@link #isbn13} or {@link #isbn}; see {@link Isbn#key}. */
+    @Column(name = "isbn_key", length = 13)
+    private String isbnKey;
+
     @Column(columnDefinition = "TEXT")
     private String description;
 
@@ -92,6 +101,27 @@ public class Book {
     @Builder.Default
     private Long totalRatingSum = 0L;
 
+    // Rating histogram, maintained with reviewCount by BookRepository#applyRatingDelta.
+    @Column(name = "rating_1_count")
+    @Builder.Default
+    private Integer rating1Count = 0;
+
+    @Column(name = "rating_2_count")
+    @Builder.Default
+    private Integer rating2Count = 0;
+
+    @Column(name = "rating_3_count")
+    @Builder.Default
+    private Integer rating3Count = 0;
+
+    @Column(name = "rating_4_count")
+    @Builder.Default
+    private Integer rating4Count = 0;
+
+    @Column(name = "rating_5_count")
+    @Builder.Default
+    private Integer rating5Count = 0;
+
     @Column(name = "view_count")
     @Builder.Default
     private Long viewCount = 0L;
@@ -162,6 +192,15 @@ public class Book {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * Review counts by star rating, index 0 holding the one-star count.
+     */
+    public List<Integer> getRatingHistogram() {
+        return Stream.of(rating1Count, rating2Count, rating3Count, rating4Count, rating5Count)
+            .map(count -> count != null ? count : 0)
+            .toList();
+    }
+
     @PrePersist
     @PreUpdate
     private void validateBook() {
@@ -171,5 +210,6 @@ public class Book {
         if (price != null && price.compareTo(java.math.BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("Price cannot be negative");
         }
+        isbnKey = Isbn.key(isbn, isbn13);
     }
 }
\ No newline at end of file
@@ -15,7 +15,8 @@ import java.util.Set;
     @Index(name = "idx_reviews_book", columnList = "book_id"),
     @Index(name = "idx_reviews_rating", columnList = "rating"),
     @Index(name = "idx_reviews_created_at", columnList = "created_at"),
-    @Index(name = "idx_reviews_user_book", columnList = "user_id, book_id")
+    @Index(name = "idx_reviews_user_book", columnList = "user_id, book_id"),
+    @Index(name = "idx_reviews_book_created_at_id", columnList = "book_id, created_at, id")
 }, uniqueConstraints = {
     @UniqueConstraint(name = "uk_user_book_review", columnNames = {"user_id", "book_id"})
 })
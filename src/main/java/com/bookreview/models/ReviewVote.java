@@ -0,0 +1,49 @@
+package com.bookreview.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * One user's helpful/not-helpful vote on a review. The unique constraint is
+ * what enforces one vote per user; the counters on {@link Review} are
+ * maintained separately by {@code ReviewVoteService}.
+ */
+@Entity
+@Table(name = "review_votes", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_review_votes_review_user", columnNames = {"review_id", "user_id"})
+}, indexes = {
+    @Index(name = "idx_review_votes_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(exclude = {"review", "user"})
+@ToString(exclude = {"review", "user"})
+public class ReviewVote {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "review_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Review review;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Column(nullable = false)
+    private Boolean helpful;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
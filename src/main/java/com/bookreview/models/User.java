@@ -1,6 +1,7 @@
 package com.bookreview.entity;
 
 import com.bookreview.models.UserRole;
+import com.bookreview.service.UserChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -21,7 +22,7 @@ import java.util.Set;
     @Index(name = "idx_users_created_at", columnList = "created_at"),
     @Index(name = "idx_users_last_login", columnList = "last_login_at")
 })
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, UserChangeListener.class})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
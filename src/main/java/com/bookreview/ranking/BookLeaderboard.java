@@ -0,0 +1,313 @@
+package com.bookreview.ranking;
+
+import com.bookreview.catalog.BookChangedEvent;
+import com.bookreview.catalog.BookRatingChangedEvent;
+import com.bookreview.catalog.ReplayingRebuild;
+import com.bookreview.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory leaderboards behind {@code /books/top} and {@code /genres/{id}/top}:
+ * one bounded {@link TopKBoard} for the whole catalog and one per genre,
+ * ranked by Bayesian average so a single five-star review does not outrank
+ * a hundred four-star ones.
+ * <p>
+ * Rebuilt from the database at startup and on a schedule, which is also
+ * when the catalog mean used as the prior is recomputed. In between, every
+ * committed rating change re-reads the aggregates of the books it names, in
+ * one query however many there are, and moves them on the boards they belong to.
+ */
+@Component
+public class BookLeaderboard {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookLeaderboard.class);
+
+    private final BookRepository bookRepository;
+    private final int size;
+    private final double priorWeight;
+    private final int rebuildParallelism;
+    /** No state until the first build, which may run on a request thread. */
+    private final ReplayingRebuild<State, Change> state = new ReplayingRebuild<>(null, (target, change) -> change.applyTo(target));
+
+    public BookLeaderboard(BookRepository bookRepository,
+                           @Value("${bookreview.leaderboard.size:100}") int size,
+                           @Value("${bookreview.leaderboard.prior-weight:10}") double priorWeight,
+                           @Value("${bookreview.leaderboard.rebuild-parallelism:4}") int rebuildParallelism) {
+        this.bookRepository = bookRepository;
+        this.size = size;
+        this.priorWeight = priorWeight;
+        this.rebuildParallelism = rebuildParallelism;
+    }
+
+    /**
+     * Largest {@code limit} a board can answer.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * The best {@code limit} books overall, best first.
+     */
+    public List<RankedBook> top(int limit) {
+        return top(null, limit);
+    }
+
+    /**
+     * The best {@code limit} books in one genre, best first.
+     */
+    public List<RankedBook> topInGenre(long genreId, int limit) {
+        return top(genreId, limit);
+    }
+
+    private List<RankedBook> top(Long genreId, int limit) {
+        int bounded = Math.max(0, Math.min(limit, size));
+        state.rebuildIfAbsent(this::load);
+        List<RankedBook> top = state.read(current -> {
+            TopKBoard board = current.board(genreId);
+            return board == null ? List.of() : board.top(bounded);
+        });
+        if (top != null) {
+            return top;
+        }
+        return state.write(current -> current.refill(genreId).top(bounded));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${bookreview.leaderboard.rebuild-cron:0 15 * * * *}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        State fresh = state.rebuild(this::load);
+        logger.info("Leaderboards built in {} ms: {} rated books, {} genres, prior mean {}",
+            (System.nanoTime() - started) / 1_000_000, fresh.ranked.size(), fresh.byGenre.size(),
+            String.format("%.3f", fresh.priorMean));
+    }
+
+    private State load() {
+        Map<Long, BookRepository.RatingRow> rows = bookRepository.findRatedAggregates().stream()
+            .collect(Collectors.toMap(BookRepository.RatingRow::getId, row -> row));
+        Map<Long, List<Long>> genresByBook = new HashMap<>();
+        for (Object[] link : bookRepository.findRatedGenreLinks()) {
+            genresByBook.computeIfAbsent((Long) link[0], id -> new ArrayList<>()).add((Long) link[1]);
+        }
+
+        long reviews = 0;
+        long ratingSum = 0;
+        for (BookRepository.RatingRow row : rows.values()) {
+            reviews += row.getReviewCount();
+            ratingSum += row.getTotalRatingSum() != null ? row.getTotalRatingSum() : 0;
+        }
+        State fresh = new State(reviews > 0 ? (double) ratingSum / reviews : 0);
+        Map<Long, List<RankedBook>> booksByGenre = new HashMap<>();
+        for (BookRepository.RatingRow row : rows.values()) {
+            RankedBook book = fresh.rank(row, genresByBook.getOrDefault(row.getId(), List.of()));
+            fresh.ranked.put(book.bookId(), book);
+            fresh.overall.update(book);
+            for (long genreId : book.genreIds()) {
+                booksByGenre.computeIfAbsent(genreId, id -> new ArrayList<>()).add(book);
+            }
+        }
+
+        // Each genre's board is independent, so they fill in parallel.
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, rebuildParallelism));
+        try {
+            fresh.byGenre.putAll(pool.submit(() -> booksByGenre.entrySet().parallelStream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> fill(entry.getValue())))).get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building leaderboards", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not build leaderboards", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return fresh;
+    }
+
+    private TopKBoard fill(List<RankedBook> books) {
+        TopKBoard board = new TopKBoard(capacity());
+        books.forEach(board::update);
+        return board;
+    }
+
+    /** Boards keep some slack past {@code size} so a drop near the end rarely forces a refill. */
+    private int capacity() {
+        return size * 2;
+    }
+
+    @TransactionalEventListener
+    public void onRatingChanged(BookRatingChangedEvent event) {
+        Map<Long, BookRepository.RatingRow> rows = new HashMap<>();
+        for (BookRepository.RatingRow row : bookRepository.findRatingAggregatesByIds(event.getBookIds())) {
+            if (row.getReviewCount() != null && row.getReviewCount() > 0) {
+                rows.put(row.getId(), row);
+            }
+        }
+        Map<Long, List<Long>> genresByBook = new HashMap<>();
+        List<Long> unranked = new ArrayList<>();
+        for (Long bookId : rows.keySet()) {
+            List<Long> genreIds = knownGenres(bookId);
+            if (genreIds != null) {
+                genresByBook.put(bookId, genreIds);
+            } else {
+                unranked.add(bookId);
+                genresByBook.put(bookId, new ArrayList<>());
+            }
+        }
+        if (!unranked.isEmpty()) {
+            for (Object[] link : bookRepository.findGenreLinksByIds(unranked)) {
+                genresByBook.get((Long) link[0]).add((Long) link[1]);
+            }
+        }
+        for (Long bookId : event.getBookIds()) {
+            BookRepository.RatingRow row = rows.get(bookId);
+            apply(row == null ? new Change(bookId, null, null) : new Change(bookId, row, genresByBook.get(bookId)));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.isDelete()) {
+            apply(new Change(event.getBookId(), null, null));
+        } else if (event.getSnapshot().getGenreIds() != null) {
+            apply(Change.genres(event.getBookId(), event.getSnapshot().getGenreIds()));
+        }
+    }
+
+    private List<Long> knownGenres(Long bookId) {
+        return state.read(current -> {
+            RankedBook known = current != null ? current.ranked.get(bookId) : null;
+            if (known == null) {
+                return null;
+            }
+            List<Long> genreIds = new ArrayList<>(known.genreIds().length);
+            for (long genreId : known.genreIds()) {
+                genreIds.add(genreId);
+            }
+            return genreIds;
+        });
+    }
+
+    private void apply(Change change) {
+        state.apply(change);
+    }
+
+    /**
+     * One committed change to a book. {@code row} null with {@code genreOnly}
+     * false removes the book from every board.
+     */
+    private record Change(Long bookId, BookRepository.RatingRow row, List<Long> genreIds, boolean genreOnly) {
+
+        Change(Long bookId, BookRepository.RatingRow row, List<Long> genreIds) {
+            this(bookId, row, genreIds, false);
+        }
+
+        static Change genres(Long bookId, List<Long> genreIds) {
+            return new Change(bookId, null, genreIds, true);
+        }
+
+        void applyTo(State target) {
+            if (genreOnly) {
+                RankedBook known = target.ranked.get(bookId);
+                if (known != null) {
+                    target.put(target.rank(bookId, known.reviewCount(), known.ratingSum(), genreIds));
+                }
+            } else if (row == null) {
+                target.remove(bookId);
+            } else {
+                target.put(target.rank(row, genreIds));
+            }
+        }
+    }
+
+    /**
+     * Everything one build produced. Scores are only comparable within a
+     * state, since they depend on its prior mean.
+     */
+    private final class State {
+        final double priorMean;
+        final Map<Long, RankedBook> ranked = new HashMap<>();
+        TopKBoard overall = new TopKBoard(capacity());
+        final Map<Long, TopKBoard> byGenre = new ConcurrentHashMap<>();
+
+        State(double priorMean) {
+            this.priorMean = priorMean;
+        }
+
+        RankedBook rank(BookRepository.RatingRow row, List<Long> genreIds) {
+            long ratingSum = row.getTotalRatingSum() != null ? row.getTotalRatingSum() : 0;
+            return rank(row.getId(), row.getReviewCount(), ratingSum, genreIds);
+        }
+
+        RankedBook rank(long bookId, int reviewCount, long ratingSum, List<Long> genreIds) {
+            long[] genres = genreIds.stream().distinct().mapToLong(Long::longValue).toArray();
+            return new RankedBook(bookId, reviewCount, ratingSum, genres,
+                RankedBook.bayesianScore(reviewCount, ratingSum, priorMean, priorWeight));
+        }
+
+        TopKBoard board(Long genreId) {
+            return genreId == null ? overall : byGenre.get(genreId);
+        }
+
+        void put(RankedBook book) {
+            RankedBook previous = ranked.put(book.bookId(), book);
+            overall.update(book);
+            if (previous != null) {
+                for (long genreId : previous.genreIds()) {
+                    if (!book.inGenre(genreId)) {
+                        byGenre.get(genreId).remove(book.bookId());
+                    }
+                }
+            }
+            for (long genreId : book.genreIds()) {
+                byGenre.computeIfAbsent(genreId, id -> new TopKBoard(capacity())).update(book);
+            }
+        }
+
+        void remove(long bookId) {
+            RankedBook previous = ranked.remove(bookId);
+            if (previous == null) {
+                return;
+            }
+            overall.remove(bookId);
+            for (long genreId : previous.genreIds()) {
+                byGenre.get(genreId).remove(bookId);
+            }
+        }
+
+        /**
+         * Replace a board that can no longer answer with one rebuilt from
+         * every rated book in its scope.
+         */
+        TopKBoard refill(Long genreId) {
+            TopKBoard board = new TopKBoard(capacity());
+            for (RankedBook book : ranked.values()) {
+                if (genreId == null || book.inGenre(genreId)) {
+                    board.update(book);
+                }
+            }
+            if (genreId == null) {
+                overall = board;
+            } else {
+                byGenre.put(genreId, board);
+            }
+            return board;
+        }
+    }
+}
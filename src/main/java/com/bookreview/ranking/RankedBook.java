@@ -0,0 +1,36 @@
+package com.bookreview.ranking;
+
+import java.util.Comparator;
+
+/**
+ * A rated book's position in the leaderboards. Immutable; a rating change
+ * replaces the whole record.
+ *
+ * @param score Bayesian average: the book's ratings blended with
+ *              {@code priorWeight} phantom ratings at the catalog mean
+ */
+public record RankedBook(long bookId, int reviewCount, long ratingSum, long[] genreIds, double score) {
+
+    /** Best first: score, then review count, then the older (lower) id. */
+    static final Comparator<RankedBook> ORDER = Comparator
+        .comparingDouble(RankedBook::score).reversed()
+        .thenComparing(Comparator.comparingInt(RankedBook::reviewCount).reversed())
+        .thenComparingLong(RankedBook::bookId);
+
+    static double bayesianScore(int reviewCount, long ratingSum, double priorMean, double priorWeight) {
+        return (priorWeight * priorMean + ratingSum) / (priorWeight + reviewCount);
+    }
+
+    public double averageRating() {
+        return reviewCount > 0 ? (double) ratingSum / reviewCount : 0;
+    }
+
+    boolean inGenre(long genreId) {
+        for (long id : genreIds) {
+            if (id == genreId) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
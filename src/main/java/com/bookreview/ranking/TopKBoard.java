@@ -0,0 +1,85 @@
+package com.bookreview.ranking;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Bounded ranking of the best books in one scope (a genre, or the whole
+ * catalog). Updates are O(log capacity).
+ * <p>
+ * Books that fall off the end are forgotten, so the board also tracks
+ * {@code floor}: the best book it has ever turned away. Every book outside
+ * the board ranks at or below the floor, which makes every retained entry
+ * ranked above it exact. When a read needs an entry at or below the floor
+ * (because retained books dropped or were removed) {@link #top} returns null
+ * and the caller refills the board from the full set of rated books.
+ * <p>
+ * Not thread-safe; {@link BookLeaderboard} guards every board with its lock.
+ */
+final class TopKBoard {
+
+    private final int capacity;
+    private final TreeSet<RankedBook> entries = new TreeSet<>(RankedBook.ORDER);
+    private final Map<Long, RankedBook> byBook = new HashMap<>();
+    private RankedBook floor;
+
+    TopKBoard(int capacity) {
+        this.capacity = capacity;
+    }
+
+    void update(RankedBook book) {
+        RankedBook previous = byBook.remove(book.bookId());
+        if (previous != null) {
+            entries.remove(previous);
+        }
+        if (entries.size() >= capacity && RankedBook.ORDER.compare(book, entries.last()) > 0) {
+            raiseFloor(book);
+            return;
+        }
+        entries.add(book);
+        byBook.put(book.bookId(), book);
+        if (entries.size() > capacity) {
+            RankedBook dropped = entries.pollLast();
+            byBook.remove(dropped.bookId());
+            raiseFloor(dropped);
+        }
+    }
+
+    void remove(long bookId) {
+        RankedBook previous = byBook.remove(bookId);
+        if (previous != null) {
+            entries.remove(previous);
+        }
+    }
+
+    /**
+     * @return the best {@code limit} books, or null if the board can no longer
+     *         vouch for that many and must be refilled
+     */
+    List<RankedBook> top(int limit) {
+        List<RankedBook> top = new ArrayList<>(Math.min(limit, entries.size()));
+        for (RankedBook book : entries) {
+            if (top.size() == limit) {
+                return top;
+            }
+            if (floor != null && RankedBook.ORDER.compare(book, floor) >= 0) {
+                return null;
+            }
+            top.add(book);
+        }
+        return top.size() == limit || floor == null ? top : null;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void raiseFloor(RankedBook book) {
+        if (floor == null || RankedBook.ORDER.compare(book, floor) < 0) {
+            floor = book;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.bookreview.ratelimit;
+
+/**
+ * Concurrency limit that follows request latency, in the style of the
+ * gradient limiters used for TCP congestion control.
+ * <p>
+ * Two exponentially weighted latency averages are kept: a short one (about
+ * the last {@value #SHORT_WINDOW} samples) for what requests cost now, and a
+ * long one (about {@value #LONG_WINDOW}) as the baseline. While the short
+ * average stays within {@code tolerance} of the baseline the limit grows by
+ * roughly its square root per sample; once latency climbs past that, the
+ * limit is scaled down by {@code baseline / current}, at most halving per
+ * sample. Changes are smoothed, and the limit only grows while at least half
+ * of it is in use, since an idle server says nothing about how much more it
+ * could take. A baseline left high by an incident is pulled down quickly
+ * once latency recovers.
+ */
+final class AdaptiveLimit {
+
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+    private static final double SHORT_ALPHA = 2.0 / (SHORT_WINDOW + 1);
+    private static final double LONG_ALPHA = 2.0 / (LONG_WINDOW + 1);
+    private static final double SMOOTHING = 0.2;
+    private static final double BASELINE_RECOVERY = 0.95;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * @param rttNanos time the request took
+     * @param inFlight requests in flight when it started, itself included
+     */
+    synchronized void onSample(long rttNanos, int inFlight) {
+        if (longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) * SHORT_ALPHA;
+        longRtt += (rttNanos - longRtt) * LONG_ALPHA;
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= BASELINE_RECOVERY;
+        }
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        if (gradient == 1.0 && inFlight < current / 2) {
+            return;
+        }
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
@@ -0,0 +1,147 @@
+package com.bookreview.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sheds load once the server is running as many requests as it can
+ * usefully handle, instead of letting them queue on request threads until
+ * everything times out.
+ * <p>
+ * The limit is an {@link AdaptiveLimit} fed with the latency of every
+ * admitted request except bulk ones, whose cost says little about the
+ * database's health. Requests fall into {@link Lane}s that may fill different
+ * shares of the limit: bulk listings, searches, imports and exports give up
+ * first, single-book reads last. A request over its lane's share is answered
+ * at once with 503 and {@code Retry-After}.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * Priority of a request when the server is saturated.
+     */
+    enum Lane {
+        /** Listings, searches and batch endpoints. */
+        BULK,
+        NORMAL,
+        /** {@code GET /books/{id}} and its sub-resources. */
+        POINT_READ;
+
+        static Lane of(String method, String path) {
+            boolean get = "GET".equals(method);
+            if (path.startsWith("/books/") && path.length() > 7 && Character.isDigit(path.charAt(7))) {
+                return get ? POINT_READ : NORMAL;
+            }
+            if (get && (path.equals("/books") || path.startsWith("/books/search") || path.equals("/books/browse")
+                    || path.equals("/books/paged") || path.equals("/books/cursor") || path.startsWith("/books/genre/")
+                    || path.startsWith("/books/author/") || path.startsWith("/books/status/")
+                    || (path.startsWith("/reviews/book/") && !path.endsWith("/cursor"))
+                    || path.startsWith("/reviews/user/") || path.startsWith("/admin/export/"))) {
+                return BULK;
+            }
+            if ("POST".equals(method) && (path.equals("/books/import") || path.equals("/books/isbn/resolve")
+                    || path.equals("/reviews/batch"))) {
+                return BULK;
+            }
+            return NORMAL;
+        }
+    }
+
+    private final boolean enabled;
+    private final AdaptiveLimit limit;
+    /** Share of the limit each lane may fill, by ordinal. */
+    private final double[] shares = new double[Lane.values().length];
+    private final Counter[] shed = new Counter[Lane.values().length];
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${bookreview.concurrency.enabled:true}") boolean enabled,
+                                  @Value("${bookreview.concurrency.initial-limit:20}") int initialLimit,
+                                  @Value("${bookreview.concurrency.min-limit:4}") int minLimit,
+                                  @Value("${bookreview.concurrency.max-limit:200}") int maxLimit,
+                                  @Value("${bookreview.concurrency.tolerance:1.5}") double tolerance,
+                                  @Value("${bookreview.concurrency.bulk-share:0.5}") double bulkShare,
+                                  @Value("${bookreview.concurrency.normal-share:0.9}") double normalShare) {
+        this.enabled = enabled;
+        this.limit = new AdaptiveLimit(initialLimit, minLimit, maxLimit, tolerance);
+        shares[Lane.BULK.ordinal()] = bulkShare;
+        shares[Lane.NORMAL.ordinal()] = normalShare;
+        shares[Lane.POINT_READ.ordinal()] = 1.0;
+        for (Lane lane : Lane.values()) {
+            shed[lane.ordinal()] = Counter.builder("bookreview.concurrency.shed")
+                .description("Requests refused because the concurrency limit was reached")
+                .tag("lane", lane.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        }
+        Gauge.builder("bookreview.concurrency.limit", limit, AdaptiveLimit::limit)
+            .description("Current adaptive concurrency limit")
+            .register(meterRegistry);
+        Gauge.builder("bookreview.concurrency.in_flight", inFlight, AtomicInteger::get)
+            .description("Requests currently admitted past the concurrency limit")
+            .register(meterRegistry);
+    }
+
+    int limit() {
+        return limit.limit();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Lane lane = Lane.of(request.getMethod(), request.getServletPath());
+        int admittedAt = tryAcquire(lane);
+        if (admittedAt < 0) {
+            shed[lane.ordinal()].increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Service Unavailable\",\"message\":\"Server is busy. Please retry shortly.\"}");
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+            if (lane != Lane.BULK) {
+                limit.onSample(System.nanoTime() - started, admittedAt);
+            }
+        }
+    }
+
+    /**
+     * @return the in-flight count including this request, or -1 if the lane is full
+     */
+    private int tryAcquire(Lane lane) {
+        int allowed = Math.max(1, (int) (limit.limit() * shares[lane.ordinal()]));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.bookreview.ratelimit;
+
+import com.bookreview.security.AuthenticatedUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-client request rate limits for the books, reviews and auth endpoints.
+ * <p>
+ * Each route group has its own limit and its own map of {@link TokenBucket}s,
+ * keyed by user id once {@code JwtAuthenticationFilter} has authenticated the
+ * request and by remote address otherwise. Allowed and rejected responses
+ * carry {@code RateLimit-Limit}, {@code RateLimit-Remaining} and
+ * {@code RateLimit-Reset} (seconds until the bucket is full again); rejections
+ * are 429 with {@code Retry-After}.
+ * <p>
+ * A bucket that has refilled completely behaves exactly like a new one, so
+ * sweeps drop those. If a group still holds {@code max-clients} buckets, an
+ * arbitrary tenth is dropped, which at worst hands a few clients a fresh burst.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String LIMIT_HEADER = "RateLimit-Limit";
+    static final String REMAINING_HEADER = "RateLimit-Remaining";
+    static final String RESET_HEADER = "RateLimit-Reset";
+
+    private final boolean enabled;
+    private final int maxClients;
+    private final List<RouteGroup> groups;
+    private final long baseNanos = System.nanoTime();
+
+    public RateLimitFilter(MeterRegistry meterRegistry,
+                           @Value("${bookreview.ratelimit.enabled:true}") boolean enabled,
+                           @Value("${bookreview.ratelimit.max-clients:100000}") int maxClients,
+                           @Value("${bookreview.ratelimit.books.capacity:120}") long booksCapacity,
+                           @Value("${bookreview.ratelimit.books.per-second:20}") double booksPerSecond,
+                           @Value("${bookreview.ratelimit.reviews.capacity:60}") long reviewsCapacity,
+                           @Value("${bookreview.ratelimit.reviews.per-second:5}") double reviewsPerSecond,
+                           @Value("${bookreview.ratelimit.auth.capacity:10}") long authCapacity,
+                           @Value("${bookreview.ratelimit.auth.per-second:0.2}") double authPerSecond) {
+        this.enabled = enabled;
+        this.maxClients = maxClients;
+        this.groups = List.of(
+            new RouteGroup("books", List.of("/books"), TokenBucket.Limit.of(booksCapacity, booksPerSecond), meterRegistry),
+            new RouteGroup("reviews", List.of("/reviews"), TokenBucket.Limit.of(reviewsCapacity, reviewsPerSecond), meterRegistry),
+            new RouteGroup("auth", List.of("/auth", "/users/register"), TokenBucket.Limit.of(authCapacity, authPerSecond), meterRegistry));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteGroup group = groupOf(request.getServletPath());
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long now = nowMillis();
+        TokenBucket bucket = group.bucket(clientKey(request), now);
+        long result = bucket.tryAcquire(now);
+        TokenBucket.Limit limit = group.limit;
+        long balance = result >= 0 ? result : -result - 1;
+        response.setHeader(LIMIT_HEADER, Long.toString(limit.capacity()));
+        response.setHeader(REMAINING_HEADER, Long.toString(balance / TokenBucket.MILLITOKENS_PER_TOKEN));
+        response.setHeader(RESET_HEADER, Long.toString(limit.secondsUntil(balance, limit.capacityMillitokens())));
+        if (result < 0) {
+            group.rejected.increment();
+            response.setStatus(429);
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1, limit.secondsUntil(balance, TokenBucket.MILLITOKENS_PER_TOKEN))));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded. Please slow down.\"}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Drop buckets that have refilled completely.
+     */
+    @Scheduled(fixedDelayString = "${bookreview.ratelimit.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = nowMillis();
+        for (RouteGroup group : groups) {
+            group.sweep(now, false);
+        }
+    }
+
+    private RouteGroup groupOf(String path) {
+        for (RouteGroup group : groups) {
+            for (String prefix : group.prefixes) {
+                if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    /** User id (a {@code Long}) when authenticated, else the remote address (a {@code String}). */
+    private static Object clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user && user.getId() != null) {
+            return user.getId();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private long nowMillis() {
+        // Starts at 1 so a new bucket's refill time is never 0.
+        return (System.nanoTime() - baseNanos) / 1_000_000 + 1;
+    }
+
+    private final class RouteGroup {
+        final List<String> prefixes;
+        final TokenBucket.Limit limit;
+        final Map<Object, TokenBucket> buckets = new ConcurrentHashMap<>();
+        final AtomicBoolean sweeping = new AtomicBoolean();
+        final Counter rejected;
+
+        RouteGroup(String name, List<String> prefixes, TokenBucket.Limit limit, MeterRegistry meterRegistry) {
+            this.prefixes = prefixes;
+            this.limit = limit;
+            this.rejected = Counter.builder("bookreview.ratelimit.rejected")
+                .description("Requests refused by the per-client rate limit")
+                .tag("group", name)
+                .register(meterRegistry);
+            Gauge.builder("bookreview.ratelimit.clients", buckets, Map::size)
+                .description("Clients with a live rate limit bucket")
+                .tag("group", name)
+                .register(meterRegistry);
+        }
+
+        TokenBucket bucket(Object client, long now) {
+            TokenBucket bucket = buckets.get(client);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (buckets.size() >= maxClients) {
+                sweep(now, true);
+            }
+            return buckets.computeIfAbsent(client, key -> new TokenBucket(limit, now));
+        }
+
+        /**
+         * Drop full buckets and, if {@code trim}, arbitrary ones until 10% under
+         * capacity. Concurrent callers skip rather than sweep twice.
+         */
+        void sweep(long now, boolean trim) {
+            if (!sweeping.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                buckets.values().removeIf(bucket -> bucket.isFull(now));
+                if (trim) {
+                    int target = maxClients - Math.max(1, maxClients / 10);
+                    Iterator<Object> keys = buckets.keySet().iterator();
+                    while (buckets.size() > target && keys.hasNext()) {
+                        keys.next();
+                        keys.remove();
+                    }
+                }
+            } finally {
+                sweeping.set(false);
+            }
+        }
+    }
+}
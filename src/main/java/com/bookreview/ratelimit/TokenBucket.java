@@ -0,0 +1,107 @@
+package com.bookreview.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. The whole state is one {@code long}, updated with
+ * compare-and-set: the high 40 bits hold the millisecond the bucket was last
+ * refilled to, the low 24 bits its balance in thousandths of a token, so
+ * fractional refill rates accumulate exactly instead of being rounded away
+ * on every request.
+ * <p>
+ * Times are milliseconds on a caller-chosen monotonic clock; 40 bits cover
+ * about 34 years of it.
+ */
+final class TokenBucket {
+
+    static final long MILLITOKENS_PER_TOKEN = 1000;
+    private static final int BALANCE_BITS = 24;
+    private static final long BALANCE_MASK = (1L << BALANCE_BITS) - 1;
+    static final long MAX_CAPACITY = BALANCE_MASK / MILLITOKENS_PER_TOKEN;
+
+    private final Limit limit;
+    private final AtomicLong state;
+
+    TokenBucket(Limit limit, long nowMillis) {
+        this.limit = limit;
+        this.state = new AtomicLong(pack(nowMillis, limit.capacityMillitokens()));
+    }
+
+    /**
+     * Take one token if there is one.
+     *
+     * @return the balance left in millitokens if a token was taken, otherwise
+     *         {@code -(balance + 1)}
+     */
+    long tryAcquire(long nowMillis) {
+        while (true) {
+            long current = state.get();
+            long refilledAt = current >>> BALANCE_BITS;
+            long balance = current & BALANCE_MASK;
+            long elapsed = nowMillis - refilledAt;
+            if (elapsed > 0) {
+                double refill = elapsed * limit.millitokensPerMilli();
+                long gained = (long) refill;
+                if (balance + refill >= limit.capacityMillitokens()) {
+                    balance = limit.capacityMillitokens();
+                    refilledAt = nowMillis;
+                } else if (gained > 0) {
+                    balance += gained;
+                    // Advance only by the time those tokens took, keeping the remainder.
+                    refilledAt += (long) (gained / limit.millitokensPerMilli());
+                }
+            }
+            boolean acquired = balance >= MILLITOKENS_PER_TOKEN;
+            if (acquired) {
+                balance -= MILLITOKENS_PER_TOKEN;
+            }
+            long next = pack(refilledAt, balance);
+            if (next == current || state.compareAndSet(current, next)) {
+                return acquired ? balance : -balance - 1;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket would be full at {@code nowMillis}, which makes it
+     * indistinguishable from a new one and safe to forget.
+     */
+    boolean isFull(long nowMillis) {
+        long current = state.get();
+        long missing = limit.capacityMillitokens() - (current & BALANCE_MASK);
+        return missing <= (nowMillis - (current >>> BALANCE_BITS)) * limit.millitokensPerMilli();
+    }
+
+    private static long pack(long millis, long balance) {
+        return (millis << BALANCE_BITS) | balance;
+    }
+
+    /**
+     * A bucket size and refill rate.
+     */
+    record Limit(long capacityMillitokens, double millitokensPerMilli) {
+
+        static Limit of(long capacity, double tokensPerSecond) {
+            if (capacity < 1 || capacity > MAX_CAPACITY) {
+                throw new IllegalArgumentException("Rate limit capacity must be between 1 and " + MAX_CAPACITY + ": " + capacity);
+            }
+            if (!(tokensPerSecond > 0)) {
+                throw new IllegalArgumentException("Rate limit refill rate must be positive: " + tokensPerSecond);
+            }
+            // Tokens per second and thousandths of a token per millisecond are the same number.
+            return new Limit(capacity * MILLITOKENS_PER_TOKEN, tokensPerSecond);
+        }
+
+        long capacity() {
+            return capacityMillitokens / MILLITOKENS_PER_TOKEN;
+        }
+
+        /** Whole seconds until a bucket holding {@code balance} millitokens has {@code target}. */
+        long secondsUntil(long balance, long target) {
+            if (balance >= target) {
+                return 0;
+            }
+            return (long) Math.ceil((target - balance) / millitokensPerMilli / 1000);
+        }
+    }
+}
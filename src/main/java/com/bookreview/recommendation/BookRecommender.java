@@ -0,0 +1,96 @@
+package com.bookreview.recommendation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves "readers who liked this also liked" from an {@link ItemSimilarityModel}
+ * built off-line from the {@code reviews} table.
+ * <p>
+ * The model is rebuilt at startup and on a schedule, never per request, and
+ * replaced with a single volatile write once complete: readers see either the
+ * old model or the new one, and a failed build leaves the old one serving.
+ * Books reviewed since the last build have no neighbours until the next one.
+ */
+@Component
+public class BookRecommender {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookRecommender.class);
+
+    private static final String LOAD_SQL = "SELECT user_id, book_id, rating FROM reviews";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ItemSimilarityBuilder builder;
+    private final int parallelism;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile ItemSimilarityModel model = ItemSimilarityModel.EMPTY;
+
+    public BookRecommender(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${bookreview.recommendations.neighbors:20}") int neighbors,
+                           @Value("${bookreview.recommendations.min-common-readers:2}") int minCommonReaders,
+                           @Value("${bookreview.recommendations.build-parallelism:4}") int parallelism) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        // Row-at-a-time fetches only stream inside a transaction (PostgreSQL needs autocommit off).
+        this.jdbcTemplate.setFetchSize(10_000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.builder = new ItemSimilarityBuilder(neighbors, minCommonReaders);
+        this.parallelism = parallelism;
+    }
+
+    public List<ScoredBook> recommend(long bookId, int limit) {
+        return model.neighbors(bookId, limit);
+    }
+
+    public ItemSimilarityModel getModel() {
+        return model;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${bookreview.recommendations.rebuild-cron:0 0 4 * * *}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long started = System.nanoTime();
+            RatingLog log = load();
+            long loaded = System.nanoTime();
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+            ItemSimilarityModel fresh;
+            try {
+                fresh = builder.build(log, pool);
+            } finally {
+                pool.shutdown();
+            }
+            model = fresh;
+            logger.info("Recommendation model built from {} reviews in {} ms (load {} ms): {} books, {} links, ~{} KB",
+                log.size(), (System.nanoTime() - started) / 1_000_000, (loaded - started) / 1_000_000,
+                fresh.getBooks(), fresh.getNeighborLinks(), fresh.getEstimatedBytes() / 1024);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private RatingLog load() {
+        return readOnlyTransaction.execute(status -> {
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reviews", Long.class);
+            RatingLog log = new RatingLog(count != null ? (int) Math.min(count, Integer.MAX_VALUE - 8) : 0);
+            jdbcTemplate.query(LOAD_SQL, (RowCallbackHandler) rs -> log.add(rs.getLong(1), rs.getLong(2), rs.getInt(3)));
+            return log;
+        });
+    }
+}
@@ -0,0 +1,258 @@
+package com.bookreview.recommendation;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes an {@link ItemSimilarityModel} from a {@link RatingLog}.
+ * <p>
+ * Similarity is adjusted cosine: each rating is centred on its reader's mean,
+ * so a book is "liked" relative to how that reader usually rates. Ratings are
+ * held as sparse matrices in both orientations (book to readers, reader to
+ * books) using dense {@code int} indexes. For every book, walking its readers
+ * and their other books accumulates the dot products with exactly the books
+ * it shares a reader with; pairs with no overlap are never visited. Books are
+ * partitioned across a fork/join pool, each worker reusing one scratch row.
+ */
+final class ItemSimilarityBuilder {
+
+    private static final int LEAF_SIZE = 64;
+
+    private final int neighborsPerBook;
+    private final int minCommonReaders;
+
+    ItemSimilarityBuilder(int neighborsPerBook, int minCommonReaders) {
+        this.neighborsPerBook = neighborsPerBook;
+        this.minCommonReaders = Math.max(1, minCommonReaders);
+    }
+
+    ItemSimilarityModel build(RatingLog log, ForkJoinPool pool) {
+        if (log.size() == 0) {
+            return ItemSimilarityModel.EMPTY;
+        }
+        long[] bookIds = log.distinctBooks();
+        long[] userIds = log.distinctUsers();
+        int reviews = log.size();
+        int books = bookIds.length;
+        int users = userIds.length;
+
+        int[] bookOf = new int[reviews];
+        int[] userOf = new int[reviews];
+        double[] userSum = new double[users];
+        int[] userCount = new int[users];
+        int[] bookCount = new int[books];
+        for (int k = 0; k < reviews; k++) {
+            bookOf[k] = Arrays.binarySearch(bookIds, log.book(k));
+            userOf[k] = Arrays.binarySearch(userIds, log.user(k));
+            userSum[userOf[k]] += log.rating(k);
+            userCount[userOf[k]]++;
+            bookCount[bookOf[k]]++;
+        }
+
+        int[] userStart = offsets(userCount);
+        int[] bookStart = offsets(bookCount);
+        int[] userBooks = new int[reviews];
+        float[] userValues = new float[reviews];
+        int[] bookUsers = new int[reviews];
+        float[] bookValues = new float[reviews];
+        int[] userFill = Arrays.copyOf(userStart, users);
+        int[] bookFill = Arrays.copyOf(bookStart, books);
+        for (int k = 0; k < reviews; k++) {
+            int u = userOf[k];
+            int b = bookOf[k];
+            float value = (float) (log.rating(k) - userSum[u] / userCount[u]);
+            userBooks[userFill[u]] = b;
+            userValues[userFill[u]++] = value;
+            bookUsers[bookFill[b]] = u;
+            bookValues[bookFill[b]++] = value;
+        }
+
+        float[] norms = new float[books];
+        for (int b = 0; b < books; b++) {
+            double squares = 0;
+            for (int k = bookStart[b]; k < bookStart[b + 1]; k++) {
+                squares += (double) bookValues[k] * bookValues[k];
+            }
+            norms[b] = (float) Math.sqrt(squares);
+        }
+
+        Matrices matrices = new Matrices(books, userStart, userBooks, userValues, bookStart, bookUsers, bookValues, norms);
+        int[][] neighbors = new int[books][];
+        float[][] scores = new float[books][];
+        ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> new Scratch(books, neighborsPerBook));
+        pool.invoke(new SimilarityTask(matrices, scratch, neighbors, scores, 0, books));
+        return compact(bookIds, neighbors, scores);
+    }
+
+    private static int[] offsets(int[] counts) {
+        int[] start = new int[counts.length + 1];
+        for (int i = 0; i < counts.length; i++) {
+            start[i + 1] = start[i] + counts[i];
+        }
+        return start;
+    }
+
+    private static ItemSimilarityModel compact(long[] bookIds, int[][] neighbors, float[][] scores) {
+        int[] start = new int[bookIds.length + 1];
+        for (int b = 0; b < bookIds.length; b++) {
+            start[b + 1] = start[b] + neighbors[b].length;
+        }
+        int[] flatNeighbors = new int[start[bookIds.length]];
+        float[] flatScores = new float[flatNeighbors.length];
+        for (int b = 0; b < bookIds.length; b++) {
+            System.arraycopy(neighbors[b], 0, flatNeighbors, start[b], neighbors[b].length);
+            System.arraycopy(scores[b], 0, flatScores, start[b], scores[b].length);
+        }
+        return new ItemSimilarityModel(bookIds, start, flatNeighbors, flatScores);
+    }
+
+    private record Matrices(int books, int[] userStart, int[] userBooks, float[] userValues,
+                            int[] bookStart, int[] bookUsers, float[] bookValues, float[] norms) {
+    }
+
+    /**
+     * Per-worker accumulators, sized to the catalog and cleared sparsely
+     * after each book.
+     */
+    private static final class Scratch {
+        final float[] dot;
+        final int[] common;
+        final int[] touched;
+        final int[] heapBooks;
+        final float[] heapScores;
+
+        Scratch(int books, int neighbors) {
+            dot = new float[books];
+            common = new int[books];
+            touched = new int[books];
+            heapBooks = new int[neighbors];
+            heapScores = new float[neighbors];
+        }
+    }
+
+    private final class SimilarityTask extends RecursiveAction {
+        private final Matrices m;
+        private final ThreadLocal<Scratch> scratch;
+        private final int[][] neighbors;
+        private final float[][] scores;
+        private final int from;
+        private final int to;
+
+        SimilarityTask(Matrices m, ThreadLocal<Scratch> scratch, int[][] neighbors, float[][] scores, int from, int to) {
+            this.m = m;
+            this.scratch = scratch;
+            this.neighbors = neighbors;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                Scratch s = scratch.get();
+                for (int b = from; b < to; b++) {
+                    similarTo(b, s);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SimilarityTask(m, scratch, neighbors, scores, from, mid),
+                      new SimilarityTask(m, scratch, neighbors, scores, mid, to));
+        }
+
+        private void similarTo(int b, Scratch s) {
+            int touched = 0;
+            if (m.norms[b] > 0) {
+                for (int k = m.bookStart[b]; k < m.bookStart[b + 1]; k++) {
+                    int u = m.bookUsers[k];
+                    float value = m.bookValues[k];
+                    for (int j = m.userStart[u]; j < m.userStart[u + 1]; j++) {
+                        int other = m.userBooks[j];
+                        if (other == b) {
+                            continue;
+                        }
+                        if (s.common[other] == 0) {
+                            s.touched[touched++] = other;
+                        }
+                        s.common[other]++;
+                        s.dot[other] += value * m.userValues[j];
+                    }
+                }
+            }
+
+            int heapSize = 0;
+            for (int t = 0; t < touched; t++) {
+                int other = s.touched[t];
+                if (s.common[other] >= minCommonReaders && s.dot[other] > 0 && m.norms[other] > 0) {
+                    float similarity = s.dot[other] / (m.norms[b] * m.norms[other]);
+                    heapSize = offer(s, heapSize, other, similarity);
+                }
+                s.dot[other] = 0;
+                s.common[other] = 0;
+            }
+            drain(s, heapSize, b);
+        }
+
+        /** Keep the best {@code neighborsPerBook} in a min-heap on score. */
+        private int offer(Scratch s, int size, int book, float score) {
+            if (size < s.heapBooks.length) {
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (s.heapScores[parent] <= score) {
+                        break;
+                    }
+                    s.heapBooks[i] = s.heapBooks[parent];
+                    s.heapScores[i] = s.heapScores[parent];
+                    i = parent;
+                }
+                s.heapBooks[i] = book;
+                s.heapScores[i] = score;
+                return size;
+            }
+            if (size == 0 || score <= s.heapScores[0]) {
+                return size;
+            }
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && s.heapScores[child + 1] < s.heapScores[child]) {
+                    child++;
+                }
+                if (s.heapScores[child] >= score) {
+                    break;
+                }
+                s.heapBooks[i] = s.heapBooks[child];
+                s.heapScores[i] = s.heapScores[child];
+                i = child;
+            }
+            s.heapBooks[i] = book;
+            s.heapScores[i] = score;
+            return size;
+        }
+
+        private void drain(Scratch s, int size, int b) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (x, y) -> {
+                int byScore = Float.compare(s.heapScores[y], s.heapScores[x]);
+                return byScore != 0 ? byScore : Integer.compare(s.heapBooks[x], s.heapBooks[y]);
+            });
+            int[] books = new int[size];
+            float[] values = new float[size];
+            for (int i = 0; i < size; i++) {
+                books[i] = s.heapBooks[order[i]];
+                values[i] = s.heapScores[order[i]];
+            }
+            neighbors[b] = books;
+            scores[b] = values;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.bookreview.recommendation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable "readers who liked this also liked" lists: for every reviewed
+ * book, its most similar books best first. Stored as flat primitive arrays
+ * (CSR layout) so a lookup is one binary search and a slice copy.
+ */
+public final class ItemSimilarityModel {
+
+    public static final ItemSimilarityModel EMPTY =
+        new ItemSimilarityModel(new long[0], new int[]{0}, new int[0], new float[0]);
+
+    /** Sorted; position is the book's index in the other arrays. */
+    private final long[] bookIds;
+    /** Neighbours of book {@code i} are at {@code [start[i], start[i + 1])}. */
+    private final int[] start;
+    private final int[] neighbors;
+    private final float[] scores;
+
+    ItemSimilarityModel(long[] bookIds, int[] start, int[] neighbors, float[] scores) {
+        this.bookIds = bookIds;
+        this.start = start;
+        this.neighbors = neighbors;
+        this.scores = scores;
+    }
+
+    /**
+     * Up to {@code limit} books most similar to {@code bookId}, best first;
+     * empty if the book has no reviews in the model.
+     */
+    public List<ScoredBook> neighbors(long bookId, int limit) {
+        int index = Arrays.binarySearch(bookIds, bookId);
+        if (index < 0) {
+            return List.of();
+        }
+        int from = start[index];
+        int to = Math.min(start[index + 1], from + Math.max(0, limit));
+        List<ScoredBook> result = new ArrayList<>(to - from);
+        for (int k = from; k < to; k++) {
+            result.add(new ScoredBook(bookIds[neighbors[k]], scores[k]));
+        }
+        return result;
+    }
+
+    public int getBooks() {
+        return bookIds.length;
+    }
+
+    public int getNeighborLinks() {
+        return neighbors.length;
+    }
+
+    /**
+     * Approximate heap footprint of the arrays.
+     */
+    public long getEstimatedBytes() {
+        return 8L * bookIds.length + 4L * start.length + 4L * neighbors.length + 4L * scores.length;
+    }
+}
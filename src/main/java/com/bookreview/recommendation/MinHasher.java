@@ -0,0 +1,70 @@
+package com.bookreview.recommendation;
+
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures and their LSH band keys.
+ * <p>
+ * Two sets agree on any one signature slot with probability equal to their
+ * Jaccard similarity, so they share at least one band key with probability
+ * {@code 1 - (1 - J^rows)^bands}: near-certain for close sets, rare for
+ * distant ones.
+ */
+final class MinHasher {
+
+    private final int bands;
+    private final int rowsPerBand;
+    private final long[] seeds;
+
+    MinHasher(int bands, int rowsPerBand) {
+        this.bands = bands;
+        this.rowsPerBand = rowsPerBand;
+        this.seeds = new long[bands * rowsPerBand];
+        SplittableRandom random = new SplittableRandom(0x5EED);
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+    }
+
+    int getBands() {
+        return bands;
+    }
+
+    /**
+     * @param features non-empty set of feature ids
+     */
+    int[] signature(long[] features) {
+        int[] signature = new int[seeds.length];
+        for (int i = 0; i < seeds.length; i++) {
+            int min = Integer.MAX_VALUE;
+            for (long feature : features) {
+                min = Math.min(min, (int) (mix(feature ^ seeds[i]) >>> 33));
+            }
+            signature[i] = min;
+        }
+        return signature;
+    }
+
+    /**
+     * One bucket key per band; the band index is mixed in so equal rows in
+     * different bands land in different buckets.
+     */
+    long[] bandKeys(int[] signature) {
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long key = band;
+            for (int row = 0; row < rowsPerBand; row++) {
+                key = mix(key * 31 + signature[band * rowsPerBand + row]);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    /** SplitMix64 finalizer. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
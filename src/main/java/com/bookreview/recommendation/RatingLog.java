@@ -0,0 +1,73 @@
+package com.bookreview.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * Growable columnar list of {@code (user, book, rating)} triples, the input
+ * to {@link ItemSimilarityBuilder}. About 17 bytes per review.
+ */
+final class RatingLog {
+
+    private long[] users;
+    private long[] books;
+    private byte[] ratings;
+    private int size;
+
+    RatingLog(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        users = new long[capacity];
+        books = new long[capacity];
+        ratings = new byte[capacity];
+    }
+
+    void add(long userId, long bookId, int rating) {
+        if (size == users.length) {
+            int capacity = size + (size >> 1);
+            users = Arrays.copyOf(users, capacity);
+            books = Arrays.copyOf(books, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+        }
+        users[size] = userId;
+        books[size] = bookId;
+        ratings[size] = (byte) rating;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long user(int i) {
+        return users[i];
+    }
+
+    long book(int i) {
+        return books[i];
+    }
+
+    int rating(int i) {
+        return ratings[i];
+    }
+
+    /** Distinct user ids, ascending. */
+    long[] distinctUsers() {
+        return distinct(users);
+    }
+
+    /** Distinct book ids, ascending. */
+    long[] distinctBooks() {
+        return distinct(books);
+    }
+
+    private long[] distinct(long[] values) {
+        long[] sorted = Arrays.copyOf(values, size);
+        Arrays.parallelSort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, unique);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bookreview.recommendation;
+
+/**
+ * A neighbouring book and how strongly it is related to the one asked about.
+ */
+public record ScoredBook(long bookId, double score) {
+}
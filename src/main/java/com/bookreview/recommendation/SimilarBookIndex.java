@@ -0,0 +1,194 @@
+package com.bookreview.recommendation;
+
+import com.bookreview.catalog.BookChangedEvent;
+import com.bookreview.catalog.BookSnapshot;
+import com.bookreview.catalog.BookSnapshotLoader;
+import com.bookreview.catalog.CatalogIndex;
+import com.bookreview.catalog.ReplayingRebuild;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Approximate "similar books" by overlap of genres and people (author and
+ * co-authors), behind {@code /books/{id}/similar}.
+ * <p>
+ * Each book's feature set is reduced to a MinHash signature and filed under
+ * one LSH bucket per band. A query only looks at books sharing a bucket,
+ * reading at most {@code max-bucket-scan} entries per bucket, then ranks
+ * those candidates by exact Jaccard similarity; cost is bounded by
+ * {@code bands * max-bucket-scan} whatever the catalog size. Built by
+ * {@link com.bookreview.catalog.CatalogIndexStartup} and kept current from
+ * {@link BookChangedEvent}s.
+ */
+@Component
+public class SimilarBookIndex implements CatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimilarBookIndex.class);
+
+    private final BookSnapshotLoader bookSnapshotLoader;
+    private final MinHasher minHasher;
+    private final int maxBucketScan;
+    private final ReplayingRebuild<Index, BookChangedEvent> index = new ReplayingRebuild<>(new Index(), this::apply);
+
+    public SimilarBookIndex(BookSnapshotLoader bookSnapshotLoader,
+                            @Value("${bookreview.similar.bands:16}") int bands,
+                            @Value("${bookreview.similar.rows-per-band:4}") int rowsPerBand,
+                            @Value("${bookreview.similar.max-bucket-scan:100}") int maxBucketScan) {
+        this.bookSnapshotLoader = bookSnapshotLoader;
+        this.minHasher = new MinHasher(bands, rowsPerBand);
+        this.maxBucketScan = maxBucketScan;
+    }
+
+    public void rebuild() {
+        bookSnapshotLoader.rebuild(List.of(this));
+    }
+
+    @Override
+    public Build startRebuild() {
+        long started = System.nanoTime();
+        return index.startCatalogRebuild(new Index(), (fresh, snapshot) -> fresh.put(snapshot.getId(), entry(snapshot)),
+            fresh -> logger.info("Similar-books index built in {} ms: {} books, {} buckets",
+                (System.nanoTime() - started) / 1_000_000, fresh.books.size(), fresh.buckets.size()));
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        index.apply(event);
+    }
+
+    /**
+     * Up to {@code limit} books most similar to {@code bookId}, best first.
+     */
+    public List<ScoredBook> similar(long bookId, int limit) {
+        return index.read(current -> {
+            Entry entry = current.books.get(bookId);
+            if (entry == null) {
+                return List.of();
+            }
+            Set<Long> candidates = new LinkedHashSet<>();
+            for (long key : entry.bandKeys) {
+                Set<Long> bucket = current.buckets.get(key);
+                int scanned = 0;
+                for (Long candidate : bucket) {
+                    if (scanned++ == maxBucketScan) {
+                        break;
+                    }
+                    if (candidate != bookId) {
+                        candidates.add(candidate);
+                    }
+                }
+            }
+            List<ScoredBook> scored = new ArrayList<>(candidates.size());
+            for (Long candidate : candidates) {
+                scored.add(new ScoredBook(candidate, jaccard(entry.features, current.books.get(candidate).features)));
+            }
+            scored.sort(Comparator.comparingDouble(ScoredBook::score).reversed()
+                .thenComparingLong(ScoredBook::bookId));
+            return scored.size() > limit ? List.copyOf(scored.subList(0, Math.max(0, limit))) : scored;
+        });
+    }
+
+    private void apply(Index target, BookChangedEvent event) {
+        if (event.isDelete()) {
+            target.remove(event.getBookId());
+        } else {
+            Entry entry = entry(event.getSnapshot());
+            Entry current = target.books.get(event.getBookId());
+            // Most updates touch neither genres nor people; leave the buckets alone then.
+            if (current == null || !Arrays.equals(current.features, entry.features)) {
+                target.put(event.getBookId(), entry);
+            }
+        }
+    }
+
+    private Entry entry(BookSnapshot book) {
+        long[] features = features(book);
+        return new Entry(features, minHasher.bandKeys(minHasher.signature(features)));
+    }
+
+    /** Genres and people share one id space: even for genres, odd for users. */
+    static long[] features(BookSnapshot book) {
+        List<Long> genreIds = book.getGenreIds() != null ? book.getGenreIds() : List.of();
+        List<Long> coAuthorIds = book.getCoAuthorIds() != null ? book.getCoAuthorIds() : List.of();
+        long[] features = new long[genreIds.size() + coAuthorIds.size() + 1];
+        int n = 0;
+        for (Long genreId : genreIds) {
+            features[n++] = genreId * 2;
+        }
+        for (Long userId : coAuthorIds) {
+            features[n++] = userId * 2 + 1;
+        }
+        if (book.getAuthorId() != null) {
+            features[n++] = book.getAuthorId() * 2 + 1;
+        }
+        return Arrays.stream(features, 0, n).sorted().distinct().toArray();
+    }
+
+    /** Jaccard similarity of two sorted, distinct arrays. */
+    static double jaccard(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = a.length + b.length - common;
+        return union == 0 ? 0 : (double) common / union;
+    }
+
+    private record Entry(long[] features, long[] bandKeys) {
+    }
+
+    /**
+     * Not thread-safe; guarded by the {@link ReplayingRebuild}.
+     */
+    private static final class Index {
+        final Map<Long, Entry> books = new HashMap<>();
+        final Map<Long, Set<Long>> buckets = new HashMap<>();
+
+        void put(Long bookId, Entry entry) {
+            remove(bookId);
+            if (entry.features.length == 0) {
+                return;
+            }
+            books.put(bookId, entry);
+            for (long key : entry.bandKeys) {
+                buckets.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(bookId);
+            }
+        }
+
+        void remove(Long bookId) {
+            Entry previous = books.remove(bookId);
+            if (previous == null) {
+                return;
+            }
+            for (long key : previous.bandKeys) {
+                Set<Long> bucket = buckets.get(key);
+                bucket.remove(bookId);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+}
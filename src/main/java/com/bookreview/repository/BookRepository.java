@@ -4,13 +4,306 @@ import com.bookreview.entity.Book;
 import com.bookreview.entity.BookStatus;
 import com.bookreview.entity.User;
 import com.bookreview.entity.Genre;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
+    /**
+     * Weighted PostgreSQL tsvector for a row aliased {@code b} joined to its author {@code u}:
+     * title (A), subtitle and author username (B), genre names (C), description (D).
+     */
+    String SEARCH_VECTOR_EXPRESSION =
+        "setweight(to_tsvector('english', coalesce(b.title, '')), 'A') || " +
+        "setweight(to_tsvector('english', coalesce(b.subtitle, '')), 'B') || " +
+        "setweight(to_tsvector('english', coalesce(u.username, '')), 'B') || " +
+        "setweight(to_tsvector('english', coalesce((SELECT string_agg(g.name, ' ') FROM book_genres bg " +
+        "JOIN genres g ON g.id = bg.genre_id WHERE bg.book_id = b.id), '')), 'C') || " +
+        "setweight(to_tsvector('english', coalesce(b.description, '')), 'D')";
+
     List<Book> findByStatus(BookStatus status);
     List<Book> findByAuthor(User author);
     List<Book> findByGenresContaining(Genre genre);
     Optional<Book> findByTitle(String title);
-}
\ No newline at end of file
+
+    @Query("SELECT b.title FROM Book b WHERE b.title IN :titles")
+    List<String> findExistingTitles(@Param("titles") Collection<String> titles);
+
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    @Query("SELECT b.id FROM Book b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    interface IsbnRow {
+        String getIsbnKey();
+        Long getId();
+        String getTitle();
+    }
+
+    /**
+     * Books by normalized ISBN (see {@link com.bookreview.catalog.Isbn}), oldest first.
+     */
+    @Query("SELECT b.isbnKey AS isbnKey, b.id AS id, b.title AS title FROM Book b " +
+           "WHERE b.isbnKey IN :keys ORDER BY b.id")
+    List<IsbnRow> findByIsbnKeys(@Param("keys") Collection<String> keys);
+
+    // Two-phase loading for list endpoints: select the ids (paged or filtered), then
+    // load those rows with fetch joins. Fetch joins never see LIMIT/OFFSET, and a
+    // page costs the same number of queries whatever its size.
+
+    @Query(value = "SELECT b.id FROM Book b", countQuery = "SELECT COUNT(b) FROM Book b")
+    Page<Long> findIdPage(Pageable pageable);
+
+    @Query("SELECT b.id FROM Book b ORDER BY b.id")
+    List<Long> findAllIds();
+
+    @Query("SELECT b.id FROM Book b WHERE b.status = :status ORDER BY b.id")
+    List<Long> findIdsByStatus(@Param("status") BookStatus status);
+
+    @Query("SELECT b.id FROM Book b WHERE b.author = :author ORDER BY b.id")
+    List<Long> findIdsByAuthor(@Param("author") User author);
+
+    @Query("SELECT b.id FROM Book b JOIN b.genres g WHERE g = :genre ORDER BY b.id")
+    List<Long> findIdsByGenre(@Param("genre") Genre genre);
+
+    @Query("SELECT DISTINCT b FROM Book b JOIN FETCH b.author LEFT JOIN FETCH b.genres WHERE b.id IN :ids")
+    List<Book> findWithAuthorAndGenresByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Second pass of {@link #findWithAuthorAndGenresByIdIn}: initializes co-authors on the
+     * already-managed books. Kept separate so the two collections never form a cartesian product.
+     */
+    @Query("SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.coAuthors WHERE b.id IN :ids")
+    List<Book> findWithCoAuthorsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sort keys of one keyset page; the books themselves are hydrated by id.
+     */
+    interface KeysetRow {
+        Long getId();
+        LocalDateTime getCreatedAt();
+        Double getAverageRating();
+    }
+
+    @Query("SELECT b.id AS id, b.createdAt AS createdAt, b.averageRating AS averageRating FROM Book b " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<KeysetRow> findNewest(Pageable limit);
+
+    @Query("SELECT b.id AS id, b.createdAt AS createdAt, b.averageRating AS averageRating FROM Book b " +
+           "WHERE b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<KeysetRow> findNewestAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    @Query("SELECT b.id AS id, b.createdAt AS createdAt, b.averageRating AS averageRating FROM Book b " +
+           "WHERE b.averageRating IS NOT NULL " +
+           "ORDER BY b.averageRating DESC, b.id DESC")
+    List<KeysetRow> findTopRated(Pageable limit);
+
+    @Query("SELECT b.id AS id, b.createdAt AS createdAt, b.averageRating AS averageRating FROM Book b " +
+           "WHERE b.averageRating < :rating OR (b.averageRating = :rating AND b.id < :id) " +
+           "ORDER BY b.averageRating DESC, b.id DESC")
+    List<KeysetRow> findTopRatedAfter(@Param("rating") Double rating, @Param("id") Long id, Pageable limit);
+
+    @Query("SELECT b.id AS id, b.createdAt AS createdAt, b.averageRating AS averageRating FROM Book b " +
+           "WHERE b.averageRating IS NULL AND b.id < :id " +
+           "ORDER BY b.id DESC")
+    List<KeysetRow> findUnratedAfter(@Param("id") Long id, Pageable limit);
+
+    /**
+     * Server-side cursor over every book id for export; close the stream when done.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b.id FROM Book b ORDER BY b.id")
+    Stream<Long> streamAllIds();
+
+    /**
+     * The columns typeahead suggestions are built from.
+     */
+    interface SuggestRow {
+        Long getId();
+        String getTitle();
+        String getSubtitle();
+        Long getViewCount();
+        Integer getReviewCount();
+        Long getAuthorId();
+        String getAuthorUsername();
+    }
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b.id AS id, b.title AS title, b.subtitle AS subtitle, b.viewCount AS viewCount, " +
+           "b.reviewCount AS reviewCount, u.id AS authorId, u.username AS authorUsername " +
+           "FROM Book b JOIN b.author u")
+    Stream<SuggestRow> streamSuggestRows();
+
+    @Query("SELECT b.id FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.genres WHERE b.id IN :ids")
+    List<Book> findWithGenresByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Rating aggregates of one book, as maintained by {@link #applyRatingDelta}.
+     */
+    interface RatingRow {
+        Long getId();
+        Integer getReviewCount();
+        Long getTotalRatingSum();
+    }
+
+    @Query("SELECT b.id AS id, b.reviewCount AS reviewCount, b.totalRatingSum AS totalRatingSum FROM Book b " +
+           "WHERE b.reviewCount > 0")
+    List<RatingRow> findRatedAggregates();
+
+    @Query("SELECT b.id AS id, b.reviewCount AS reviewCount, b.totalRatingSum AS totalRatingSum FROM Book b " +
+           "WHERE b.id IN :ids")
+    List<RatingRow> findRatingAggregatesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Rating summary of one book, read from its own row.
+     */
+    interface RatingHistogramRow {
+        Long getId();
+        Integer getReviewCount();
+        Double getAverageRating();
+        Integer getRating1Count();
+        Integer getRating2Count();
+        Integer getRating3Count();
+        Integer getRating4Count();
+        Integer getRating5Count();
+    }
+
+    @Query("SELECT b.id AS id, b.reviewCount AS reviewCount, b.averageRating AS averageRating, " +
+           "b.rating1Count AS rating1Count, b.rating2Count AS rating2Count, b.rating3Count AS rating3Count, " +
+           "b.rating4Count AS rating4Count, b.rating5Count AS rating5Count FROM Book b WHERE b.id = :id")
+    Optional<RatingHistogramRow> findRatingHistogramById(@Param("id") Long id);
+
+    @Query("SELECT b.id AS id, b.reviewCount AS reviewCount, b.averageRating AS averageRating, " +
+           "b.rating1Count AS rating1Count, b.rating2Count AS rating2Count, b.rating3Count AS rating3Count, " +
+           "b.rating4Count AS rating4Count, b.rating5Count AS rating5Count FROM Book b WHERE b.id IN :ids ORDER BY b.id")
+    List<RatingHistogramRow> findRatingHistogramsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * {@code [bookId, genreId]} pairs for every book that has at least one review.
+     */
+    @Query("SELECT b.id, g.id FROM Book b JOIN b.genres g WHERE b.reviewCount > 0")
+    List<Object[]> findRatedGenreLinks();
+
+    /**
+     * {@code [bookId, genreId]} pairs for the given books.
+     */
+    @Query("SELECT b.id, g.id FROM Book b JOIN b.genres g WHERE b.id IN :ids")
+    List<Object[]> findGenreLinksByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Apply a review write to the rating aggregates in one set-based statement, so
+     * concurrent reviewers of the same book serialize on the row instead of
+     * overwriting each other's read-modify-write. {@code addedRating} and
+     * {@code removedRating} move the histogram: a new review only adds, a
+     * deleted one only removes (pass 0 for neither), a re-rating does both.
+     */
+    @Modifying
+    @Query("UPDATE Book b SET " +
+           "b.reviewCount = COALESCE(b.reviewCount, 0) + :countDelta, " +
+           "b.totalRatingSum = COALESCE(b.totalRatingSum, 0) + :ratingDelta, " +
+           "b.rating1Count = COALESCE(b.rating1Count, 0) + CASE WHEN :addedRating = 1 THEN 1 ELSE 0 END - CASE WHEN :removedRating = 1 THEN 1 ELSE 0 END, " +
+           "b.rating2Count = COALESCE(b.rating2Count, 0) + CASE WHEN :addedRating = 2 THEN 1 ELSE 0 END - CASE WHEN :removedRating = 2 THEN 1 ELSE 0 END, " +
+           "b.rating3Count = COALESCE(b.rating3Count, 0) + CASE WHEN :addedRating = 3 THEN 1 ELSE 0 END - CASE WHEN :removedRating = 3 THEN 1 ELSE 0 END, " +
+           "b.rating4Count = COALESCE(b.rating4Count, 0) + CASE WHEN :addedRating = 4 THEN 1 ELSE 0 END - CASE WHEN :removedRating = 4 THEN 1 ELSE 0 END, " +
+           "b.rating5Count = COALESCE(b.rating5Count, 0) + CASE WHEN :addedRating = 5 THEN 1 ELSE 0 END - CASE WHEN :removedRating = 5 THEN 1 ELSE 0 END, " +
+           "b.averageRating = CASE WHEN COALESCE(b.reviewCount, 0) + :countDelta > 0 " +
+           "THEN CAST(COALESCE(b.totalRatingSum, 0) + :ratingDelta AS Double) / (COALESCE(b.reviewCount, 0) + :countDelta) " +
+           "ELSE NULL END " +
+           "WHERE b.id = :bookId")
+    int applyRatingDelta(@Param("bookId") Long bookId,
+                         @Param("countDelta") int countDelta,
+                         @Param("ratingDelta") long ratingDelta,
+                         @Param("addedRating") int addedRating,
+                         @Param("removedRating") int removedRating);
+
+    /**
+     * Recompute the aggregates from {@code reviews} for the given books, touching
+     * only rows that have drifted.
+     */
+    @Modifying
+    @Query("UPDATE Book b SET " +
+           "b.reviewCount = (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id), " +
+           "b.totalRatingSum = (SELECT COALESCE(SUM(r.rating), 0) FROM Review r WHERE r.book.id = b.id), " +
+           "b.rating1Count = (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id AND r.rating = 1), " +
+           "b.rating2Count = (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id AND r.rating = 2), " +
+           "b.rating3Count = (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id AND r.rating = 3), " +
+           "b.rating4Count = (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id AND r.rating = 4), " +
+           "b.rating5Count = (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id AND r.rating = 5), " +
+           "b.averageRating = (SELECT AVG(r.rating) FROM Review r WHERE r.book.id = b.id) " +
+           "WHERE b.id IN :ids AND (" +
+           "COALESCE(b.reviewCount, 0) <> (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id) OR " +
+           "COALESCE(b.totalRatingSum, 0) <> (SELECT COALESCE(SUM(r.rating), 0) FROM Review r WHERE r.book.id = b.id) OR " +
+           "COALESCE(b.rating1Count, 0) <> (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id AND r.rating = 1) OR " +
+           "COALESCE(b.rating2Count, 0) <> (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id AND r.rating = 2) OR " +
+           "COALESCE(b.rating3Count, 0) <> (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id AND r.rating = 3) OR " +
+           "COALESCE(b.rating4Count, 0) <> (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id AND r.rating = 4) OR " +
+           "COALESCE(b.rating5Count, 0) <> (SELECT COUNT(r) FROM Review r WHERE r.book.id = b.id AND r.rating = 5) OR " +
+           "(b.averageRating IS NULL AND COALESCE(b.reviewCount, 0) > 0))")
+    int reconcileRatingAggregates(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT b.id FROM books b, websearch_to_tsquery('english', :query) q " +
+                   "WHERE b.search_vector @@ q " +
+                   "ORDER BY ts_rank_cd(b.search_vector, q) DESC, b.id",
+           countQuery = "SELECT count(*) FROM books b WHERE b.search_vector @@ websearch_to_tsquery('english', :query)",
+           nativeQuery = true)
+    Page<Long> searchIdsByVector(@Param("query") String query, Pageable pageable);
+
+    /**
+     * Portable fallback for databases without tsvector support (H2 in the test profile).
+     */
+    @Query("SELECT b.id FROM Book b WHERE " +
+           "(:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%')) " +
+           "OR LOWER(b.subtitle) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
+           "(:author IS NULL OR LOWER(b.author.username) LIKE LOWER(CONCAT('%', :author, '%'))) AND " +
+           "(:genre IS NULL OR EXISTS (SELECT g FROM b.genres g WHERE LOWER(g.name) = LOWER(:genre) OR g.slug = LOWER(:genre))) " +
+           "ORDER BY b.title")
+    Page<Long> searchIdsByFields(@Param("title") String title,
+                              @Param("author") String author,
+                              @Param("genre") String genre,
+                              Pageable pageable);
+
+    @Modifying
+    @Query(value = "UPDATE books b SET search_vector = " + SEARCH_VECTOR_EXPRESSION +
+                   " FROM users u WHERE u.id = b.author_id AND b.id = :bookId",
+           nativeQuery = true)
+    int refreshSearchVector(@Param("bookId") Long bookId);
+
+    @Modifying
+    @Query(value = "UPDATE books b SET search_vector = " + SEARCH_VECTOR_EXPRESSION +
+                   " FROM users u WHERE u.id = b.author_id" +
+                   " AND b.id IN (SELECT bg.book_id FROM book_genres bg WHERE bg.genre_id = :genreId)",
+           nativeQuery = true)
+    int refreshSearchVectorsForGenre(@Param("genreId") Long genreId);
+
+    @Modifying
+    @Query(value = "UPDATE books b SET search_vector = " + SEARCH_VECTOR_EXPRESSION +
+                   " FROM users u WHERE u.id = b.author_id AND b.id IN :ids",
+           nativeQuery = true)
+    int refreshSearchVectors(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE books b SET search_vector = " + SEARCH_VECTOR_EXPRESSION +
+                   " FROM users u WHERE u.id = b.author_id" +
+                   " AND b.id IN (SELECT n.id FROM books n WHERE n.search_vector IS NULL ORDER BY n.id LIMIT :limit)",
+           nativeQuery = true)
+    int backfillSearchVectors(@Param("limit") int limit);
+}
@@ -3,12 +3,52 @@ package com.bookreview.repository;
 import com.bookreview.entity.Review;
 import com.bookreview.entity.User;
 import com.bookreview.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findByUser(User user);
     List<Review> findByBook(Book book);
     List<Review> findByIsActiveTrue();
     boolean existsByUserAndBook(User user, Book book);
+
+    /**
+     * {@code [userId, bookId]} of existing reviews by any of {@code userIds} of
+     * any of {@code bookIds}; a superset of the pairs a batch can collide with.
+     */
+    @Query("SELECT r.user.id, r.book.id FROM Review r WHERE r.user.id IN :userIds AND r.book.id IN :bookIds")
+    List<Object[]> findUserBookPairs(@Param("userIds") Collection<Long> userIds,
+                                     @Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT r.user.id FROM Review r WHERE r.id = :id")
+    Optional<Long> findAuthorIdById(@Param("id") Long id);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Review r JOIN FETCH r.user ORDER BY r.id")
+    Stream<Review> streamAllWithUser();
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.user WHERE r.book.id = :bookId " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findNewestByBookId(@Param("bookId") Long bookId, Pageable limit);
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.user WHERE r.book.id = :bookId " +
+           "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findNewestByBookIdAfter(@Param("bookId") Long bookId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable limit);
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.bookreview.repository;
+
+import com.bookreview.entity.ReviewVote;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ReviewVoteRepository extends JpaRepository<ReviewVote, Long> {
+
+    /**
+     * {@code [userId, helpful]} pairs for every vote on a review.
+     */
+    @Query("SELECT v.user.id, v.helpful FROM ReviewVote v WHERE v.review.id = :reviewId")
+    List<Object[]> findVotesByReviewId(@Param("reviewId") Long reviewId);
+}
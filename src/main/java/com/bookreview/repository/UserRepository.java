@@ -3,6 +3,9 @@ package com.bookreview.repository;
 import com.bookreview.entity.User;
 import com.bookreview.models.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 import java.util.List;
@@ -11,4 +14,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     List<User> findByRolesContaining(UserRole role);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * {@code [username, id]} pairs for the given usernames that exist.
+     */
+    @Query("SELECT u.username, u.id FROM User u WHERE u.username IN :usernames")
+    List<Object[]> findIdsByUsernames(@Param("usernames") Collection<String> usernames);
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.bookreview.search;
+
+import com.bookreview.catalog.BookChangedEvent;
+import com.bookreview.catalog.BookSnapshot;
+import com.bookreview.catalog.BookSnapshotLoader;
+import com.bookreview.catalog.CatalogIndex;
+import com.bookreview.catalog.ReplayingRebuild;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-JVM full-text index behind {@code /books/search?q=}, plus a trigram
+ * index of titles behind {@code /books/search/fuzzy?q=}. Built by
+ * {@link com.bookreview.catalog.CatalogIndexStartup} and then kept current
+ * from {@link BookChangedEvent}s after each book write commits. Until the first
+ * build finishes {@link #isReady()} is false and callers use the database.
+ */
+@Component
+public class BookSearchIndex implements CatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SUBTITLE_WEIGHT = 2;
+    private static final int GENRE_WEIGHT = 2;
+    private static final int PUBLISHER_WEIGHT = 1;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final BookSnapshotLoader bookSnapshotLoader;
+    private final boolean enabled;
+    private final float fuzzyThreshold;
+    private final ReplayingRebuild<Indexes, Update> indexes = new ReplayingRebuild<>(new Indexes(), Indexes::apply);
+    private volatile boolean ready;
+
+    public BookSearchIndex(BookSnapshotLoader bookSnapshotLoader,
+                           @Value("${bookreview.search.in-memory.enabled:true}") boolean enabled,
+                           @Value("${bookreview.search.fuzzy.threshold:0.3}") float fuzzyThreshold) {
+        this.bookSnapshotLoader = bookSnapshotLoader;
+        this.enabled = enabled;
+        this.fuzzyThreshold = fuzzyThreshold;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void rebuild() {
+        bookSnapshotLoader.rebuild(List.of(this));
+    }
+
+    @Override
+    public Build startRebuild() {
+        long started = System.nanoTime();
+        return indexes.startCatalogRebuild(new Indexes(), (fresh, snapshot) -> {
+            fresh.index.put(snapshot.getId(), analyze(snapshot));
+            fresh.titles.put(snapshot.getId(), snapshot.getTitle());
+        }, fresh -> {
+            ready = true;
+            SearchIndexStats stats = stats();
+            logger.info("Search index built in {} ms: {} books, {} terms, {} postings, ~{} KB (~{} KB per 100k books)",
+                (System.nanoTime() - started) / 1_000_000, stats.getDocuments(), stats.getTerms(), stats.getPostings(),
+                stats.getEstimatedBytes() / 1024, stats.getEstimatedBytesPer100kDocuments() / 1024);
+        });
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // Analyzed before taking the lock; replays reuse the result.
+        indexes.apply(new Update(event, event.isDelete() ? null : analyze(event.getSnapshot())));
+    }
+
+    public SearchHits search(String query, SearchOperator operator, int offset, int limit) {
+        List<String> terms = Tokenizer.tokenize(query);
+        return indexes.read(current -> current.index.search(terms, operator, offset, limit));
+    }
+
+    /**
+     * Books whose title resembles {@code query} despite typos, most similar first.
+     */
+    public List<TitleMatch> fuzzyTitleSearch(String query, int limit) {
+        return indexes.read(current -> current.titles.search(query, fuzzyThreshold, limit));
+    }
+
+    public SearchIndexStats stats() {
+        return indexes.read(current -> current.index.stats().toBuilder().ready(isReady()).build());
+    }
+
+    private static Map<String, Integer> analyze(BookSnapshot book) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addField(frequencies, book.getTitle(), TITLE_WEIGHT);
+        addField(frequencies, book.getSubtitle(), SUBTITLE_WEIGHT);
+        addField(frequencies, book.getPublisher(), PUBLISHER_WEIGHT);
+        addField(frequencies, book.getDescription(), DESCRIPTION_WEIGHT);
+        for (String genre : book.getGenreNames()) {
+            addField(frequencies, genre, GENRE_WEIGHT);
+        }
+        return frequencies;
+    }
+
+    private static void addField(Map<String, Integer> frequencies, String text, int weight) {
+        for (String token : Tokenizer.tokenize(text)) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+    }
+
+    /**
+     * A committed change with the new version already analyzed; {@code frequencies}
+     * is null for a delete.
+     */
+    private record Update(BookChangedEvent event, Map<String, Integer> frequencies) {
+    }
+
+    /**
+     * Not thread-safe; guarded by the {@link ReplayingRebuild}.
+     */
+    private static final class Indexes {
+        final InvertedIndex index = new InvertedIndex();
+        final TrigramIndex titles = new TrigramIndex();
+
+        void apply(Update update) {
+            Long bookId = update.event().getBookId();
+            if (update.frequencies() == null) {
+                index.remove(bookId);
+                titles.remove(bookId);
+            } else {
+                index.put(bookId, update.frequencies());
+                titles.put(bookId, update.event().getSnapshot().getTitle());
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.bookreview.search;
+
+import com.bookreview.catalog.BookChangedEvent;
+import com.bookreview.catalog.BookSnapshot;
+import com.bookreview.catalog.ReplayingRebuild;
+import com.bookreview.dto.SuggestionDTO;
+import com.bookreview.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Title, subtitle and author typeahead behind {@code /books/suggest}.
+ * <p>
+ * Suggestions come from an immutable {@link PrefixIndex} built from the
+ * database at startup and on a schedule, weighted by views plus
+ * {@code review-weight} per review; an author weighs as much as all of their
+ * books together. Changes committed in between are kept in a small overlay:
+ * replaced or deleted entries are tombstoned in the main index and their
+ * replacements are kept in a sorted map, so a query reads both and merges
+ * them by weight. The overlay is folded into the main index on the next
+ * rebuild. An edited book keeps its previous weight; a new one starts at
+ * zero.
+ */
+@Component
+public class BookSuggester {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSuggester.class);
+
+    /** Overlay matches read per query; the overlay is small between rebuilds. */
+    private static final int MAX_OVERLAY_SCAN = 1000;
+
+    enum Kind { TITLE, SUBTITLE, AUTHOR }
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long reviewWeight;
+    private final ReplayingRebuild<State, BookChangedEvent> state =
+        new ReplayingRebuild<>(new State(List.of()), State::apply);
+
+    public BookSuggester(BookRepository bookRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${bookreview.suggest.review-weight:25}") long reviewWeight) {
+        this.bookRepository = bookRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.reviewWeight = reviewWeight;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${bookreview.suggest.rebuild-cron:0 */10 * * * *}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        State fresh = state.rebuild(() -> new State(load()));
+        logger.info("Suggestion index built in {} ms: {} entries, {} keys",
+            (System.nanoTime() - started) / 1_000_000, fresh.main.entries(), fresh.main.keys());
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        state.apply(event);
+    }
+
+    /**
+     * Up to {@code limit} suggestions for what the user has typed so far,
+     * most popular first. Each book and each author appears at most once.
+     */
+    public List<SuggestionDTO> suggest(String query, int limit) {
+        String prefix = PrefixIndex.normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return state.read(current -> current.suggest(prefix, limit));
+    }
+
+    private List<Entry> load() {
+        return readOnlyTransaction.execute(status -> {
+            List<Entry> entries = new ArrayList<>();
+            // After the titles, so a title wins a tie with its own subtitle.
+            List<Entry> subtitles = new ArrayList<>();
+            Map<Long, Entry> authors = new HashMap<>();
+            try (Stream<BookRepository.SuggestRow> rows = bookRepository.streamSuggestRows()) {
+                rows.forEach(row -> {
+                    long weight = weight(row);
+                    entries.add(new Entry(row.getTitle(), Kind.TITLE, row.getId(), weight));
+                    if (row.getSubtitle() != null && !row.getSubtitle().isBlank()) {
+                        subtitles.add(new Entry(row.getSubtitle(), Kind.SUBTITLE, row.getId(), weight));
+                    }
+                    authors.merge(row.getAuthorId(),
+                        new Entry(row.getAuthorUsername(), Kind.AUTHOR, row.getAuthorId(), weight),
+                        (a, b) -> new Entry(a.text, Kind.AUTHOR, a.id, a.weight + b.weight));
+                });
+            }
+            entries.addAll(subtitles);
+            entries.addAll(authors.values());
+            return entries;
+        });
+    }
+
+    private long weight(BookRepository.SuggestRow row) {
+        long views = row.getViewCount() != null ? row.getViewCount() : 0;
+        long reviews = row.getReviewCount() != null ? row.getReviewCount() : 0;
+        return views + reviewWeight * reviews;
+    }
+
+    /**
+     * A title or subtitle ({@code id} is the book) or a username
+     * ({@code id} is the user).
+     */
+    private record Entry(String text, Kind kind, long id, long weight) {
+
+        SuggestionDTO toDTO() {
+            return kind == Kind.AUTHOR
+                ? new SuggestionDTO(text, kind.name(), null, id)
+                : new SuggestionDTO(text, kind.name(), id, null);
+        }
+
+        /** Books and authors live in different id spaces. */
+        long dedupKey() {
+            return kind == Kind.AUTHOR ? -id - 1 : id;
+        }
+    }
+
+    /**
+     * Entry ids below {@code mainEntries.length} are in the main index, the
+     * rest in the overlay. Not thread-safe; guarded by the {@link ReplayingRebuild}.
+     */
+    private static final class State {
+        final PrefixIndex main;
+        final Entry[] mainEntries;
+        final List<Entry> overlay = new ArrayList<>();
+        /** Normalized text from a word start, then {@code \0} and the entry id. */
+        final TreeMap<String, Integer> overlayKeys = new TreeMap<>();
+        final BitSet dead = new BitSet();
+        final Map<Long, List<Integer>> entriesByBook = new HashMap<>();
+        final Set<Long> authors = new HashSet<>();
+
+        State(List<Entry> entries) {
+            mainEntries = entries.toArray(new Entry[0]);
+            String[] texts = new String[mainEntries.length];
+            long[] weights = new long[mainEntries.length];
+            for (int i = 0; i < mainEntries.length; i++) {
+                Entry entry = mainEntries[i];
+                texts[i] = PrefixIndex.normalize(entry.text);
+                weights[i] = entry.weight;
+                index(i, entry);
+            }
+            main = new PrefixIndex(texts, weights);
+        }
+
+        Entry entry(int id) {
+            return id < mainEntries.length ? mainEntries[id] : overlay.get(id - mainEntries.length);
+        }
+
+        void apply(BookChangedEvent event) {
+            long previousWeight = 0;
+            List<Integer> previous = entriesByBook.remove(event.getBookId());
+            if (previous != null) {
+                for (int id : previous) {
+                    dead.set(id);
+                    previousWeight = Math.max(previousWeight, entry(id).weight);
+                }
+            }
+            if (event.isDelete()) {
+                return;
+            }
+            BookSnapshot book = event.getSnapshot();
+            add(new Entry(book.getTitle(), Kind.TITLE, book.getId(), previousWeight));
+            if (book.getSubtitle() != null && !book.getSubtitle().isBlank()) {
+                add(new Entry(book.getSubtitle(), Kind.SUBTITLE, book.getId(), previousWeight));
+            }
+            if (book.getAuthorId() != null && book.getAuthorUsername() != null
+                && !authors.contains(book.getAuthorId())) {
+                add(new Entry(book.getAuthorUsername(), Kind.AUTHOR, book.getAuthorId(), 0));
+            }
+        }
+
+        private void add(Entry entry) {
+            int id = mainEntries.length + overlay.size();
+            overlay.add(entry);
+            index(id, entry);
+            String text = PrefixIndex.normalize(entry.text);
+            for (int start : PrefixIndex.wordStarts(text)) {
+                overlayKeys.put(text.substring(start) + '\0' + id, id);
+            }
+        }
+
+        private void index(int id, Entry entry) {
+            if (entry.kind == Kind.AUTHOR) {
+                authors.add(entry.id);
+            } else {
+                entriesByBook.computeIfAbsent(entry.id, k -> new ArrayList<>(2)).add(id);
+            }
+        }
+
+        List<SuggestionDTO> suggest(String prefix, int limit) {
+            Map<Long, Entry> fromMain = new LinkedHashMap<>();
+            main.forEachByWeight(prefix, id -> {
+                if (!dead.get(id)) {
+                    fromMain.putIfAbsent(mainEntries[id].dedupKey(), mainEntries[id]);
+                }
+                return fromMain.size() < limit;
+            });
+
+            List<Entry> candidates = new ArrayList<>(fromMain.values());
+            int scanned = 0;
+            for (int id : overlayKeys.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+                if (scanned++ == MAX_OVERLAY_SCAN) {
+                    break;
+                }
+                if (!dead.get(id)) {
+                    candidates.add(entry(id));
+                }
+            }
+            if (candidates.size() > fromMain.size()) {
+                candidates.sort(Comparator.comparingLong(Entry::weight).reversed());
+            }
+
+            Map<Long, SuggestionDTO> suggestions = new LinkedHashMap<>();
+            for (Entry entry : candidates) {
+                if (suggestions.size() == limit) {
+                    break;
+                }
+                suggestions.putIfAbsent(entry.dedupKey(), entry.toDTO());
+            }
+            return new ArrayList<>(suggestions.values());
+        }
+    }
+}
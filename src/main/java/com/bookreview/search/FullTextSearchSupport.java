@@ -0,0 +1,100 @@
+package com.bookreview.search;
+
+import com.bookreview.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * Keeps {@code books.search_vector} in sync on PostgreSQL. On any other database
+ * (H2 in the test profile) every method is a no-op and callers fall back to
+ * {@link BookRepository#searchIdsByFields}.
+ */
+@Component
+public class FullTextSearchSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(FullTextSearchSupport.class);
+    private static final int BACKFILL_CHUNK_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean available;
+
+    public FullTextSearchSupport(BookRepository bookRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 DataSource dataSource) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.available = isPostgres(dataSource);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Recompute the vector for one book. Must run inside the writing transaction,
+     * after the book and its join rows have been flushed.
+     */
+    public void refreshBook(Long bookId) {
+        if (available) {
+            bookRepository.refreshSearchVector(bookId);
+        }
+    }
+
+    /**
+     * Batch form of {@link #refreshBook} for bulk writes.
+     */
+    public void refreshBooks(Collection<Long> bookIds) {
+        if (available && !bookIds.isEmpty()) {
+            bookRepository.refreshSearchVectors(bookIds);
+        }
+    }
+
+    /**
+     * Recompute the vectors of every book tagged with a genre, e.g. after a rename.
+     */
+    public void refreshGenre(Long genreId) {
+        if (available) {
+            bookRepository.refreshSearchVectorsForGenre(genreId);
+        }
+    }
+
+    /**
+     * Fill vectors for rows written before this column was maintained, one short
+     * transaction per chunk so the table is never locked as a whole.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!available) {
+            return;
+        }
+        long total = 0;
+        int updated;
+        do {
+            Integer chunk = transactionTemplate.execute(status -> bookRepository.backfillSearchVectors(BACKFILL_CHUNK_SIZE));
+            updated = chunk != null ? chunk : 0;
+            total += updated;
+        } while (updated == BACKFILL_CHUNK_SIZE);
+        if (total > 0) {
+            logger.info("Backfilled search vectors for {} books", total);
+        }
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            logger.warn("Could not detect database product, full-text search disabled: {}", e.getMessage());
+            return false;
+        }
+    }
+}
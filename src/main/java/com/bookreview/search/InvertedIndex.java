@@ -0,0 +1,374 @@
+package com.bookreview.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Term to posting-list index scored with BM25.
+ * <p>
+ * Internal doc ids are dense ints handed out in insertion order, so appending
+ * keeps every posting list sorted. Replacing or removing a book only
+ * tombstones its old doc id; dead postings are dropped by {@link #compact()}
+ * once they make up a quarter of the index.
+ * <p>
+ * Not thread-safe: {@link BookSearchIndex} guards it with a read/write lock.
+ */
+final class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MIN_DEAD_DOCS_FOR_COMPACTION = 1024;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> docByBookId = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private long[] bookIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private int maxDoc;
+    private int liveDocs;
+    private long liveLength;
+
+    /**
+     * Index a book, replacing any previous version of it.
+     *
+     * @param termFrequencies weighted term frequency per term
+     */
+    void put(long bookId, Map<String, Integer> termFrequencies) {
+        remove(bookId);
+        if (maxDoc == bookIds.length) {
+            bookIds = Arrays.copyOf(bookIds, maxDoc * 2);
+            docLengths = Arrays.copyOf(docLengths, maxDoc * 2);
+        }
+        int doc = maxDoc++;
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new PostingList()).add(doc, entry.getValue());
+            length += entry.getValue();
+        }
+        bookIds[doc] = bookId;
+        docLengths[doc] = length;
+        live.set(doc);
+        docByBookId.put(bookId, doc);
+        liveDocs++;
+        liveLength += length;
+    }
+
+    void remove(long bookId) {
+        Integer doc = docByBookId.remove(bookId);
+        if (doc == null) {
+            return;
+        }
+        live.clear(doc);
+        liveDocs--;
+        liveLength -= docLengths[doc];
+        if (maxDoc - liveDocs >= MIN_DEAD_DOCS_FOR_COMPACTION && maxDoc - liveDocs > liveDocs / 4) {
+            compact();
+        }
+    }
+
+    int size() {
+        return liveDocs;
+    }
+
+    SearchHits search(List<String> queryTerms, SearchOperator operator, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(queryTerms);
+        if (terms.isEmpty() || liveDocs == 0 || limit <= 0) {
+            return SearchHits.empty();
+        }
+        PostingList[] lists = new PostingList[terms.size()];
+        int n = 0;
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                if (operator == SearchOperator.AND) {
+                    return SearchHits.empty();
+                }
+                continue;
+            }
+            lists[n++] = list;
+        }
+        if (n == 0) {
+            return SearchHits.empty();
+        }
+        lists = Arrays.copyOf(lists, n);
+        float[] idf = new float[n];
+        for (int i = 0; i < n; i++) {
+            int df = Math.min(lists[i].size, liveDocs);
+            idf[i] = (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+        }
+        float avgLength = Math.max(1f, (float) liveLength / liveDocs);
+        TopDocs top = new TopDocs((int) Math.min((long) offset + limit, Integer.MAX_VALUE));
+        long total = operator == SearchOperator.AND
+            ? scoreConjunction(lists, idf, avgLength, top)
+            : scoreDisjunction(lists, idf, avgLength, top);
+
+        int[] docs = top.drainDescending();
+        if (offset >= docs.length) {
+            return new SearchHits(total, new long[0]);
+        }
+        long[] page = new long[docs.length - offset];
+        for (int i = 0; i < page.length; i++) {
+            page[i] = bookIds[docs[offset + i]];
+        }
+        return new SearchHits(total, page);
+    }
+
+    private long scoreConjunction(PostingList[] lists, float[] idf, float avgLength, TopDocs top) {
+        // Drive from the shortest list and skip forward in the others.
+        Integer[] order = new Integer[lists.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(lists[a].size, lists[b].size));
+        PostingList lead = lists[order[0]];
+        int[] cursors = new int[lists.length];
+        long total = 0;
+        outer:
+        for (int p = 0; p < lead.size; p++) {
+            int doc = lead.docs[p];
+            if (!live.get(doc)) {
+                continue;
+            }
+            for (int k = 1; k < order.length; k++) {
+                int i = order[k];
+                cursors[i] = lists[i].advance(cursors[i], doc);
+                if (cursors[i] >= lists[i].size) {
+                    break outer;
+                }
+                if (lists[i].docs[cursors[i]] != doc) {
+                    continue outer;
+                }
+            }
+            float score = termScore(idf[order[0]], lead.freqs[p], doc, avgLength);
+            for (int k = 1; k < order.length; k++) {
+                int i = order[k];
+                score += termScore(idf[i], lists[i].freqs[cursors[i]], doc, avgLength);
+            }
+            top.offer(doc, score);
+            total++;
+        }
+        return total;
+    }
+
+    private long scoreDisjunction(PostingList[] lists, float[] idf, float avgLength, TopDocs top) {
+        int[] cursors = new int[lists.length];
+        long total = 0;
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (int i = 0; i < lists.length; i++) {
+                if (cursors[i] < lists[i].size && lists[i].docs[cursors[i]] < doc) {
+                    doc = lists[i].docs[cursors[i]];
+                }
+            }
+            if (doc == Integer.MAX_VALUE) {
+                return total;
+            }
+            float score = 0;
+            for (int i = 0; i < lists.length; i++) {
+                if (cursors[i] < lists[i].size && lists[i].docs[cursors[i]] == doc) {
+                    score += termScore(idf[i], lists[i].freqs[cursors[i]], doc, avgLength);
+                    cursors[i]++;
+                }
+            }
+            if (live.get(doc)) {
+                top.offer(doc, score);
+                total++;
+            }
+        }
+    }
+
+    private float termScore(float idf, int tf, int doc, float avgLength) {
+        float norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+        return idf * tf * (K1 + 1) / (tf + norm);
+    }
+
+    /**
+     * Renumber live docs densely and drop postings that point at tombstones.
+     */
+    void compact() {
+        int[] remap = new int[maxDoc];
+        int next = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (live.get(doc)) {
+                remap[doc] = next;
+                bookIds[next] = bookIds[doc];
+                docLengths[next] = docLengths[doc];
+                next++;
+            } else {
+                remap[doc] = -1;
+            }
+        }
+        Iterator<PostingList> it = postings.values().iterator();
+        while (it.hasNext()) {
+            PostingList list = it.next();
+            list.remap(remap);
+            if (list.size == 0) {
+                it.remove();
+            }
+        }
+        docByBookId.replaceAll((bookId, doc) -> remap[doc]);
+        live.clear();
+        live.set(0, next);
+        maxDoc = next;
+    }
+
+    SearchIndexStats stats() {
+        long postingCount = 0;
+        long bytes = 0;
+        for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+            PostingList list = entry.getValue();
+            postingCount += list.size;
+            // map entry + term string + posting list object + two int arrays
+            bytes += 32 + 40 + 2L * entry.getKey().length() + 24 + 32 + 8L * list.docs.length;
+        }
+        // id/length arrays plus the boxed bookId -> doc map
+        bytes += 12L * bookIds.length + 64L * docByBookId.size() + live.size() / 8;
+        return SearchIndexStats.builder()
+            .documents(liveDocs)
+            .deletedDocuments(maxDoc - liveDocs)
+            .terms(postings.size())
+            .postings(postingCount)
+            .estimatedBytes(bytes)
+            .estimatedBytesPer100kDocuments(liveDocs == 0 ? 0 : bytes * 100_000 / liveDocs)
+            .build();
+    }
+
+    private static final class PostingList {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+                freqs = Arrays.copyOf(freqs, docs.length);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        /**
+         * @return index of the first posting at or after {@code from} whose doc is >= target
+         */
+        int advance(int from, int target) {
+            int lo = from;
+            int hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (docs[mid] < target) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return lo;
+        }
+
+        void remap(int[] remap) {
+            int out = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[out] = doc;
+                    freqs[out] = freqs[i];
+                    out++;
+                }
+            }
+            size = out;
+            if (docs.length > 16 && out < docs.length / 2) {
+                docs = Arrays.copyOf(docs, Math.max(out, 4));
+                freqs = Arrays.copyOf(freqs, docs.length);
+            }
+        }
+    }
+
+    /**
+     * Bounded min-heap of (score, doc); ties prefer the lower doc id.
+     */
+    private static final class TopDocs {
+        private final int capacity;
+        private float[] scores = new float[16];
+        private int[] docs = new int[16];
+        private int size;
+
+        TopDocs(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void offer(int doc, float score) {
+            if (size < capacity) {
+                if (size == docs.length) {
+                    int grown = (int) Math.min((long) size * 2, capacity);
+                    scores = Arrays.copyOf(scores, grown);
+                    docs = Arrays.copyOf(docs, grown);
+                }
+                scores[size] = score;
+                docs[size] = doc;
+                siftUp(size++);
+            } else if (worse(docs[0], scores[0], doc, score)) {
+                scores[0] = score;
+                docs[0] = doc;
+                siftDown(0);
+            }
+        }
+
+        int[] drainDescending() {
+            int[] result = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = docs[0];
+                size--;
+                scores[0] = scores[size];
+                docs[0] = docs[size];
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private static boolean worse(int docA, float scoreA, int docB, float scoreB) {
+            return scoreA < scoreB || (scoreA == scoreB && docA > docB);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!worse(docs[i], scores[i], docs[parent], scores[parent])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    return;
+                }
+                int child = left + 1 < size && worse(docs[left + 1], scores[left + 1], docs[left], scores[left])
+                    ? left + 1 : left;
+                if (!worse(docs[child], scores[child], docs[i], scores[i])) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            float s = scores[a];
+            scores[a] = scores[b];
+            scores[b] = s;
+            int d = docs[a];
+            docs[a] = docs[b];
+            docs[b] = d;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.bookreview.search;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable prefix index with popularity ranking, for typeahead.
+ * <p>
+ * Every entry (a title, subtitle or username) is keyed at the start of each
+ * of its first {@value #MAX_WORD_STARTS} words, so "pott" finds
+ * "Harry Potter". Keys are {@code (entry, offset)} pairs packed into one
+ * {@code long} and sorted by the text from that offset, so the keys
+ * matching a prefix are one contiguous range found by binary search. A max
+ * segment tree over the key weights then yields that range in popularity
+ * order at O(log n) per result, which gives the same answers as a trie that
+ * caches the top K at every node in a fraction of the memory: about 16
+ * bytes per key plus the normalized text.
+ * <p>
+ * Thread-safe once built.
+ */
+final class PrefixIndex {
+
+    static final int MAX_WORD_STARTS = 8;
+
+    private static final int OFFSET_BITS = 16;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+    private final String[] texts;
+    private final long[] weights;
+    private final long[] keys;
+    private final int leaves;
+    /** Heap-ordered; each node holds the key position with the highest weight below it, or -1. */
+    private final int[] tree;
+
+    /**
+     * @param texts   normalized text per entry (see {@link #normalize}); null or empty entries get no keys
+     * @param weights popularity per entry, higher first; ties go to the lower entry
+     */
+    PrefixIndex(String[] texts, long[] weights) {
+        this.texts = texts;
+        this.weights = weights;
+        this.keys = sortedKeys(texts);
+        int size = 1;
+        while (size < keys.length) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.tree = new int[2 * size];
+        for (int i = 0; i < size; i++) {
+            tree[size + i] = i < keys.length ? i : -1;
+        }
+        for (int node = size - 1; node >= 1; node--) {
+            tree[node] = heavier(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    static PrefixIndex empty() {
+        return new PrefixIndex(new String[0], new long[0]);
+    }
+
+    int entries() {
+        return texts.length;
+    }
+
+    int keys() {
+        return keys.length;
+    }
+
+    long weight(int entry) {
+        return weights[entry];
+    }
+
+    /**
+     * Visit the entries with a key starting with {@code prefix}, heaviest
+     * first. An entry matching at several word starts is visited once per
+     * match. Stops as soon as {@code visitor} returns false.
+     *
+     * @param prefix normalized, non-empty
+     */
+    void forEachByWeight(String prefix, IntPredicate visitor) {
+        int from = bound(prefix, false);
+        int to = bound(prefix, true);
+        if (from >= to) {
+            return;
+        }
+        PriorityQueue<Integer> frontier = new PriorityQueue<>(
+            (a, b) -> tree[a] == heavier(tree[a], tree[b]) ? -1 : 1);
+        for (int l = from + leaves, r = to + leaves; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                frontier.add(l++);
+            }
+            if ((r & 1) == 1) {
+                frontier.add(--r);
+            }
+        }
+        while (!frontier.isEmpty()) {
+            int node = frontier.poll();
+            if (node >= leaves) {
+                if (!visitor.test(entryOf(keys[tree[node]]))) {
+                    return;
+                }
+                continue;
+            }
+            for (int child = 2 * node; child <= 2 * node + 1; child++) {
+                if (tree[child] >= 0) {
+                    frontier.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lower-case, with every run of characters other than letters and digits
+     * turned into one space, trimmed.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(c);
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private int heavier(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        long wa = keyWeight(a);
+        long wb = keyWeight(b);
+        if (wa != wb) {
+            return wb > wa ? b : a;
+        }
+        return entryOf(keys[b]) < entryOf(keys[a]) ? b : a;
+    }
+
+    private long keyWeight(int position) {
+        return weights[entryOf(keys[position])];
+    }
+
+    /** First key position whose text compares {@code > prefix} (upper) or {@code >= prefix} (lower), by prefix. */
+    private int bound(String prefix, boolean upper) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            long key = keys[mid];
+            int cmp = comparePrefix(texts[entryOf(key)], offsetOf(key), prefix);
+            if (cmp < 0 || (upper && cmp == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** Zero if {@code text} from {@code offset} starts with {@code prefix}, else the usual ordering. */
+    private static int comparePrefix(String text, int offset, String prefix) {
+        for (int k = 0; k < prefix.length(); k++) {
+            if (offset + k >= text.length()) {
+                return -1;
+            }
+            int diff = text.charAt(offset + k) - prefix.charAt(k);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return 0;
+    }
+
+    private static int compareSuffixes(String a, int ao, String b, int bo) {
+        int n = Math.min(a.length() - ao, b.length() - bo);
+        for (int k = 0; k < n; k++) {
+            int diff = a.charAt(ao + k) - b.charAt(bo + k);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return (a.length() - ao) - (b.length() - bo);
+    }
+
+    private static int entryOf(long key) {
+        return (int) (key >>> OFFSET_BITS);
+    }
+
+    private static int offsetOf(long key) {
+        return (int) (key & OFFSET_MASK);
+    }
+
+    private static long[] sortedKeys(String[] texts) {
+        int count = 0;
+        for (String text : texts) {
+            count += wordStarts(text, null);
+        }
+        long[] keys = new long[count];
+        int[] starts = new int[MAX_WORD_STARTS];
+        int n = 0;
+        for (int entry = 0; entry < texts.length; entry++) {
+            int found = wordStarts(texts[entry], starts);
+            for (int i = 0; i < found; i++) {
+                keys[n++] = ((long) entry << OFFSET_BITS) | starts[i];
+            }
+        }
+        mergeSort(keys, texts);
+        return keys;
+    }
+
+    /**
+     * Offsets at which {@code text} is keyed.
+     */
+    static int[] wordStarts(String text) {
+        int[] starts = new int[MAX_WORD_STARTS];
+        int found = wordStarts(text, starts);
+        return Arrays.copyOf(starts, found);
+    }
+
+    private static int wordStarts(String text, int[] starts) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int found = 0;
+        int limit = (int) Math.min(text.length(), OFFSET_MASK + 1);
+        for (int i = 0; i < limit && found < MAX_WORD_STARTS; i++) {
+            if (i == 0 || text.charAt(i - 1) == ' ') {
+                if (starts != null) {
+                    starts[found] = i;
+                }
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /** Bottom-up merge sort; {@code Arrays.sort} has no comparator overload for primitives. */
+    private static void mergeSort(long[] keys, String[] texts) {
+        long[] buffer = new long[keys.length];
+        long[] src = keys;
+        long[] dst = buffer;
+        for (int width = 1; width < keys.length; width <<= 1) {
+            for (int lo = 0; lo < keys.length; lo += 2 * width) {
+                int mid = Math.min(lo + width, keys.length);
+                int hi = Math.min(lo + 2 * width, keys.length);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    long a = src[i];
+                    long b = src[j];
+                    int cmp = compareSuffixes(texts[entryOf(a)], offsetOf(a), texts[entryOf(b)], offsetOf(b));
+                    dst[k++] = cmp <= 0 ? src[i++] : src[j++];
+                }
+                while (i < mid) {
+                    dst[k++] = src[i++];
+                }
+                while (j < hi) {
+                    dst[k++] = src[j++];
+                }
+            }
+            long[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+        if (src != keys) {
+            System.arraycopy(src, 0, keys, 0, keys.length);
+        }
+    }
+}
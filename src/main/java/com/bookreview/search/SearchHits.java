@@ -0,0 +1,16 @@
+package com.bookreview.search;
+
+import lombok.Value;
+
+/**
+ * One page of book ids in descending relevance order plus the total match count.
+ */
+@Value
+public class SearchHits {
+    long totalHits;
+    long[] bookIds;
+
+    public static SearchHits empty() {
+        return new SearchHits(0, new long[0]);
+    }
+}
@@ -0,0 +1,16 @@
+package com.bookreview.search;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder(toBuilder = true)
+public class SearchIndexStats {
+    boolean ready;
+    int documents;
+    int deletedDocuments;
+    int terms;
+    long postings;
+    long estimatedBytes;
+    long estimatedBytesPer100kDocuments;
+}
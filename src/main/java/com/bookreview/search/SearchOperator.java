@@ -0,0 +1,6 @@
+package com.bookreview.search;
+
+public enum SearchOperator {
+    AND,
+    OR
+}
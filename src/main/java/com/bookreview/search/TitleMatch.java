@@ -0,0 +1,7 @@
+package com.bookreview.search;
+
+/**
+ * A book whose title resembles a query, with its trigram similarity in [0, 1].
+ */
+public record TitleMatch(long bookId, float similarity) {
+}
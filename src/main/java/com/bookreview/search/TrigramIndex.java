@@ -0,0 +1,241 @@
+package com.bookreview.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trigram index over book titles for typo-tolerant lookup.
+ * <p>
+ * Similarity is that of PostgreSQL's {@code pg_trgm}: each word is padded
+ * with two leading blanks and one trailing blank, and two strings score
+ * {@code shared / (|a| + |b| - shared)} over their distinct trigrams. A match
+ * at threshold {@code t} must share at least {@code ceil(t * |q|)} of the
+ * query's {@code |q|} trigrams, so it contains one of the query's
+ * {@code |q| - ceil(t * |q|) + 1} rarest trigrams; only those posting lists
+ * are read, which skips the very common ones such as {@code "  t"}.
+ * Candidates are then scored exactly against the trigrams stored per doc.
+ * <p>
+ * Short queries have few trigrams, all of them common, so they would read
+ * huge posting lists. Queries of fewer than {@value #MIN_QUERY_LENGTH}
+ * letters or digits match nothing, and at most {@value #MAX_CANDIDATES}
+ * candidates are scored, taken from the rarest lists first. Past that cap a
+ * very unspecific query gets a best-effort subset of its matches.
+ * <p>
+ * Doc ids and tombstones work as in {@link InvertedIndex}. Not thread-safe:
+ * {@link BookSearchIndex} guards it with its read/write lock.
+ */
+final class TrigramIndex {
+
+    private static final int MIN_DEAD_DOCS_FOR_COMPACTION = 1024;
+    static final int MIN_QUERY_LENGTH = 3;
+    static final int MAX_CANDIDATES = 10_000;
+
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final Map<Long, Integer> docByBookId = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private long[] bookIds = new long[1024];
+    /** Sorted, distinct trigrams of each doc's title; null for tombstones. */
+    private long[][] docTrigrams = new long[1024][];
+    private int maxDoc;
+    private int liveDocs;
+
+    void put(long bookId, String title) {
+        remove(bookId);
+        long[] trigrams = trigrams(title);
+        if (trigrams.length == 0) {
+            return;
+        }
+        if (maxDoc == bookIds.length) {
+            bookIds = Arrays.copyOf(bookIds, maxDoc * 2);
+            docTrigrams = Arrays.copyOf(docTrigrams, maxDoc * 2);
+        }
+        int doc = maxDoc++;
+        for (long trigram : trigrams) {
+            postings.computeIfAbsent(trigram, t -> new IntList()).add(doc);
+        }
+        bookIds[doc] = bookId;
+        docTrigrams[doc] = trigrams;
+        live.set(doc);
+        docByBookId.put(bookId, doc);
+        liveDocs++;
+    }
+
+    void remove(long bookId) {
+        Integer doc = docByBookId.remove(bookId);
+        if (doc == null) {
+            return;
+        }
+        live.clear(doc);
+        docTrigrams[doc] = null;
+        liveDocs--;
+        if (maxDoc - liveDocs >= MIN_DEAD_DOCS_FOR_COMPACTION && maxDoc - liveDocs > liveDocs / 4) {
+            compact();
+        }
+    }
+
+    int size() {
+        return liveDocs;
+    }
+
+    /**
+     * Titles at least {@code threshold} similar to {@code query}, most similar
+     * first, ties by book id.
+     */
+    List<TitleMatch> search(String query, float threshold, int limit) {
+        String normalized = PrefixIndex.normalize(query);
+        if (normalized.length() - countSpaces(normalized) < MIN_QUERY_LENGTH || liveDocs == 0 || limit <= 0) {
+            return List.of();
+        }
+        long[] queryTrigrams = trigramsOfNormalized(normalized);
+        int minShared = Math.max(1, (int) Math.ceil(threshold * queryTrigrams.length));
+        IntList[] lists = new IntList[queryTrigrams.length];
+        for (int i = 0; i < queryTrigrams.length; i++) {
+            IntList list = postings.get(queryTrigrams[i]);
+            lists[i] = list != null ? list : IntList.EMPTY;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        BitSet candidates = new BitSet(maxDoc);
+        int found = 0;
+        collect:
+        for (int i = 0; i <= queryTrigrams.length - minShared; i++) {
+            for (int p = 0; p < lists[i].size; p++) {
+                int doc = lists[i].values[p];
+                if (live.get(doc) && !candidates.get(doc)) {
+                    candidates.set(doc);
+                    if (++found == MAX_CANDIDATES) {
+                        break collect;
+                    }
+                }
+            }
+        }
+
+        List<TitleMatch> matches = new ArrayList<>();
+        for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+            float similarity = similarity(queryTrigrams, docTrigrams[doc]);
+            if (similarity >= threshold) {
+                matches.add(new TitleMatch(bookIds[doc], similarity));
+            }
+        }
+        matches.sort((a, b) -> a.similarity() != b.similarity()
+            ? Float.compare(b.similarity(), a.similarity())
+            : Long.compare(a.bookId(), b.bookId()));
+        return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Distinct trigrams of {@code text}, sorted, each packed as three 16-bit chars.
+     */
+    static long[] trigrams(String text) {
+        return trigramsOfNormalized(PrefixIndex.normalize(text));
+    }
+
+    private static long[] trigramsOfNormalized(String normalized) {
+        if (normalized.isEmpty()) {
+            return new long[0];
+        }
+        long[] trigrams = new long[normalized.length() * 2 + 2];
+        int n = 0;
+        for (String word : normalized.split(" ")) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams[n++] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+            }
+        }
+        return Arrays.stream(trigrams, 0, n).sorted().distinct().toArray();
+    }
+
+    private static int countSpaces(String text) {
+        int spaces = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == ' ') {
+                spaces++;
+            }
+        }
+        return spaces;
+    }
+
+    /** pg_trgm similarity of two sorted, distinct trigram arrays. */
+    static float similarity(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        int shared = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = a.length + b.length - shared;
+        return union == 0 ? 0 : (float) shared / union;
+    }
+
+    /**
+     * Renumber live docs densely and drop postings that point at tombstones.
+     */
+    private void compact() {
+        int[] remap = new int[maxDoc];
+        int next = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (live.get(doc)) {
+                remap[doc] = next;
+                bookIds[next] = bookIds[doc];
+                docTrigrams[next] = docTrigrams[doc];
+                next++;
+            } else {
+                remap[doc] = -1;
+            }
+        }
+        Arrays.fill(docTrigrams, next, maxDoc, null);
+        Iterator<IntList> it = postings.values().iterator();
+        while (it.hasNext()) {
+            IntList list = it.next();
+            list.remap(remap);
+            if (list.size == 0) {
+                it.remove();
+            }
+        }
+        docByBookId.replaceAll((bookId, doc) -> remap[doc]);
+        live.clear();
+        live.set(0, next);
+        maxDoc = next;
+    }
+
+    private static final class IntList {
+        static final IntList EMPTY = new IntList();
+
+        int[] values = new int[2];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+            values[size++] = value;
+        }
+
+        void remap(int[] remap) {
+            int out = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[values[i]];
+                if (doc >= 0) {
+                    values[out++] = doc;
+                }
+            }
+            size = out;
+            if (values.length > 16 && out < values.length / 2) {
+                values = Arrays.copyOf(values, Math.max(out, 2));
+            }
+        }
+    }
+}
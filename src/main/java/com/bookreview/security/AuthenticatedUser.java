@@ -0,0 +1,93 @@
+package com.bookreview.security;
+
+import com.bookreview.entity.User;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Security principal carrying the user id next to the username, so code holding
+ * the {@code Authentication} can identify the user without a lookup. Built
+ * from the database at login and from token claims on every other request.
+ */
+@Getter
+@EqualsAndHashCode(of = "username")
+@ToString(exclude = "password")
+public class AuthenticatedUser implements UserDetails, CredentialsContainer {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final Long id;
+    private final String username;
+    private String password;
+    private final Set<GrantedAuthority> authorities;
+    private final boolean locked;
+
+    public AuthenticatedUser(Long id, String username, String password, Collection<String> roles) {
+        this(id, username, password, roles, false);
+    }
+
+    public AuthenticatedUser(Long id, String username, String password, Collection<String> roles, boolean locked) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.locked = locked;
+        this.authorities = roles.stream()
+            .map(role -> new SimpleGrantedAuthority(ROLE_PREFIX + role))
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(),
+            user.getRoles().stream().map(Enum::name).toList(), Boolean.TRUE.equals(user.getIsLocked()));
+    }
+
+    public static AuthenticatedUser of(VerifiedToken token) {
+        return new AuthenticatedUser(token.getUserId(), token.getUsername(), null, token.getRoles());
+    }
+
+    /**
+     * Role names without the {@code ROLE_} prefix, as stored on {@link User}.
+     */
+    public List<String> getRoleNames() {
+        return authorities.stream()
+            .map(GrantedAuthority::getAuthority)
+            .map(authority -> authority.substring(ROLE_PREFIX.length()))
+            .sorted()
+            .toList();
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return !locked;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+}
@@ -1,19 +1,56 @@
 package com.bookreview.security;
 
 import io.jsonwebtoken.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLES = "roles";
+
     private final String SECRET_KEY = "your-very-secure-secret";
     private final long EXPIRATION = 1000 * 60 * 60 * 10; // 10 hours
 
+    private final VerifiedTokenCache verifiedTokens;
+
+    public JwtUtil(@Value("${bookreview.security.token-cache.ttl-seconds:60}") long cacheTtlSeconds,
+                   @Value("${bookreview.security.token-cache.max-size:10000}") int cacheMaxSize) {
+        this.verifiedTokens = new VerifiedTokenCache(cacheTtlSeconds * 1000, cacheMaxSize);
+    }
+
+    /**
+     * Verify the signature and expiry once and return every claim the request
+     * needs. Recently verified tokens are served from a short-TTL cache.
+     *
+     * @throws ExpiredJwtException, SignatureException, MalformedJwtException as {@link JwtParser#parseClaimsJws}
+     */
+    public VerifiedToken verify(String token) {
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(token, now);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = extractAllClaims(token);
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        @SuppressWarnings("unchecked")
+        List<String> roles = claims.get(CLAIM_ROLES, List.class);
+        VerifiedToken verified = new VerifiedToken(
+            claims.getSubject(),
+            userId != null ? userId.longValue() : null,
+            roles != null ? List.copyOf(roles) : null,
+            claims.getExpiration().getTime());
+        verifiedTokens.put(token, verified, now);
+        return verified;
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -38,6 +75,17 @@ public class JwtUtil {
         return createToken(new HashMap<>(), username);
     }
 
+    /**
+     * Token carrying the user id and roles, so requests can be authenticated
+     * from the token alone. Role changes take effect on the next login.
+     */
+    public String generateToken(AuthenticatedUser user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLES, user.getRoleNames());
+        return createToken(claims, user.getUsername());
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
@@ -0,0 +1,231 @@
+package com.bookreview.security;
+
+import com.bookreview.service.UserResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Consecutive failed logins per username, with a temporary lockout after
+ * {@code max-failures} of them.
+ * <p>
+ * Counts live in memory, split over {@value #STRIPES} independently locked
+ * stripes so concurrent logins for different users rarely contend. Only users
+ * with failures are tracked. A scheduled flush mirrors dirty entries into
+ * {@code users.failed_login_attempts} and {@code users.is_locked} in one
+ * batch, and clears {@code is_locked} once a lockout has run out. An account
+ * found locked in the database but unknown here (after a restart, or locked
+ * by another node) gets a fresh lockout window, so it is unlocked eventually
+ * too.
+ */
+@Component
+public class LoginAttemptTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptTracker.class);
+
+    private static final int STRIPES = 64;
+    private static final String UPDATE_SQL =
+        "UPDATE users SET failed_login_attempts = ?, is_locked = ? WHERE username = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserResolver userResolver;
+    private final int maxFailures;
+    private final long lockNanos;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter lockouts;
+
+    public LoginAttemptTracker(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               UserResolver userResolver,
+                               MeterRegistry meterRegistry,
+                               @Value("${bookreview.auth.login.max-failures:5}") int maxFailures,
+                               @Value("${bookreview.auth.login.lock-seconds:900}") long lockSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userResolver = userResolver;
+        this.maxFailures = maxFailures;
+        this.lockNanos = TimeUnit.SECONDS.toNanos(lockSeconds);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.lockouts = Counter.builder("bookreview.auth.login.lockouts")
+            .description("Accounts locked after repeated failed logins")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return seconds until {@code username} may try again, or 0 if it is not locked
+     */
+    public long remainingLockSeconds(String username) {
+        Stripe stripe = stripe(username);
+        synchronized (stripe) {
+            Attempts attempts = stripe.users.get(username);
+            if (attempts == null || attempts.lockedUntil == 0) {
+                return 0;
+            }
+            long remaining = attempts.lockedUntil - System.nanoTime();
+            return remaining > 0 ? Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining)) : 0;
+        }
+    }
+
+    /**
+     * Count a wrong password for an existing user.
+     *
+     * @return true if this failure locked the account
+     */
+    public boolean recordFailure(String username) {
+        Stripe stripe = stripe(username);
+        synchronized (stripe) {
+            Attempts attempts = stripe.users.computeIfAbsent(username, name -> new Attempts());
+            long now = System.nanoTime();
+            if (attempts.lockedUntil != 0 && now - attempts.lockedUntil >= 0) {
+                attempts.failures = 0;
+                attempts.lockedUntil = 0;
+            }
+            attempts.failures++;
+            attempts.dirty = true;
+            if (attempts.lockedUntil == 0 && attempts.failures >= maxFailures) {
+                attempts.lockedUntil = now + lockNanos;
+                lockouts.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    public void recordSuccess(String username) {
+        Stripe stripe = stripe(username);
+        synchronized (stripe) {
+            Attempts attempts = stripe.users.get(username);
+            if (attempts != null && (attempts.failures != 0 || attempts.lockedUntil != 0)) {
+                attempts.failures = 0;
+                attempts.lockedUntil = 0;
+                attempts.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Start a lockout window for an account the database says is locked.
+     */
+    public void restoreLock(String username) {
+        Stripe stripe = stripe(username);
+        synchronized (stripe) {
+            Attempts attempts = stripe.users.computeIfAbsent(username, name -> new Attempts());
+            if (attempts.lockedUntil == 0) {
+                attempts.failures = Math.max(attempts.failures, maxFailures);
+                attempts.lockedUntil = System.nanoTime() + lockNanos;
+            }
+        }
+    }
+
+    /**
+     * Write changed counters and expired lockouts to {@code users}.
+     *
+     * @return the number of users written
+     */
+    @Scheduled(fixedDelayString = "${bookreview.auth.login.flush-interval-ms:5000}",
+               initialDelayString = "${bookreview.auth.login.flush-interval-ms:5000}")
+    public int flush() {
+        flushLock.lock();
+        try {
+            long now = System.nanoTime();
+            List<Row> rows = new ArrayList<>();
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    Iterator<Map.Entry<String, Attempts>> it = stripe.users.entrySet().iterator();
+                    while (it.hasNext()) {
+                        Map.Entry<String, Attempts> entry = it.next();
+                        Attempts attempts = entry.getValue();
+                        if (attempts.lockedUntil != 0 && now - attempts.lockedUntil >= 0) {
+                            attempts.failures = 0;
+                            attempts.lockedUntil = 0;
+                            attempts.dirty = true;
+                        }
+                        if (attempts.dirty) {
+                            rows.add(new Row(entry.getKey(), attempts.failures, attempts.lockedUntil != 0));
+                            attempts.dirty = false;
+                        }
+                        if (attempts.failures == 0 && attempts.lockedUntil == 0) {
+                            it.remove();
+                        }
+                    }
+                }
+            }
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            // By username, the key of each UPDATE users row: two nodes flushing the same users
+            // lock those rows in the same order and cannot deadlock each other.
+            rows.sort(Comparator.comparing(Row::username));
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, rows, rows.size(), (ps, row) -> {
+                        ps.setInt(1, row.failures());
+                        ps.setBoolean(2, row.locked());
+                        ps.setString(3, row.username());
+                    });
+                    // A bulk update bypasses the entity listener that normally evicts.
+                    rows.forEach(row -> userResolver.evict(null, row.username()));
+                });
+            } catch (DataAccessException e) {
+                logger.warn("Could not flush login attempts for {} users; will retry", rows.size(), e);
+                rows.forEach(this::requeue);
+                return 0;
+            }
+            return rows.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private void requeue(Row row) {
+        Stripe stripe = stripe(row.username());
+        synchronized (stripe) {
+            stripe.users.computeIfAbsent(row.username(), name -> new Attempts()).dirty = true;
+        }
+    }
+
+    private Stripe stripe(String username) {
+        int hash = username.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+        final Map<String, Attempts> users = new HashMap<>();
+    }
+
+    private static final class Attempts {
+        int failures;
+        /** {@code System.nanoTime()} the lockout ends, or 0 if not locked. */
+        long lockedUntil;
+        boolean dirty;
+    }
+
+    private record Row(String username, int failures, boolean locked) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.bookreview.security;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Claims of a JWT whose signature has been checked. Tokens issued before the
+ * user id and roles were added as claims have {@code userId == null}.
+ */
+@Value
+public class VerifiedToken {
+    String username;
+    Long userId;
+    List<String> roles;
+    long expiresAtMillis;
+
+    public boolean hasIdentityClaims() {
+        return userId != null && roles != null;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
@@ -0,0 +1,58 @@
+package com.bookreview.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived map from raw token to its verified claims, so a client sending
+ * the same token on every request pays for the HMAC check once per TTL. An
+ * entry never outlives the token's own expiry. When full, expired entries are
+ * swept and, if that frees nothing, the map is cleared.
+ */
+final class VerifiedTokenCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    VerifiedTokenCache(long ttlMillis, int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    VerifiedToken get(String token, long nowMillis) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (nowMillis >= entry.validUntilMillis) {
+            entries.remove(token, entry);
+            return null;
+        }
+        return entry.verified;
+    }
+
+    void put(String token, VerifiedToken verified, long nowMillis) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(entry -> nowMillis >= entry.validUntilMillis);
+            if (entries.size() >= maxSize) {
+                entries.clear();
+            }
+        }
+        long validUntil = Math.min(nowMillis + ttlMillis, verified.getExpiresAtMillis());
+        entries.put(token, new Entry(verified, validUntil));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private record Entry(VerifiedToken verified, long validUntilMillis) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.bookreview.service;
+
+import com.bookreview.dto.BrowsePage;
+import com.bookreview.exception.IndexNotReadyException;
+import com.bookreview.facet.BookFacetIndex;
+import com.bookreview.facet.Facet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MultiValueMap;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Faceted browsing over {@link BookFacetIndex}, in book id order.
+ */
+@Service
+public class BookBrowseService {
+
+    private static final String LISTING = "BROWSE";
+
+    private final BookFacetIndex bookFacetIndex;
+    private final BookService bookService;
+    private final int maxFacetValues;
+
+    public BookBrowseService(BookFacetIndex bookFacetIndex,
+                             BookService bookService,
+                             @Value("${bookreview.browse.max-facet-values:20}") int maxFacetValues) {
+        this.bookFacetIndex = bookFacetIndex;
+        this.bookService = bookService;
+        this.maxFacetValues = maxFacetValues;
+    }
+
+    /**
+     * @param params request parameters; those named after a {@link Facet}
+     *               filter on it, repeated values meaning "any of"
+     * @throws IndexNotReadyException   while the index is still being built
+     * @throws IllegalArgumentException for a malformed cursor
+     */
+    public BrowsePage browse(MultiValueMap<String, String> params, String cursor, int size) {
+        if (!bookFacetIndex.isReady()) {
+            throw new IndexNotReadyException("Browse index is still loading");
+        }
+        long afterId = cursor != null ? KeysetCursor.decode(cursor, LISTING).id() : 0;
+        Map<Facet, Set<String>> filters = new EnumMap<>(Facet.class);
+        for (Map.Entry<String, List<String>> param : params.entrySet()) {
+            Facet facet = Facet.fromParam(param.getKey());
+            if (facet == null) {
+                continue;
+            }
+            Set<String> values = filters.computeIfAbsent(facet, f -> new LinkedHashSet<>());
+            for (String value : param.getValue()) {
+                values.add(facet.normalize(value.trim()));
+            }
+        }
+
+        BookFacetIndex.BrowseResult result = bookFacetIndex.browse(filters, afterId, size, maxFacetValues);
+        String nextCursor = result.hasNext()
+            ? new KeysetCursor(LISTING, null, result.bookIds().get(result.bookIds().size() - 1)).encode()
+            : null;
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        result.counts().forEach((facet, counts) -> facets.put(facet.getParam(), counts));
+        return new BrowsePage(bookService.getBooks(result.bookIds()), nextCursor, result.hasNext(),
+            result.total(), facets);
+    }
+}
@@ -0,0 +1,227 @@
+package com.bookreview.service;
+
+import com.bookreview.catalog.BookChangedEvent;
+import com.bookreview.catalog.BookRatingChangedEvent;
+import com.bookreview.catalog.GenreChangedEvent;
+import com.bookreview.dto.BookDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of serialized {@code GET /books/{id}} responses.
+ * <p>
+ * Each entry holds the JSON body and a strong ETag over those bytes, so a
+ * matching {@code If-None-Match} is answered without loading or serializing
+ * anything. Entries are dropped after the transaction that changed the book
+ * commits: book writes, rating writes (which do not move {@code updated_at})
+ * and genre writes (which change genre names on every book). The cache is
+ * bounded by entry count and total bytes; a TTL caps staleness from changes
+ * that publish no event, such as a username edit.
+ */
+@Service
+public class BookDetailService {
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, BookDetail> entries = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    /** Bumped by every invalidation; loads that raced one are not cached. */
+    private final AtomicLong generation = new AtomicLong();
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlNanos;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter notModified;
+    private final Counter capacityEvictions;
+    private final Counter invalidations;
+    private final Counter expirations;
+
+    public BookDetailService(BookService bookService,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${bookreview.books.detail-cache.max-entries:10000}") int maxEntries,
+                             @Value("${bookreview.books.detail-cache.max-bytes:67108864}") long maxBytes,
+                             @Value("${bookreview.books.detail-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.bookService = bookService;
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.notModified = requests(meterRegistry, "not_modified");
+        this.capacityEvictions = evictions(meterRegistry, "capacity");
+        this.invalidations = evictions(meterRegistry, "invalidated");
+        this.expirations = evictions(meterRegistry, "expired");
+        Gauge.builder("bookreview.books.detail_cache.size", entries, Map::size)
+            .description("Book detail responses held in the cache")
+            .register(meterRegistry);
+        Gauge.builder("bookreview.books.detail_cache.bytes", bytes, AtomicLong::get)
+            .description("Serialized bytes held in the book detail cache")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("bookreview.books.detail_cache.requests")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static Counter evictions(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("bookreview.books.detail_cache.evictions")
+            .tag("cause", cause)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Serialized detail response for one book, or empty if it does not exist.
+     */
+    public Optional<BookDetail> getBookDetail(Long id) {
+        BookDetail cached = entries.get(id);
+        if (cached != null) {
+            if (System.nanoTime() - cached.expiresAtNanos < 0) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+            if (remove(id, cached)) {
+                expirations.increment();
+            }
+        }
+        misses.increment();
+        long before = generation.get();
+        Optional<BookDTO> book = bookService.getBook(id);
+        if (book.isEmpty()) {
+            return Optional.empty();
+        }
+        BookDetail detail = serialize(book.get());
+        if (generation.get() == before) {
+            store(id, detail);
+        }
+        return Optional.of(detail);
+    }
+
+    /**
+     * Record a conditional request answered with 304.
+     */
+    public void recordNotModified() {
+        notModified.increment();
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        invalidate(event.getBookId());
+    }
+
+    @TransactionalEventListener
+    public void onRatingChanged(BookRatingChangedEvent event) {
+        event.getBookIds().forEach(this::invalidate);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGenreChanged(GenreChangedEvent event) {
+        generation.incrementAndGet();
+        for (Map.Entry<Long, BookDetail> entry : entries.entrySet()) {
+            if (remove(entry.getKey(), entry.getValue())) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    private void invalidate(Long id) {
+        generation.incrementAndGet();
+        BookDetail removed = entries.remove(id);
+        if (removed != null) {
+            bytes.addAndGet(-removed.body.length);
+            invalidations.increment();
+        }
+    }
+
+    private void store(Long id, BookDetail detail) {
+        BookDetail previous = entries.put(id, detail);
+        bytes.addAndGet(detail.body.length - (previous != null ? previous.body.length : 0));
+        if (entries.size() > maxEntries || bytes.get() > maxBytes) {
+            // Arbitrary-order eviction: cheaper than LRU bookkeeping on every hit.
+            Iterator<Map.Entry<Long, BookDetail>> it = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || bytes.get() > maxBytes) && it.hasNext()) {
+                Map.Entry<Long, BookDetail> entry = it.next();
+                if (!entry.getKey().equals(id) && remove(entry.getKey(), entry.getValue())) {
+                    capacityEvictions.increment();
+                }
+            }
+        }
+    }
+
+    private boolean remove(Long id, BookDetail detail) {
+        if (entries.remove(id, detail)) {
+            bytes.addAndGet(-detail.body.length);
+            return true;
+        }
+        return false;
+    }
+
+    private BookDetail serialize(BookDTO book) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(book);
+            return new BookDetail(body, etag(body), System.nanoTime() + ttlNanos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize book " + book.getId(), e);
+        }
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            byte[] prefix = new byte[16];
+            System.arraycopy(digest, 0, prefix, 0, prefix.length);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(prefix) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * One cached response. {@code body} is shared and must not be modified.
+     */
+    public static final class BookDetail {
+        private final byte[] body;
+        private final String etag;
+        private final long expiresAtNanos;
+
+        BookDetail(byte[] body, String etag, long expiresAtNanos) {
+            this.body = body;
+            this.etag = etag;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * Strong validator, quoted as it goes in the {@code ETag} header.
+         */
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
@@ -0,0 +1,524 @@
+package com.bookreview.service;
+
+import com.bookreview.catalog.BookChangedEvent;
+import com.bookreview.catalog.BookSnapshot;
+import com.bookreview.catalog.Isbn;
+import com.bookreview.dto.BookCreateRequest;
+import com.bookreview.dto.BookImportResult;
+import com.bookreview.entity.BookStatus;
+import com.bookreview.entity.Genre;
+import com.bookreview.entity.User;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.repository.GenreRepository;
+import com.bookreview.repository.UserRepository;
+import com.bookreview.search.FullTextSearchSupport;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk book import from CSV or NDJSON.
+ * <p>
+ * Input is streamed and processed in chunks, one transaction per chunk. For
+ * each chunk the referenced genres and co-authors are resolved with one query
+ * each and titles/ISBNs are checked for duplicates set-wise; surviving rows are
+ * written with JDBC batch inserts. {@code Book} uses IDENTITY ids, which rules
+ * out Hibernate insert batching, so the inserts bypass the persistence context
+ * and read the ids back from the batch's generated keys.
+ * <p>
+ * Rows that fail validation are reported with their input line and skipped;
+ * the rest of their chunk is still imported.
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookImportService.class);
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int PUBLISHER_MAX_LENGTH = 200;
+    private static final String LIST_SEPARATOR = ";";
+
+    private static final String INSERT_BOOK =
+        "INSERT INTO books (title, subtitle, isbn, isbn_key, description, publication_date, publisher, status, author_id, " +
+        "review_count, total_rating_sum, rating_1_count, rating_2_count, rating_3_count, rating_4_count, rating_5_count, " +
+        "view_count, is_active, is_featured, is_bestseller, is_free, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, 0, 0, 0, 0, 0, 0, TRUE, FALSE, FALSE, FALSE, ?, ?)";
+    private static final String INSERT_BOOK_GENRE = "INSERT INTO book_genres (book_id, genre_id) VALUES (?, ?)";
+    private static final String INSERT_BOOK_CO_AUTHOR = "INSERT INTO book_co_authors (book_id, author_id) VALUES (?, ?)";
+
+    public enum Format { CSV, NDJSON }
+
+    private final BookRepository bookRepository;
+    private final GenreRepository genreRepository;
+    private final UserRepository userRepository;
+    private final FullTextSearchSupport fullTextSearchSupport;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public BookImportService(BookRepository bookRepository,
+                             GenreRepository genreRepository,
+                             UserRepository userRepository,
+                             FullTextSearchSupport fullTextSearchSupport,
+                             ApplicationEventPublisher eventPublisher,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             @Value("${bookreview.import.chunk-size:1000}") int chunkSize) {
+        this.bookRepository = bookRepository;
+        this.genreRepository = genreRepository;
+        this.userRepository = userRepository;
+        this.fullTextSearchSupport = fullTextSearchSupport;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Import every row of {@code in}, with {@code author} as the author of each book.
+     *
+     * @throws IllegalArgumentException if the input is structurally unreadable
+     *         (bad CSV header, unterminated quote); rows before it stay imported
+     */
+    public BookImportResult importBooks(InputStream in, Format format, User author) throws IOException {
+        long started = System.nanoTime();
+        BookImportResult result = new BookImportResult();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        RowSource source = format == Format.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader);
+
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        ImportRow row;
+        while ((row = source.next()) != null) {
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, author, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, author, result);
+        }
+        logger.info("Imported {} of {} books in {} ms ({} failed)", result.getImported(), result.getTotalRows(),
+            (System.nanoTime() - started) / 1_000_000, result.getFailed());
+        return result;
+    }
+
+    private void importChunk(List<ImportRow> chunk, User author, BookImportResult result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeChunk(chunk, author));
+        } catch (DataAccessException e) {
+            // A constraint the set-wise checks could not see (e.g. a concurrent insert)
+            // rolls back the whole chunk; report it against every row that was in it.
+            logger.warn("Import chunk rolled back: {}", e.getMostSpecificCause().getMessage());
+            String message = "Chunk rolled back: " + e.getMostSpecificCause().getMessage();
+            for (ImportRow row : chunk) {
+                if (row.error == null) {
+                    row.error = message;
+                }
+            }
+        }
+        for (ImportRow row : chunk) {
+            result.setTotalRows(result.getTotalRows() + 1);
+            if (row.error == null) {
+                result.setImported(result.getImported() + 1);
+            } else {
+                result.setFailed(result.getFailed() + 1);
+                if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                    String title = row.request != null ? row.request.getTitle() : null;
+                    result.getErrors().add(new BookImportResult.RowError(row.line, title, row.error));
+                }
+            }
+        }
+    }
+
+    private void writeChunk(List<ImportRow> chunk, User author) {
+        List<ImportRow> rows = chunk.stream().filter(row -> row.error == null).toList();
+        rows.forEach(this::validate);
+        rejectDuplicates(rows);
+        Map<Long, Genre> genres = resolveGenres(rows);
+        rejectMissingCoAuthors(rows);
+
+        List<ImportRow> accepted = rows.stream().filter(row -> row.error == null).toList();
+        if (accepted.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        insertBooks(accepted, author, now);
+        insertLinks(INSERT_BOOK_GENRE, accepted, row -> row.request.getGenreIds());
+        insertLinks(INSERT_BOOK_CO_AUTHOR, accepted, row -> row.request.getCoAuthorIds());
+
+        List<Long> ids = accepted.stream().map(row -> row.id).toList();
+        fullTextSearchSupport.refreshBooks(ids);
+        for (ImportRow row : accepted) {
+            eventPublisher.publishEvent(BookChangedEvent.created(snapshot(row, genres, author, now)));
+        }
+    }
+
+    private void validate(ImportRow row) {
+        BookCreateRequest request = row.request;
+        Set<ConstraintViolation<BookCreateRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            row.error = violations.stream().map(ConstraintViolation::getMessage).sorted()
+                .collect(Collectors.joining("; "));
+            return;
+        }
+        if (request.getPublisher() != null && request.getPublisher().length() > PUBLISHER_MAX_LENGTH) {
+            row.error = "Publisher must not exceed " + PUBLISHER_MAX_LENGTH + " characters";
+            return;
+        }
+        try {
+            row.status = request.getStatus() != null
+                ? BookStatus.valueOf(request.getStatus().trim().toUpperCase(Locale.ROOT))
+                : BookStatus.PUBLISHED;
+        } catch (IllegalArgumentException e) {
+            row.error = "Unknown status: " + request.getStatus();
+        }
+    }
+
+    /**
+     * Titles and ISBNs are unique: reject repeats within the chunk, then check the
+     * remainder against the table with one IN query per column. Earlier chunks are
+     * already committed, so repeats across chunks are caught by the table check.
+     */
+    private void rejectDuplicates(List<ImportRow> rows) {
+        Set<String> titles = new HashSet<>();
+        Set<String> isbns = new HashSet<>();
+        for (ImportRow row : rows) {
+            if (row.error != null) {
+                continue;
+            }
+            if (!titles.add(row.request.getTitle())) {
+                row.error = "Duplicate title within import: " + row.request.getTitle();
+            } else if (row.request.getIsbn() != null && !isbns.add(row.request.getIsbn())) {
+                row.error = "Duplicate ISBN within import: " + row.request.getIsbn();
+            }
+        }
+        Set<String> existingTitles = titles.isEmpty() ? Set.of() : new HashSet<>(bookRepository.findExistingTitles(titles));
+        Set<String> existingIsbns = isbns.isEmpty() ? Set.of() : new HashSet<>(bookRepository.findExistingIsbns(isbns));
+        for (ImportRow row : rows) {
+            if (row.error != null) {
+                continue;
+            }
+            if (existingTitles.contains(row.request.getTitle())) {
+                row.error = "Book with title '" + row.request.getTitle() + "' already exists";
+            } else if (row.request.getIsbn() != null && existingIsbns.contains(row.request.getIsbn())) {
+                row.error = "Book with ISBN '" + row.request.getIsbn() + "' already exists";
+            }
+        }
+    }
+
+    private Map<Long, Genre> resolveGenres(List<ImportRow> rows) {
+        Set<Long> ids = collectIds(rows, row -> row.request.getGenreIds());
+        Map<Long, Genre> genres = new HashMap<>();
+        if (!ids.isEmpty()) {
+            genreRepository.findAllById(ids).forEach(genre -> genres.put(genre.getId(), genre));
+        }
+        for (ImportRow row : rows) {
+            if (row.error == null) {
+                row.error = firstMissing("Genre", row.request.getGenreIds(), genres.keySet());
+            }
+        }
+        return genres;
+    }
+
+    private void rejectMissingCoAuthors(List<ImportRow> rows) {
+        Set<Long> ids = collectIds(rows, row -> row.request.getCoAuthorIds());
+        Set<Long> existing = ids.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingIds(ids));
+        for (ImportRow row : rows) {
+            if (row.error == null) {
+                row.error = firstMissing("User", row.request.getCoAuthorIds(), existing);
+            }
+        }
+    }
+
+    private static Set<Long> collectIds(List<ImportRow> rows, Function<ImportRow, List<Long>> ids) {
+        Set<Long> collected = new HashSet<>();
+        for (ImportRow row : rows) {
+            if (row.error == null && ids.apply(row) != null) {
+                collected.addAll(ids.apply(row));
+            }
+        }
+        return collected;
+    }
+
+    private static String firstMissing(String kind, List<Long> ids, Set<Long> existing) {
+        if (ids != null) {
+            for (Long id : ids) {
+                if (!existing.contains(id)) {
+                    return kind + " not found: " + id;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void insertBooks(List<ImportRow> rows, User author, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_BOOK, new String[] {"id"})) {
+                for (ImportRow row : rows) {
+                    BookCreateRequest request = row.request;
+                    statement.setString(1, request.getTitle());
+                    statement.setString(2, request.getSubtitle());
+                    statement.setString(3, request.getIsbn());
+                    statement.setString(4, Isbn.toIsbn13(request.getIsbn()));
+                    statement.setString(5, request.getDescription());
+                    if (request.getPublicationDate() != null) {
+                        statement.setDate(6, Date.valueOf(request.getPublicationDate()));
+                    } else {
+                        statement.setNull(6, Types.DATE);
+                    }
+                    statement.setString(7, request.getPublisher());
+                    statement.setString(8, row.status.name());
+                    statement.setLong(9, author.getId());
+                    statement.setTimestamp(10, timestamp);
+                    statement.setTimestamp(11, timestamp);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < rows.size()) {
+                        rows.get(i++).id = keys.getLong(1);
+                    }
+                    if (i != rows.size()) {
+                        // A DataAccessException, so importChunk rolls back and reports just this chunk.
+                        throw new DataRetrievalFailureException(
+                            "Driver returned " + i + " generated ids for " + rows.size() + " rows");
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private void insertLinks(String sql, List<ImportRow> rows, Function<ImportRow, List<Long>> targets) {
+        List<Object[]> links = new ArrayList<>();
+        for (ImportRow row : rows) {
+            List<Long> ids = targets.apply(row);
+            if (ids != null) {
+                for (Long id : new LinkedHashSet<>(ids)) {
+                    links.add(new Object[] {row.id, id});
+                }
+            }
+        }
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, links);
+        }
+    }
+
+    private static BookSnapshot snapshot(ImportRow row, Map<Long, Genre> genres, User author, LocalDateTime now) {
+        List<Long> genreIds = row.request.getGenreIds() != null
+            ? List.copyOf(new LinkedHashSet<>(row.request.getGenreIds()))
+            : List.of();
+        return BookSnapshot.builder()
+            .id(row.id)
+            .title(row.request.getTitle())
+            .subtitle(row.request.getSubtitle())
+            .description(row.request.getDescription())
+            .publisher(row.request.getPublisher())
+            .status(row.status)
+            .publicationDate(row.request.getPublicationDate())
+            .isFree(false)
+            .genreNames(genreIds.stream().map(id -> genres.get(id).getName()).toList())
+            .genreIds(genreIds)
+            .authorId(author.getId())
+            .authorUsername(author.getUsername())
+            .coAuthorIds(row.request.getCoAuthorIds() != null
+                ? List.copyOf(new LinkedHashSet<>(row.request.getCoAuthorIds()))
+                : List.of())
+            .updatedAt(now)
+            .build();
+    }
+
+    private static final class ImportRow {
+        final int line;
+        final BookCreateRequest request;
+        String error;
+        BookStatus status;
+        Long id;
+
+        ImportRow(int line, BookCreateRequest request, String error) {
+            this.line = line;
+            this.request = request;
+            this.error = error;
+        }
+    }
+
+    private interface RowSource {
+        /**
+         * @return the next row, possibly carrying a parse error, or null at end of input
+         */
+        ImportRow next() throws IOException;
+    }
+
+    /**
+     * One {@link BookCreateRequest} JSON object per line; blank lines are skipped.
+     */
+    private final class NdjsonRowSource implements RowSource {
+        private final BufferedReader reader;
+        private int line;
+
+        NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.isBlank());
+            try {
+                return new ImportRow(line, normalize(objectMapper.readValue(text, BookCreateRequest.class)), null);
+            } catch (JsonProcessingException e) {
+                return new ImportRow(line, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * CSV with a header row naming {@link BookCreateRequest} properties
+     * (case-insensitive). {@code genreIds} and {@code coAuthorIds} hold
+     * {@value #LIST_SEPARATOR}-separated ids; {@code publicationDate} is ISO-8601.
+     */
+    private static final class CsvRowSource implements RowSource {
+        private static final List<String> COLUMNS = List.of(
+            "title", "subtitle", "isbn", "publicationdate", "description", "status", "publisher", "genreids", "coauthorids");
+
+        private final CsvRecordReader reader;
+        private int[] columnOf;
+
+        CsvRowSource(BufferedReader reader) {
+            this.reader = new CsvRecordReader(reader);
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            if (columnOf == null) {
+                readHeader();
+            }
+            List<String> record;
+            do {
+                record = reader.next();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isBlank());
+            int line = reader.recordLine();
+            try {
+                BookCreateRequest request = new BookCreateRequest();
+                request.setTitle(field(record, 0));
+                request.setSubtitle(field(record, 1));
+                request.setIsbn(field(record, 2));
+                String date = field(record, 3);
+                request.setPublicationDate(date != null ? LocalDate.parse(date) : null);
+                request.setDescription(field(record, 4));
+                request.setStatus(field(record, 5));
+                request.setPublisher(field(record, 6));
+                request.setGenreIds(ids(field(record, 7)));
+                request.setCoAuthorIds(ids(field(record, 8)));
+                return new ImportRow(line, normalize(request), null);
+            } catch (RuntimeException e) {
+                return new ImportRow(line, null, "Unparseable row: " + e.getMessage());
+            }
+        }
+
+        private void readHeader() throws IOException {
+            List<String> header = reader.next();
+            if (header == null) {
+                columnOf = new int[0];
+                return;
+            }
+            columnOf = new int[COLUMNS.size()];
+            Arrays.fill(columnOf, -1);
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+                int column = COLUMNS.indexOf(name);
+                if (column < 0) {
+                    throw new IllegalArgumentException("Unknown CSV column: " + header.get(i));
+                }
+                columnOf[column] = i;
+            }
+            if (columnOf[0] < 0) {
+                throw new IllegalArgumentException("CSV header must include a title column");
+            }
+        }
+
+        private String field(List<String> record, int column) {
+            int index = columnOf[column];
+            return index >= 0 && index < record.size() && StringUtils.hasText(record.get(index))
+                ? record.get(index).trim()
+                : null;
+        }
+
+        private static List<Long> ids(String value) {
+            if (value == null) {
+                return null;
+            }
+            return Arrays.stream(value.split(LIST_SEPARATOR))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .map(Long::valueOf)
+                .toList();
+        }
+    }
+
+    /**
+     * Blank optional strings become null so they never collide on a unique column.
+     */
+    private static BookCreateRequest normalize(BookCreateRequest request) {
+        request.setSubtitle(StringUtils.hasText(request.getSubtitle()) ? request.getSubtitle() : null);
+        request.setIsbn(StringUtils.hasText(request.getIsbn()) ? request.getIsbn().trim() : null);
+        request.setStatus(StringUtils.hasText(request.getStatus()) ? request.getStatus() : null);
+        request.setPublisher(StringUtils.hasText(request.getPublisher()) ? request.getPublisher() : null);
+        return request;
+    }
+}
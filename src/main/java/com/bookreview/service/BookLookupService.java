@@ -0,0 +1,186 @@
+package com.bookreview.service;
+
+import com.bookreview.catalog.Isbn;
+import com.bookreview.dto.BookDTO;
+import com.bookreview.dto.IsbnResolution;
+import com.bookreview.dto.RankedBookDTO;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.search.BookSearchIndex;
+import com.bookreview.search.TitleMatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Forgiving book lookups: by ISBN in any common spelling, and by title with
+ * typos.
+ * <p>
+ * ISBNs resolve through {@code books.isbn_key}, the ISBN-13 form of either
+ * ISBN column, kept by the entity and the bulk importer; rows written before
+ * that column existed are filled in once the application is ready.
+ */
+@Service
+public class BookLookupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookLookupService.class);
+
+    public static final int MAX_RESOLVE_BATCH = 10_000;
+    private static final int QUERY_CHUNK_SIZE = 1000;
+    private static final int BACKFILL_CHUNK_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookService bookService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookLookupService(BookRepository bookRepository,
+                             BookSearchIndex bookSearchIndex,
+                             BookService bookService,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate) {
+        this.bookRepository = bookRepository;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookService = bookService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * One resolution per submitted ISBN, in order, from one indexed query per
+     * {@value #QUERY_CHUNK_SIZE} distinct ISBNs.
+     */
+    @Transactional(readOnly = true)
+    public List<IsbnResolution> resolveIsbns(List<String> isbns) {
+        if (isbns.size() > MAX_RESOLVE_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_RESOLVE_BATCH + " ISBNs per request");
+        }
+        List<String> keys = new ArrayList<>(isbns.size());
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String isbn : isbns) {
+            String key = Isbn.toIsbn13(isbn);
+            keys.add(key);
+            if (key != null) {
+                distinct.add(key);
+            }
+        }
+        Map<String, BookRepository.IsbnRow> books = new HashMap<>();
+        List<String> chunk = new ArrayList<>(QUERY_CHUNK_SIZE);
+        for (String key : distinct) {
+            chunk.add(key);
+            if (chunk.size() == QUERY_CHUNK_SIZE) {
+                collect(chunk, books);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            collect(chunk, books);
+        }
+
+        List<IsbnResolution> resolutions = new ArrayList<>(isbns.size());
+        for (int i = 0; i < isbns.size(); i++) {
+            BookRepository.IsbnRow book = keys.get(i) != null ? books.get(keys.get(i)) : null;
+            resolutions.add(new IsbnResolution(isbns.get(i), keys.get(i),
+                book != null ? book.getId() : null, book != null ? book.getTitle() : null));
+        }
+        return resolutions;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<BookDTO> findByIsbn(String isbn) {
+        String key = Isbn.toIsbn13(isbn);
+        if (key == null) {
+            return Optional.empty();
+        }
+        return bookRepository.findByIsbnKeys(List.of(key)).stream()
+            .findFirst()
+            .flatMap(row -> bookService.getBook(row.getId()));
+    }
+
+    /**
+     * Books whose title resembles {@code query}, scored by trigram
+     * similarity. Until the in-memory index is built only an exact title
+     * matches.
+     */
+    public List<RankedBookDTO> fuzzyTitleSearch(String query, int limit) {
+        List<TitleMatch> matches;
+        if (bookSearchIndex.isReady()) {
+            matches = bookSearchIndex.fuzzyTitleSearch(query, limit);
+        } else {
+            matches = bookRepository.findByTitle(query)
+                .map(book -> List.of(new TitleMatch(book.getId(), 1f)))
+                .orElse(List.of());
+        }
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BookDTO> books = bookService.getBooks(matches.stream().map(TitleMatch::bookId).toList()).stream()
+            .collect(Collectors.toMap(BookDTO::getId, Function.identity()));
+        List<RankedBookDTO> result = new ArrayList<>(matches.size());
+        for (TitleMatch match : matches) {
+            BookDTO book = books.get(match.bookId());
+            if (book != null) {
+                result.add(new RankedBookDTO(result.size() + 1, match.similarity(), book));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fill {@code isbn_key} for rows written before it was maintained, one
+     * short transaction per chunk. Rows without a valid ISBN stay null.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIsbnKeys() {
+        long afterId = 0;
+        long filled = 0;
+        while (true) {
+            long from = afterId;
+            List<Object[]> rows = jdbcTemplate.query(
+                "SELECT id, isbn, isbn_13 FROM books WHERE isbn_key IS NULL AND id > ? " +
+                "AND (isbn IS NOT NULL OR isbn_13 IS NOT NULL) ORDER BY id LIMIT ?",
+                (rs, i) -> new Object[] {rs.getLong(1), rs.getString(2), rs.getString(3)},
+                from, BACKFILL_CHUNK_SIZE);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Object[]> updates = new ArrayList<>();
+            for (Object[] row : rows) {
+                String key = Isbn.key((String) row[1], (String) row[2]);
+                if (key != null) {
+                    updates.add(new Object[] {key, row[0]});
+                }
+            }
+            if (!updates.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate("UPDATE books SET isbn_key = ? WHERE id = ?", updates));
+                filled += updates.size();
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        if (filled > 0) {
+            logger.info("Backfilled ISBN keys for {} books", filled);
+        }
+    }
+
+    private void collect(List<String> keys, Map<String, BookRepository.IsbnRow> books) {
+        for (BookRepository.IsbnRow row : bookRepository.findByIsbnKeys(keys)) {
+            books.putIfAbsent(row.getIsbnKey(), row);
+        }
+    }
+}
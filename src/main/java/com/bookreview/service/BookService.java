@@ -1,34 +1,63 @@
 package com.bookreview.service;
 
+import com.bookreview.catalog.BookChangedEvent;
+import com.bookreview.catalog.BookSnapshot;
+import com.bookreview.catalog.GenreCatalog;
 import com.bookreview.dto.BookDTO;
 import com.bookreview.dto.BookCreateRequest;
+import com.bookreview.dto.BookCursorSort;
+import com.bookreview.dto.CursorPage;
+import com.bookreview.dto.RatingHistogramDTO;
 import com.bookreview.entity.Book;
 import com.bookreview.entity.BookStatus;
 import com.bookreview.entity.User;
 import com.bookreview.entity.Genre;
 import com.bookreview.repository.BookRepository;
 import com.bookreview.repository.GenreRepository;
-import com.bookreview.repository.UserRepository;
 import com.bookreview.exception.BookAlreadyExistsException;
+import com.bookreview.search.BookSearchIndex;
+import com.bookreview.search.FullTextSearchSupport;
+import com.bookreview.search.SearchHits;
+import com.bookreview.search.SearchOperator;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.Collections;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookService {
+    private static final int DISPLAY_CHUNK_SIZE = 500;
+
     private final BookRepository bookRepository;
-    private final UserRepository userRepository;
+    private final UserResolver userResolver;
     private final GenreRepository genreRepository;
+    private final GenreCatalog genreCatalog;
+    private final FullTextSearchSupport fullTextSearchSupport;
+    private final BookSearchIndex bookSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Convert Book entity to BookDTO
@@ -45,6 +74,8 @@ public class BookService {
             .isbn(book.getIsbn())
             .publicationDate(book.getPublicationDate())
             .averageRating(book.getAverageRating())
+            .reviewCount(book.getReviewCount())
+            .ratingHistogram(book.getRatingHistogram())
             .description(book.getDescription())
             .status(book.getStatus())
             .publisher(book.getPublisher())
@@ -84,17 +115,13 @@ public class BookService {
 
         // Set genres if provided
         if (request.getGenreIds() != null && !request.getGenreIds().isEmpty()) {
-            Set<Genre> genres = request.getGenreIds().stream()
-                .map(id -> genreRepository.findById(id)
-                    .orElseThrow(() -> new EntityNotFoundException("Genre not found: " + id)))
-                .collect(Collectors.toSet());
-            book.setGenres(genres);
+            book.setGenres(resolveGenres(request.getGenreIds()));
         }
 
         // Set co-authors if provided
         if (request.getCoAuthorIds() != null && !request.getCoAuthorIds().isEmpty()) {
             Set<User> coAuthors = request.getCoAuthorIds().stream()
-                .map(id -> userRepository.findById(id)
+                .map(id -> userResolver.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException("User not found: " + id)))
                 .collect(Collectors.toSet());
             book.setCoAuthors(coAuthors);
@@ -103,6 +130,35 @@ public class BookService {
         return book;
     }
 
+    /**
+     * Genre ids known to the in-memory catalog become references without a
+     * query; ids it has not seen yet (written outside {@link GenreService})
+     * are checked with one batch lookup.
+     */
+    private Set<Genre> resolveGenres(List<Long> genreIds) {
+        Set<Genre> genres = new HashSet<>();
+        List<Long> unknown = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(genreIds)) {
+            if (genreCatalog.byId(id).isPresent()) {
+                genres.add(genreRepository.getReferenceById(id));
+            } else {
+                unknown.add(id);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            Map<Long, Genre> loaded = genreRepository.findAllById(unknown).stream()
+                .collect(Collectors.toMap(Genre::getId, genre -> genre));
+            for (Long id : unknown) {
+                Genre genre = loaded.get(id);
+                if (genre == null) {
+                    throw new EntityNotFoundException("Genre not found: " + id);
+                }
+                genres.add(genre);
+            }
+        }
+        return genres;
+    }
+
     /**
      * Apply partial updates from BookDTO to existing Book entity
      */
@@ -134,12 +190,45 @@ public class BookService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<BookDTO> getAllBooks() {
-        return bookRepository.findAll().stream()
-            .map(this::toDTO)
-            .collect(Collectors.toList());
+        return toDTOs(bookRepository.findAllIds());
+    }
+
+    /**
+     * Books for display in the order of {@code ids}; unknown ids are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<BookDTO> getBooks(List<Long> ids) {
+        return toDTOs(ids);
     }
 
+    /**
+     * Load books for display with their author, genres and co-authors in two
+     * fetch-join queries per chunk, preserving the order of {@code ids}.
+     * Must run inside a transaction so both passes share one persistence context.
+     */
+    private List<BookDTO> toDTOs(List<Long> ids) {
+        List<BookDTO> result = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += DISPLAY_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + DISPLAY_CHUNK_SIZE, ids.size()));
+            Map<Long, Book> booksById = bookRepository.findWithAuthorAndGenresByIdIn(chunk).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+            bookRepository.findWithCoAuthorsByIdIn(chunk);
+            chunk.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .map(this::toDTO)
+                .forEach(result::add);
+        }
+        return result;
+    }
+
+    private Page<BookDTO> toDTOPage(Page<Long> ids) {
+        return new PageImpl<>(toDTOs(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    @Transactional
     public BookDTO createBook(BookCreateRequest request, User author) {
         // Check if book already exists
         if (bookRepository.findByTitle(request.getTitle()).isPresent()) {
@@ -147,39 +236,63 @@ public class BookService {
         }
 
         Book book = fromCreateRequest(request, author);
-        Book savedBook = bookRepository.save(book);
+        Book savedBook = bookRepository.saveAndFlush(book);
+        fullTextSearchSupport.refreshBook(savedBook.getId());
+        eventPublisher.publishEvent(BookChangedEvent.created(BookSnapshot.of(savedBook)));
         return toDTO(savedBook);
     }
 
+    @Transactional(readOnly = true)
     public Optional<BookDTO> getBook(Long id) {
-        return bookRepository.findById(id).map(this::toDTO);
+        return toDTOs(List.of(id)).stream().findFirst();
+    }
+
+    /**
+     * Star distribution of a book's reviews, from the counters on its row.
+     */
+    @Transactional(readOnly = true)
+    public Optional<RatingHistogramDTO> getRatingHistogram(Long id) {
+        return bookRepository.findRatingHistogramById(id).map(BookService::toRatingHistogram);
+    }
+
+    static RatingHistogramDTO toRatingHistogram(BookRepository.RatingHistogramRow row) {
+        return new RatingHistogramDTO(
+            row.getId(),
+            row.getReviewCount() != null ? row.getReviewCount() : 0,
+            row.getAverageRating(),
+            Stream.of(row.getRating1Count(), row.getRating2Count(), row.getRating3Count(),
+                    row.getRating4Count(), row.getRating5Count())
+                .map(count -> count != null ? count : 0)
+                .toList());
     }
 
+    @Transactional(readOnly = true)
     public List<BookDTO> getBooksByStatus(BookStatus status) {
-        return bookRepository.findByStatus(status).stream()
-            .map(this::toDTO)
-            .collect(Collectors.toList());
+        return toDTOs(bookRepository.findIdsByStatus(status));
     }
 
+    @Transactional(readOnly = true)
     public List<BookDTO> getBooksByAuthor(User author) {
-        return bookRepository.findByAuthor(author).stream()
-            .map(this::toDTO)
-            .collect(Collectors.toList());
+        return toDTOs(bookRepository.findIdsByAuthor(author));
     }
 
+    @Transactional(readOnly = true)
     public List<BookDTO> getBooksByGenre(Genre genre) {
-        return bookRepository.findByGenresContaining(genre).stream()
-            .map(this::toDTO)
-            .collect(Collectors.toList());
+        return toDTOs(bookRepository.findIdsByGenre(genre));
     }
 
+    @Transactional
     public Optional<BookDTO> updateBook(Long id, BookDTO bookDTO) {
         return bookRepository.findById(id).map(book -> {
             updateBookFromDTO(book, bookDTO);
-            return toDTO(bookRepository.save(book));
+            Book savedBook = bookRepository.saveAndFlush(book);
+            fullTextSearchSupport.refreshBook(savedBook.getId());
+            eventPublisher.publishEvent(BookChangedEvent.updated(BookSnapshot.of(savedBook)));
+            return toDTO(savedBook);
         });
     }
 
+    @Transactional
     public void deleteBook(Long id, User currentUser) {
         Book book = bookRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Book not found: " + id));
@@ -189,25 +302,115 @@ public class BookService {
         }
         
         bookRepository.deleteById(id);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(id));
     }
 
+    @Transactional(readOnly = true)
     public Page<BookDTO> getAllBooks(Pageable pageable) {
-        return bookRepository.findAll(pageable).map(this::toDTO);
+        if (pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id"));
+        }
+        return toDTOPage(bookRepository.findIdPage(pageable));
+    }
+
+    /**
+     * Keyset pagination: each slice seeks past the last row of the previous one
+     * on an indexed (sort key, id) pair, so deep slices cost the same as the
+     * first and no count query is run.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<BookDTO> getBooksByCursor(BookCursorSort sort, String cursor, int size) {
+        KeysetCursor position = cursor != null ? KeysetCursor.decode(cursor, sort.name()) : null;
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<BookRepository.KeysetRow> rows = switch (sort) {
+            case NEWEST -> position == null
+                ? bookRepository.findNewest(limit)
+                : bookRepository.findNewestAfter(position.asDateTime(), position.id(), limit);
+            case TOP_RATED -> findTopRated(position, size + 1);
+        };
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+        String nextCursor = null;
+        if (hasNext) {
+            BookRepository.KeysetRow last = rows.get(rows.size() - 1);
+            Object key = sort == BookCursorSort.NEWEST ? last.getCreatedAt() : last.getAverageRating();
+            nextCursor = new KeysetCursor(sort.name(), key != null ? key.toString() : null, last.getId()).encode();
+        }
+        List<Long> ids = rows.stream().map(BookRepository.KeysetRow::getId).toList();
+        return new CursorPage<>(toDTOs(ids), nextCursor, hasNext);
+    }
+
+    /**
+     * Rated books first, then unrated ones; a cursor without a rating value is
+     * already in the unrated tail.
+     */
+    private List<BookRepository.KeysetRow> findTopRated(KeysetCursor position, int limit) {
+        List<BookRepository.KeysetRow> rows = new ArrayList<>();
+        long unratedAfterId = Long.MAX_VALUE;
+        Double rating = position != null ? position.asDouble() : null;
+        if (position == null) {
+            rows.addAll(bookRepository.findTopRated(PageRequest.ofSize(limit)));
+        } else if (rating != null) {
+            rows.addAll(bookRepository.findTopRatedAfter(rating, position.id(),
+                PageRequest.ofSize(limit)));
+        } else {
+            unratedAfterId = position.id();
+        }
+        if (rows.size() < limit) {
+            rows.addAll(bookRepository.findUnratedAfter(unratedAfterId, PageRequest.ofSize(limit - rows.size())));
+        }
+        return rows;
     }
 
+    /**
+     * Ranked full-text search on PostgreSQL: all supplied terms are matched against the
+     * weighted search vector. Other databases filter each field with LIKE instead.
+     */
+    @Transactional(readOnly = true)
     public Page<BookDTO> searchBooks(String title, String author, String genre, Pageable pageable) {
-        // TODO: Implement actual search logic based on criteria
-        return bookRepository.findAll(pageable).map(this::toDTO);
+        if (!StringUtils.hasText(title) && !StringUtils.hasText(author) && !StringUtils.hasText(genre)) {
+            return getAllBooks(pageable);
+        }
+        if (fullTextSearchSupport.isAvailable()) {
+            String query = Stream.of(title, author, genre)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.joining(" "));
+            return toDTOPage(bookRepository.searchIdsByVector(query, pageable));
+        }
+        return toDTOPage(bookRepository.searchIdsByFields(trimToNull(title), trimToNull(author), trimToNull(genre), pageable));
+    }
+
+    /**
+     * Free-text search served by the in-memory {@link BookSearchIndex}; only the
+     * matching page is loaded from the database, by primary key. Falls back to
+     * the database search while the index is still building or disabled.
+     */
+    @Transactional(readOnly = true)
+    public Page<BookDTO> searchBooks(String query, SearchOperator operator, Pageable pageable) {
+        if (!bookSearchIndex.isReady()) {
+            return searchBooks(query, null, null, pageable);
+        }
+        SearchHits hits = bookSearchIndex.search(query, operator, (int) pageable.getOffset(), pageable.getPageSize());
+        List<Long> ids = Arrays.stream(hits.getBookIds()).boxed().toList();
+        return new PageImpl<>(toDTOs(ids), pageable, hits.getTotalHits());
+    }
+
+    private static String trimToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
     }
 
+    @Transactional(readOnly = true)
     public List<BookDTO> getBooksByGenreId(Long genreId) {
         Genre genre = genreRepository.findById(genreId)
             .orElseThrow(() -> new EntityNotFoundException("Genre not found: " + genreId));
         return getBooksByGenre(genre);
     }
 
+    @Transactional(readOnly = true)
     public List<BookDTO> getBooksByAuthorId(Long authorId) {
-        User author = userRepository.findById(authorId)
+        User author = userResolver.findById(authorId)
             .orElseThrow(() -> new EntityNotFoundException("Author not found: " + authorId));
         return getBooksByAuthor(author);
     }
@@ -244,8 +447,6 @@ public class BookService {
     }
 
     public User getCurrentUser(java.security.Principal principal) {
-        String username = principal.getName();
-        return userRepository.findByUsername(username)
-            .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("User not found: " + username));
+        return userResolver.require(principal);
     }
 }
\ No newline at end of file
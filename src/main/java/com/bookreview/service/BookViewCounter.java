@@ -0,0 +1,146 @@
+package com.bookreview.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind counter for {@code books.view_count}.
+ * <p>
+ * Views are added to a per-book {@link LongAdder}, so the read path never
+ * touches the database. An increment and the retirement of an idle adder are
+ * both map computes on the book's key, so a view can never land in an adder
+ * that has already been dropped. A scheduled flush drains the
+ * adders into batched relative updates, in id order so concurrent flushers on
+ * other nodes lock rows in the same order. Each sub-batch commits on its own,
+ * so a failure requeues only views that were rolled back. A crash loses at
+ * most one flush interval of views; a graceful shutdown drains what is pending.
+ */
+@Component
+public class BookViewCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookViewCounter.class);
+
+    private static final String UPDATE_SQL = "UPDATE books SET view_count = COALESCE(view_count, 0) + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    /** Adders found empty by the previous flush; retired if still empty at the next one. */
+    private final Map<Long, LongAdder> idle = new ConcurrentHashMap<>();
+    private final int batchSize;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter flushedViews;
+    private final Counter failedFlushes;
+
+    public BookViewCounter(JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${bookreview.books.view-count.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.flushedViews = Counter.builder("bookreview.books.view_count.flushed")
+            .description("Book views written to the database")
+            .register(meterRegistry);
+        this.failedFlushes = Counter.builder("bookreview.books.view_count.failed_flushes")
+            .description("View count flushes that failed and were requeued")
+            .register(meterRegistry);
+        Gauge.builder("bookreview.books.view_count.pending_books", pending, Map::size)
+            .description("Books with a view counter awaiting flush")
+            .register(meterRegistry);
+    }
+
+    public void recordView(Long bookId) {
+        add(bookId, 1);
+    }
+
+    private void add(Long bookId, long views) {
+        pending.compute(bookId, (id, adder) -> {
+            LongAdder target = adder != null ? adder : new LongAdder();
+            target.add(views);
+            return target;
+        });
+    }
+
+    /**
+     * Write pending views to the database.
+     *
+     * @return the number of views written
+     */
+    @Scheduled(fixedDelayString = "${bookreview.books.view-count.flush-interval-ms:5000}",
+               initialDelayString = "${bookreview.books.view-count.flush-interval-ms:5000}")
+    public long flush() {
+        flushLock.lock();
+        try {
+            List<long[]> deltas = new ArrayList<>();
+            for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+                Long id = entry.getKey();
+                LongAdder adder = entry.getValue();
+                long views = adder.sumThenReset();
+                if (views > 0) {
+                    idle.remove(id);
+                    deltas.add(new long[]{views, id});
+                } else if (idle.remove(id, adder)) {
+                    // Atomic with add(): a view that arrived since the sum keeps the adder for the next flush.
+                    pending.computeIfPresent(id, (key, current) -> current == adder && current.sum() == 0 ? null : current);
+                } else {
+                    idle.put(id, adder);
+                }
+            }
+            if (deltas.isEmpty()) {
+                return 0;
+            }
+            deltas.sort(Comparator.comparingLong(delta -> delta[1]));
+
+            long written = 0;
+            for (int from = 0; from < deltas.size(); from += batchSize) {
+                List<long[]> batch = deltas.subList(from, Math.min(from + batchSize, deltas.size()));
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, delta) -> {
+                            ps.setLong(1, delta[0]);
+                            ps.setLong(2, delta[1]);
+                        }));
+                } catch (DataAccessException e) {
+                    failedFlushes.increment();
+                    logger.warn("Could not flush view counts for {} books; will retry", deltas.size() - from, e);
+                    deltas.subList(from, deltas.size()).forEach(delta -> add(delta[1], delta[0]));
+                    break;
+                }
+                for (long[] delta : batch) {
+                    written += delta[0];
+                }
+            }
+            flushedViews.increment(written);
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        long written = flush();
+        if (written > 0) {
+            logger.info("Flushed {} pending book views on shutdown", written);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.bookreview.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader: comma separated, double-quoted fields may contain
+ * commas, line breaks and doubled quotes. Tracks the physical line each
+ * record starts on for error reporting.
+ */
+final class CsvRecordReader {
+
+    private final Reader reader;
+    private int line = 1;
+    private int recordLine;
+    private int pushback = -2;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /** Line on which the record last returned by {@link #next()} started. */
+    int recordLine() {
+        return recordLine;
+    }
+
+    /**
+     * @return the next record, or null at end of input
+     */
+    List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int peek = read();
+                    if (peek == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(peek);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int peek = read();
+                    if (peek != '\n') {
+                        unread(peek);
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushback != -2) {
+            c = pushback;
+            pushback = -2;
+            return c;
+        }
+        c = reader.read();
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private void unread(int c) {
+        pushback = c;
+    }
+}
@@ -0,0 +1,92 @@
+package com.bookreview.service;
+
+import com.bookreview.dto.BookDTO;
+import com.bookreview.entity.Review;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.repository.ReviewRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole catalog as newline-delimited JSON. Rows come from a
+ * database cursor and the persistence context is cleared every
+ * {@value #CLEAR_INTERVAL} rows, so heap use does not grow with the catalog.
+ * Books stream only their ids; each chunk of {@value #CLEAR_INTERVAL} is then
+ * loaded with its author, genres and co-authors in two fetch-join queries,
+ * the same way the book listings load a page.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final int CLEAR_INTERVAL = 500;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BookRepository bookRepository;
+    private final ReviewRepository reviewRepository;
+    private final BookService bookService;
+    private final ReviewService reviewService;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public long exportBooks(OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        long count = 0;
+        try (Stream<Long> ids = bookRepository.streamAllIds()) {
+            List<Long> chunk = new ArrayList<>(CLEAR_INTERVAL);
+            Iterator<Long> it = ids.iterator();
+            while (it.hasNext()) {
+                chunk.add(it.next());
+                if (chunk.size() == CLEAR_INTERVAL || !it.hasNext()) {
+                    for (BookDTO book : bookService.getBooks(chunk)) {
+                        writeLine(buffered, book);
+                        count++;
+                    }
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+        buffered.flush();
+        return count;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportReviews(OutputStream out) throws IOException {
+        try (Stream<Review> reviews = reviewRepository.streamAllWithUser()) {
+            return writeNdjson(reviews, reviewService::toDTO, out);
+        }
+    }
+
+    private <E> long writeNdjson(Stream<E> rows, Function<E, ?> toDTO, OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        long count = 0;
+        Iterator<E> it = rows.iterator();
+        while (it.hasNext()) {
+            writeLine(buffered, toDTO.apply(it.next()));
+            if (++count % CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+        buffered.flush();
+        return count;
+    }
+
+    private void writeLine(OutputStream out, Object dto) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(dto));
+        out.write('\n');
+    }
+}
@@ -1,22 +1,29 @@
 package com.bookreview.service;
 
+import com.bookreview.catalog.GenreCatalog;
+import com.bookreview.catalog.GenreChangedEvent;
 import com.bookreview.entity.Genre;
 import com.bookreview.repository.GenreRepository;
 import com.bookreview.dto.GenreDTO;
 import com.bookreview.dto.GenreCreateRequest;
+import com.bookreview.search.FullTextSearchSupport;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class GenreService {
     private final GenreRepository genreRepository;
+    private final FullTextSearchSupport fullTextSearchSupport;
+    private final GenreCatalog genreCatalog;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional
     public GenreDTO createGenre(GenreCreateRequest request) {
         Genre genre = Genre.builder()
                 .name(request.getName())
@@ -24,66 +31,81 @@ public class GenreService {
                 .description(request.getDescription())
                 .isActive(request.getIsActive())
                 .build();
-        return toDTO(genreRepository.save(genre));
+        Genre saved = genreRepository.save(genre);
+        eventPublisher.publishEvent(new GenreChangedEvent(saved.getId()));
+        return toDTO(saved);
     }
 
     public List<GenreDTO> getAllGenres() {
-        return genreRepository.findAll().stream().map(this::toDTO).collect(Collectors.toList());
+        return genreCatalog.all();
+    }
+
+    /**
+     * {@link #getAllGenres()} already serialized as a JSON array.
+     */
+    public byte[] getAllGenresJson() {
+        return genreCatalog.allJson();
     }
 
     public Optional<GenreDTO> getGenre(Long id) {
-        return genreRepository.findById(id).map(this::toDTO);
+        return genreCatalog.byId(id);
     }
 
+    @Transactional
     public Optional<GenreDTO> updateGenre(Long id, GenreCreateRequest request) {
         return genreRepository.findById(id).map(genre -> {
+            boolean renamed = !genre.getName().equals(request.getName());
             genre.setName(request.getName());
             genre.setSlug(request.getSlug());
             genre.setDescription(request.getDescription());
             genre.setIsActive(request.getIsActive());
-            return toDTO(genreRepository.save(genre));
+            Genre saved = genreRepository.saveAndFlush(genre);
+            if (renamed) {
+                fullTextSearchSupport.refreshGenre(saved.getId());
+            }
+            eventPublisher.publishEvent(new GenreChangedEvent(saved.getId()));
+            return toDTO(saved);
         });
     }
 
+    @Transactional
     public boolean deleteGenre(Long id) {
         if (genreRepository.existsById(id)) {
             genreRepository.deleteById(id);
+            eventPublisher.publishEvent(new GenreChangedEvent(id));
             return true;
         }
         return false;
     }
 
-    @Transactional(readOnly = true)
     public List<GenreDTO> getActiveGenres() {
-        return genreRepository.findByIsActiveTrue()
-                .stream()
-                .map(this::toDTO)
-                .collect(java.util.stream.Collectors.toList());
+        return genreCatalog.active();
+    }
+
+    /**
+     * {@link #getActiveGenres()} already serialized as a JSON array.
+     */
+    public byte[] getActiveGenresJson() {
+        return genreCatalog.activeJson();
     }
 
-    @Transactional(readOnly = true)
     public Optional<GenreDTO> getGenreBySlug(String slug) {
-        return genreRepository.findBySlug(slug)
-                .map(this::toDTO);
+        return genreCatalog.bySlug(slug);
     }
 
+    @Transactional
     public boolean deactivateGenre(Long id) {
         return genreRepository.findById(id)
                 .map(genre -> {
                     genre.setIsActive(false);
                     genreRepository.save(genre);
+                    eventPublisher.publishEvent(new GenreChangedEvent(id));
                     return true;
                 })
                 .orElse(false);
     }
 
     private GenreDTO toDTO(Genre genre) {
-        return GenreDTO.builder()
-                .id(genre.getId())
-                .name(genre.getName())
-                .slug(genre.getSlug())
-                .description(genre.getDescription())
-                .isActive(genre.getIsActive())
-                .build();
+        return GenreCatalog.toDTO(genre);
     }
 }
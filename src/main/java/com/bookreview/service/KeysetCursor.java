@@ -0,0 +1,78 @@
+package com.bookreview.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page: the sort key value and the id
+ * that breaks ties. Serialized as an opaque URL-safe token that is bound to
+ * the listing it came from. Tokens come from clients, so the typed accessors
+ * reject a malformed sort key with {@link IllegalArgumentException} like the
+ * rest of the token.
+ */
+final class KeysetCursor {
+
+    private final String listing;
+    private final String value;
+    private final long id;
+
+    KeysetCursor(String listing, String value, long id) {
+        this.listing = listing;
+        this.value = value;
+        this.id = id;
+    }
+
+    /** Sort key of the last row, or null if that row had none. */
+    String value() {
+        return value;
+    }
+
+    /** Sort key as a timestamp; a listing keyed on one never writes a cursor without it. */
+    LocalDateTime asDateTime() {
+        if (value == null) {
+            throw new IllegalArgumentException("Invalid cursor: missing timestamp");
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: bad timestamp " + value, e);
+        }
+    }
+
+    /** Sort key as a number, or null if the last row had none. */
+    Double asDouble() {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: bad number " + value, e);
+        }
+    }
+
+    long id() {
+        return id;
+    }
+
+    String encode() {
+        String raw = listing + "|" + (value == null ? "" : value) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetCursor decode(String token, String expectedListing) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || !parts[0].equals(expectedListing)) {
+                throw new IllegalArgumentException("Cursor does not belong to this listing");
+            }
+            return new KeysetCursor(parts[0], parts[1].isEmpty() ? null : parts[1], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // also covers bad Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.bookreview.service;
+
+import com.bookreview.dto.BookDTO;
+import com.bookreview.dto.RankedBookDTO;
+import com.bookreview.ranking.BookLeaderboard;
+import com.bookreview.ranking.RankedBook;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the in-memory {@link BookLeaderboard} and hydrates the ranked ids
+ * into display DTOs.
+ */
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService {
+
+    private final BookLeaderboard bookLeaderboard;
+    private final BookService bookService;
+
+    public int getMaxLimit() {
+        return bookLeaderboard.getSize();
+    }
+
+    public List<RankedBookDTO> getTopBooks(int limit) {
+        return hydrate(bookLeaderboard.top(limit));
+    }
+
+    public List<RankedBookDTO> getTopBooksInGenre(long genreId, int limit) {
+        return hydrate(bookLeaderboard.topInGenre(genreId, limit));
+    }
+
+    private List<RankedBookDTO> hydrate(List<RankedBook> ranked) {
+        List<Long> ids = ranked.stream().map(RankedBook::bookId).toList();
+        Map<Long, BookDTO> books = bookService.getBooks(ids).stream()
+            .collect(Collectors.toMap(BookDTO::getId, Function.identity()));
+        List<RankedBookDTO> result = new ArrayList<>(ranked.size());
+        for (RankedBook entry : ranked) {
+            BookDTO book = books.get(entry.bookId());
+            if (book != null) {
+                result.add(new RankedBookDTO(result.size() + 1, entry.score(), book));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,64 @@
+package com.bookreview.service;
+
+import com.bookreview.dto.BookDTO;
+import com.bookreview.dto.RankedBookDTO;
+import com.bookreview.recommendation.BookRecommender;
+import com.bookreview.recommendation.ScoredBook;
+import com.bookreview.recommendation.SimilarBookIndex;
+import com.bookreview.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Hydrates neighbour lists from the in-memory recommendation structures
+ * into display DTOs.
+ */
+@Service
+@RequiredArgsConstructor
+public class RecommendationService {
+
+    public static final int MAX_LIMIT = 50;
+
+    private final BookRecommender bookRecommender;
+    private final SimilarBookIndex similarBookIndex;
+    private final BookService bookService;
+    private final BookRepository bookRepository;
+
+    /**
+     * "Readers who liked this also liked", or empty if the book does not exist.
+     */
+    public Optional<List<RankedBookDTO>> getRecommendations(Long bookId, int limit) {
+        return hydrate(bookId, bookRecommender.recommend(bookId, limit));
+    }
+
+    /**
+     * Books sharing genres, author or co-authors, or empty if the book does not exist.
+     */
+    public Optional<List<RankedBookDTO>> getSimilarBooks(Long bookId, int limit) {
+        return hydrate(bookId, similarBookIndex.similar(bookId, limit));
+    }
+
+    private Optional<List<RankedBookDTO>> hydrate(Long bookId, List<ScoredBook> neighbors) {
+        if (neighbors.isEmpty()) {
+            return bookRepository.existsById(bookId) ? Optional.of(List.of()) : Optional.empty();
+        }
+        List<Long> ids = neighbors.stream().map(ScoredBook::bookId).toList();
+        Map<Long, BookDTO> books = bookService.getBooks(ids).stream()
+            .collect(Collectors.toMap(BookDTO::getId, Function.identity()));
+        List<RankedBookDTO> result = new ArrayList<>(neighbors.size());
+        for (ScoredBook neighbor : neighbors) {
+            BookDTO book = books.get(neighbor.bookId());
+            if (book != null) {
+                result.add(new RankedBookDTO(result.size() + 1, neighbor.score(), book));
+            }
+        }
+        return Optional.of(result);
+    }
+}
@@ -0,0 +1,337 @@
+package com.bookreview.service;
+
+import com.bookreview.catalog.BookRatingChangedEvent;
+import com.bookreview.dto.RatingHistogramDTO;
+import com.bookreview.dto.ReviewBatchItem;
+import com.bookreview.dto.ReviewBatchResult;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.repository.ReviewRepository;
+import com.bookreview.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk review ingestion for partner uploads.
+ * <p>
+ * Works like {@link BookImportService}: the upload is split into chunks, one
+ * transaction each. Per chunk the reviewers and books are resolved with one
+ * query each, duplicates against {@code uk_user_book_review} are found with
+ * one query over the chunk's users and books, and the surviving reviews are
+ * written with a single JDBC batch insert whose generated keys give back the
+ * IDENTITY ids. Rating aggregates then move by one batched update per book
+ * rather than one per review.
+ */
+@Service
+public class ReviewBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewBatchService.class);
+
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    private static final String INSERT_REVIEW =
+        "INSERT INTO reviews (content, rating, title, helpful_count, not_helpful_count, is_active, is_featured, " +
+        "user_id, book_id, created_at, updated_at) VALUES (?, ?, ?, 0, 0, TRUE, FALSE, ?, ?, ?, ?)";
+    /** The batch form of {@link BookRepository#applyRatingDelta}. */
+    private static final String APPLY_RATINGS =
+        "UPDATE books SET " +
+        "review_count = COALESCE(review_count, 0) + ?, " +
+        "total_rating_sum = COALESCE(total_rating_sum, 0) + ?, " +
+        "rating_1_count = COALESCE(rating_1_count, 0) + ?, " +
+        "rating_2_count = COALESCE(rating_2_count, 0) + ?, " +
+        "rating_3_count = COALESCE(rating_3_count, 0) + ?, " +
+        "rating_4_count = COALESCE(rating_4_count, 0) + ?, " +
+        "rating_5_count = COALESCE(rating_5_count, 0) + ?, " +
+        "average_rating = CAST(COALESCE(total_rating_sum, 0) + ? AS DOUBLE PRECISION) / (COALESCE(review_count, 0) + ?) " +
+        "WHERE id = ?";
+
+    private final BookRepository bookRepository;
+    private final UserRepository userRepository;
+    private final ReviewRepository reviewRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public ReviewBatchService(BookRepository bookRepository,
+                              UserRepository userRepository,
+                              ReviewRepository reviewRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              Validator validator,
+                              @Value("${bookreview.reviews.batch.chunk-size:1000}") int chunkSize) {
+        this.bookRepository = bookRepository;
+        this.userRepository = userRepository;
+        this.reviewRepository = reviewRepository;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Create every acceptable review in {@code items}. Rejected items are
+     * reported with their index and do not hold back the rest of their chunk.
+     *
+     * @throws IllegalArgumentException if there are more than {@value #MAX_BATCH_SIZE} items
+     */
+    public ReviewBatchResult createReviews(List<ReviewBatchItem> items) {
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " reviews per batch");
+        }
+        long started = System.nanoTime();
+        List<BatchRow> rows = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            rows.add(new BatchRow(i, items.get(i)));
+        }
+        Set<Long> ratedBooks = new TreeSet<>();
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<BatchRow> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+            writeChunk(chunk);
+            for (BatchRow row : chunk) {
+                if (row.status == ReviewBatchResult.Status.CREATED) {
+                    ratedBooks.add(row.item.getBookId());
+                }
+            }
+        }
+
+        ReviewBatchResult result = new ReviewBatchResult();
+        result.setTotal(rows.size());
+        for (BatchRow row : rows) {
+            result.getItems().add(new ReviewBatchResult.ItemResult(row.index, row.status, row.reviewId, row.message));
+            if (row.status == ReviewBatchResult.Status.CREATED) {
+                result.setCreated(result.getCreated() + 1);
+            } else {
+                result.setFailed(result.getFailed() + 1);
+            }
+        }
+        result.setBooks(ratingSummaries(ratedBooks));
+        logger.info("Created {} of {} batched reviews in {} ms", result.getCreated(), result.getTotal(),
+            (System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    private void writeChunk(List<BatchRow> chunk) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                chunk.forEach(this::validate);
+                resolveUsers(chunk);
+                rejectMissingBooks(chunk);
+                rejectDuplicates(chunk);
+                List<BatchRow> accepted = chunk.stream().filter(row -> row.status == null).toList();
+                if (!accepted.isEmpty()) {
+                    insertReviews(accepted);
+                    applyRatings(accepted);
+                }
+            });
+        } catch (DataAccessException e) {
+            // A review the set-wise check could not see (a concurrent insert) rolls back the chunk.
+            logger.warn("Review batch chunk rolled back: {}", e.getMostSpecificCause().getMessage());
+            String message = "Chunk rolled back: " + e.getMostSpecificCause().getMessage();
+            for (BatchRow row : chunk) {
+                if (row.status == null || row.status == ReviewBatchResult.Status.CREATED) {
+                    row.reject(ReviewBatchResult.Status.FAILED, message);
+                    row.reviewId = null;
+                }
+            }
+            return;
+        }
+        for (BatchRow row : chunk) {
+            if (row.status == null) {
+                row.status = ReviewBatchResult.Status.CREATED;
+            }
+        }
+    }
+
+    private void validate(BatchRow row) {
+        if (row.item == null) {
+            row.reject(ReviewBatchResult.Status.INVALID, "Review is required");
+            return;
+        }
+        Set<ConstraintViolation<ReviewBatchItem>> violations = validator.validate(row.item);
+        if (!violations.isEmpty()) {
+            row.reject(ReviewBatchResult.Status.INVALID, violations.stream()
+                .map(ConstraintViolation::getMessage).sorted().distinct()
+                .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private void resolveUsers(List<BatchRow> chunk) {
+        Set<String> usernames = new HashSet<>();
+        for (BatchRow row : chunk) {
+            if (row.status == null) {
+                usernames.add(row.item.getUsername());
+            }
+        }
+        Map<String, Long> ids = new HashMap<>();
+        if (!usernames.isEmpty()) {
+            for (Object[] pair : userRepository.findIdsByUsernames(usernames)) {
+                ids.put((String) pair[0], (Long) pair[1]);
+            }
+        }
+        for (BatchRow row : chunk) {
+            if (row.status == null) {
+                row.userId = ids.get(row.item.getUsername());
+                if (row.userId == null) {
+                    row.reject(ReviewBatchResult.Status.USER_NOT_FOUND, "User not found: " + row.item.getUsername());
+                }
+            }
+        }
+    }
+
+    private void rejectMissingBooks(List<BatchRow> chunk) {
+        Set<Long> ids = new HashSet<>();
+        for (BatchRow row : chunk) {
+            if (row.status == null) {
+                ids.add(row.item.getBookId());
+            }
+        }
+        Set<Long> existing = ids.isEmpty() ? Set.of() : new HashSet<>(bookRepository.findExistingIds(ids));
+        for (BatchRow row : chunk) {
+            if (row.status == null && !existing.contains(row.item.getBookId())) {
+                row.reject(ReviewBatchResult.Status.BOOK_NOT_FOUND, "Book not found: " + row.item.getBookId());
+            }
+        }
+    }
+
+    /**
+     * One review per user and book: reject repeats within the chunk, then
+     * pairs already in the table. Earlier chunks are committed, so repeats
+     * across chunks are caught by the table check.
+     */
+    private void rejectDuplicates(List<BatchRow> chunk) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> bookIds = new HashSet<>();
+        Set<List<Long>> pairs = new HashSet<>();
+        for (BatchRow row : chunk) {
+            if (row.status != null) {
+                continue;
+            }
+            if (!pairs.add(List.of(row.userId, row.item.getBookId()))) {
+                row.reject(ReviewBatchResult.Status.DUPLICATE, "Duplicate review within batch");
+            } else {
+                userIds.add(row.userId);
+                bookIds.add(row.item.getBookId());
+            }
+        }
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Set<List<Long>> existing = new HashSet<>();
+        for (Object[] pair : reviewRepository.findUserBookPairs(userIds, bookIds)) {
+            existing.add(List.of((Long) pair[0], (Long) pair[1]));
+        }
+        for (BatchRow row : chunk) {
+            if (row.status == null && existing.contains(List.of(row.userId, row.item.getBookId()))) {
+                row.reject(ReviewBatchResult.Status.DUPLICATE, "User has already reviewed this book");
+            }
+        }
+    }
+
+    private void insertReviews(List<BatchRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_REVIEW, new String[] {"id"})) {
+                for (BatchRow row : rows) {
+                    statement.setString(1, row.item.getContent());
+                    statement.setInt(2, row.item.getRating());
+                    statement.setString(3, row.item.getTitle());
+                    statement.setLong(4, row.userId);
+                    statement.setLong(5, row.item.getBookId());
+                    statement.setTimestamp(6, now);
+                    statement.setTimestamp(7, now);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < rows.size()) {
+                        rows.get(i++).reviewId = keys.getLong(1);
+                    }
+                    if (i != rows.size()) {
+                        // A DataAccessException, so writeChunk rolls back and reports just this chunk.
+                        throw new DataRetrievalFailureException(
+                            "Driver returned " + i + " generated ids for " + rows.size() + " rows");
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Fold the chunk's ratings into one delta per book and apply them in book
+     * id order, so concurrent batches lock shared rows in the same order.
+     */
+    private void applyRatings(List<BatchRow> rows) {
+        Map<Long, long[]> deltas = new TreeMap<>();
+        for (BatchRow row : rows) {
+            long[] delta = deltas.computeIfAbsent(row.item.getBookId(), id -> new long[7]);
+            delta[0]++;
+            delta[1] += row.item.getRating();
+            delta[1 + row.item.getRating()]++;
+        }
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        deltas.forEach((bookId, delta) -> updates.add(new Object[] {
+            delta[0], delta[1], delta[2], delta[3], delta[4], delta[5], delta[6], delta[1], delta[0], bookId}));
+        jdbcTemplate.batchUpdate(APPLY_RATINGS, updates);
+        eventPublisher.publishEvent(new BookRatingChangedEvent(deltas.keySet()));
+    }
+
+    private List<RatingHistogramDTO> ratingSummaries(Set<Long> bookIds) {
+        List<RatingHistogramDTO> summaries = new ArrayList<>(bookIds.size());
+        List<Long> ids = new ArrayList<>(bookIds);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            bookRepository.findRatingHistogramsByIds(chunk).stream()
+                .map(BookService::toRatingHistogram)
+                .forEach(summaries::add);
+        }
+        return summaries;
+    }
+
+    private static final class BatchRow {
+        final int index;
+        final ReviewBatchItem item;
+        ReviewBatchResult.Status status;
+        String message;
+        Long userId;
+        Long reviewId;
+
+        BatchRow(int index, ReviewBatchItem item) {
+            this.index = index;
+            this.item = item;
+        }
+
+        void reject(ReviewBatchResult.Status status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.bookreview.service;
 
+import com.bookreview.catalog.BookRatingChangedEvent;
+import com.bookreview.dto.CursorPage;
 import com.bookreview.dto.ReviewDTO;
 import com.bookreview.entity.Review;
 import com.bookreview.entity.User;
@@ -8,9 +10,11 @@ import com.bookreview.repository.ReviewRepository;
 import com.bookreview.repository.BookRepository;
 import com.bookreview.dto.ReviewCreateRequest;
 import com.bookreview.dto.ReviewUpdateRequest;
-import com.bookreview.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.access.AccessDeniedException;
@@ -26,9 +30,10 @@ public class ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final BookRepository bookRepository;
-    private final UserRepository userRepository;
+    private final UserResolver userResolver;
+    private final ApplicationEventPublisher eventPublisher;
 
-    private ReviewDTO toDTO(Review review) {
+    public ReviewDTO toDTO(Review review) {
         return new ReviewDTO(
             review.getId(),
             review.getContent(),
@@ -37,7 +42,9 @@ public class ReviewService {
             review.getCreatedAt(),
             review.getUpdatedAt(),
             review.getUser() != null ? review.getUser().getUsername() : null,
-            review.getBook() != null ? review.getBook().getId() : null
+            review.getBook() != null ? review.getBook().getId() : null,
+            review.getHelpfulCount(),
+            review.getNotHelpfulCount()
         );
     }
 
@@ -63,16 +70,41 @@ public class ReviewService {
         return reviewRepository.findByBook(book).stream().map(this::toDTO).collect(Collectors.toList());
     }
 
+    /**
+     * Keyset-paginated reviews of a book, newest first. See {@link BookService#getBooksByCursor}.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ReviewDTO> getReviewsByBookIdCursor(Long bookId, String cursor, int size) {
+        if (!bookRepository.existsById(bookId)) {
+            throw new EntityNotFoundException("Book with id " + bookId + " does not exist");
+        }
+        String listing = "BOOK_REVIEWS:" + bookId;
+        KeysetCursor position = cursor != null ? KeysetCursor.decode(cursor, listing) : null;
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<Review> reviews = position == null
+            ? reviewRepository.findNewestByBookId(bookId, limit)
+            : reviewRepository.findNewestByBookIdAfter(bookId, position.asDateTime(), position.id(), limit);
+        boolean hasNext = reviews.size() > size;
+        if (hasNext) {
+            reviews = reviews.subList(0, size);
+        }
+        String nextCursor = null;
+        if (hasNext) {
+            Review last = reviews.get(reviews.size() - 1);
+            nextCursor = new KeysetCursor(listing, last.getCreatedAt().toString(), last.getId()).encode();
+        }
+        return new CursorPage<>(reviews.stream().map(this::toDTO).collect(Collectors.toList()), nextCursor, hasNext);
+    }
+
     public List<ReviewDTO> getReviewsByUserId(Long userId) {
-        User user = userRepository.findById(userId)
+        User user = userResolver.findById(userId)
             .orElseThrow(() -> new EntityNotFoundException("User with id " + userId + " does not exist"));
         return reviewRepository.findByUser(user).stream().map(this::toDTO).collect(Collectors.toList());
     }
 
+    @Transactional
     public ReviewDTO createReview(ReviewCreateRequest request, Principal principal) {
-        String username = principal.getName();
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+        User user = userResolver.require(principal);
         Book book = bookRepository.findById(request.getBookId())
             .orElseThrow(() -> new EntityNotFoundException("Book not found: " + request.getBookId()));
         if (reviewRepository.existsByUserAndBook(user, book)) {
@@ -84,28 +116,33 @@ public class ReviewService {
         review.setRating(request.getRating());
         review.setUser(user);
         review.setBook(book);
-        return toDTO(reviewRepository.save(review));
+        Review saved = reviewRepository.save(review);
+        applyRatingDelta(book.getId(), saved.getRating(), 0);
+        return toDTO(saved);
     }
 
+    @Transactional
     public Optional<ReviewDTO> updateReview(Long id, ReviewUpdateRequest request, Principal principal) {
-        String username = principal.getName();
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+        User user = userResolver.require(principal);
         return reviewRepository.findById(id).map(review -> {
             if (!review.getUser().getId().equals(user.getId())) {
                 throw new AccessDeniedException("You are not allowed to edit this review.");
             }
+            int previousRating = review.getRating();
             review.setTitle(request.getTitle());
             review.setContent(request.getContent());
             review.setRating(request.getRating());
-            return toDTO(reviewRepository.save(review));
+            Review saved = reviewRepository.save(review);
+            if (saved.getRating() != previousRating) {
+                applyRatingDelta(saved.getBook().getId(), saved.getRating(), previousRating);
+            }
+            return toDTO(saved);
         });
     }
 
+    @Transactional
     public boolean deleteReview(Long id, Principal principal) {
-        String username = principal.getName();
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+        User user = userResolver.require(principal);
         Optional<Review> reviewOpt = reviewRepository.findById(id);
         if (reviewOpt.isPresent()) {
             Review review = reviewOpt.get();
@@ -113,6 +150,7 @@ public class ReviewService {
                 throw new AccessDeniedException("You are not allowed to delete this review.");
             }
             reviewRepository.deleteById(id);
+            applyRatingDelta(review.getBook().getId(), 0, review.getRating());
             return true;
         }
         return false;
@@ -123,11 +161,23 @@ public class ReviewService {
         if (reviewRepository.existsByUserAndBook(review.getUser(), review.getBook())) {
             throw new IllegalStateException("User has already reviewed this book");
         }
-        return toDTO(reviewRepository.save(review));
+        Review saved = reviewRepository.save(review);
+        applyRatingDelta(saved.getBook().getId(), saved.getRating(), 0);
+        return toDTO(saved);
     }
 
     public boolean isReviewAuthor(Long reviewId, String username) {
         Optional<Review> reviewOpt = reviewRepository.findById(reviewId);
         return reviewOpt.isPresent() && reviewOpt.get().getUser().getUsername().equals(username);
     }
+
+    /**
+     * @param addedRating   rating entering the book's aggregates, or 0
+     * @param removedRating rating leaving them, or 0
+     */
+    private void applyRatingDelta(Long bookId, int addedRating, int removedRating) {
+        int countDelta = (addedRating > 0 ? 1 : 0) - (removedRating > 0 ? 1 : 0);
+        bookRepository.applyRatingDelta(bookId, countDelta, addedRating - removedRating, addedRating, removedRating);
+        eventPublisher.publishEvent(new BookRatingChangedEvent(bookId));
+    }
 }
@@ -0,0 +1,257 @@
+package com.bookreview.service;
+
+import com.bookreview.cache.LongByteMap;
+import com.bookreview.cache.TtlCache;
+import com.bookreview.entity.User;
+import com.bookreview.repository.ReviewRepository;
+import com.bookreview.repository.ReviewVoteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.Principal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Helpful/not-helpful voting on reviews.
+ * <p>
+ * Each review's voters are kept in a compact in-memory map (user id to
+ * direction), loaded with one query the first time the review is voted on,
+ * so a repeat vote is rejected without touching the database. The vote row
+ * itself is written straight away; its unique constraint settles races the
+ * in-memory check cannot see, such as votes taken on another node.
+ * <p>
+ * The counters on {@code reviews} are not written per vote. Deltas are
+ * merged per review in memory and flushed in batches, so a popular review
+ * costs one row update per flush interval rather than one per voter.
+ */
+@Service
+public class ReviewVoteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewVoteService.class);
+
+    private static final byte HELPFUL = 1;
+    private static final byte NOT_HELPFUL = -1;
+
+    private static final String INSERT_VOTE_SQL =
+        "INSERT INTO review_votes (review_id, user_id, helpful, created_at) VALUES (?, ?, ?, ?)";
+    private static final String CHANGE_VOTE_SQL =
+        "UPDATE review_votes SET helpful = ? WHERE review_id = ? AND user_id = ? AND helpful <> ?";
+    private static final String UPDATE_COUNTS_SQL =
+        "UPDATE reviews SET helpful_count = COALESCE(helpful_count, 0) + ?, " +
+        "not_helpful_count = COALESCE(not_helpful_count, 0) + ? WHERE id = ?";
+
+    public enum Outcome {
+        /** First vote by this user on the review. */
+        RECORDED,
+        /** The user's earlier vote was flipped. */
+        CHANGED,
+        /** The user had already cast this vote; nothing changed. */
+        UNCHANGED
+    }
+
+    private final ReviewRepository reviewRepository;
+    private final ReviewVoteRepository reviewVoteRepository;
+    private final UserResolver userResolver;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TtlCache<Long, Voters> voters;
+    private final Map<Long, Delta> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter recorded;
+    private final Counter changed;
+    private final Counter unchanged;
+
+    public ReviewVoteService(ReviewRepository reviewRepository,
+                             ReviewVoteRepository reviewVoteRepository,
+                             UserResolver userResolver,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${bookreview.reviews.votes.cache.ttl-seconds:600}") long ttlSeconds,
+                             @Value("${bookreview.reviews.votes.cache.max-size:10000}") int maxSize) {
+        this.reviewRepository = reviewRepository;
+        this.reviewVoteRepository = reviewVoteRepository;
+        this.userResolver = userResolver;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.voters = new TtlCache<>(TimeUnit.SECONDS.toNanos(ttlSeconds), maxSize);
+        this.recorded = votes(meterRegistry, "recorded");
+        this.changed = votes(meterRegistry, "changed");
+        this.unchanged = votes(meterRegistry, "unchanged");
+    }
+
+    private static Counter votes(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("bookreview.reviews.votes")
+            .description("Review helpfulness votes by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Record the caller's vote on a review, replacing an opposite earlier vote.
+     *
+     * @throws EntityNotFoundException if the review does not exist
+     * @throws IllegalArgumentException if the caller wrote the review
+     */
+    public Outcome vote(Long reviewId, boolean helpful, Principal principal) {
+        User user = userResolver.require(principal);
+        Voters reviewVoters = voters(reviewId);
+        if (reviewVoters.authorId == user.getId().longValue()) {
+            throw new IllegalArgumentException("You cannot vote on your own review");
+        }
+        byte wanted = helpful ? HELPFUL : NOT_HELPFUL;
+        byte previous;
+        synchronized (reviewVoters) {
+            previous = reviewVoters.votes.get(user.getId());
+            if (previous == wanted) {
+                unchanged.increment();
+                return Outcome.UNCHANGED;
+            }
+            reviewVoters.votes.put(user.getId(), wanted);
+        }
+
+        Outcome outcome;
+        try {
+            if (previous == 0) {
+                outcome = insertVote(reviewId, user.getId(), helpful);
+            } else {
+                outcome = changeVote(reviewId, user.getId(), helpful) ? Outcome.CHANGED : Outcome.UNCHANGED;
+            }
+        } catch (RuntimeException e) {
+            // The vote may not be stored; drop the in-memory view so a retry is not refused.
+            voters.invalidate(reviewId);
+            throw e;
+        }
+        if (outcome == Outcome.UNCHANGED) {
+            // The database disagreed with the in-memory view; reload it next time.
+            voters.invalidate(reviewId);
+            unchanged.increment();
+            return outcome;
+        }
+        if (outcome == Outcome.RECORDED) {
+            addDelta(reviewId, helpful ? new Delta(1, 0) : new Delta(0, 1));
+            recorded.increment();
+        } else {
+            addDelta(reviewId, helpful ? new Delta(1, -1) : new Delta(-1, 1));
+            changed.increment();
+        }
+        return outcome;
+    }
+
+    private Outcome insertVote(Long reviewId, Long userId, boolean helpful) {
+        try {
+            jdbcTemplate.update(INSERT_VOTE_SQL, reviewId, userId, helpful, Timestamp.valueOf(LocalDateTime.now()));
+            return Outcome.RECORDED;
+        } catch (DataIntegrityViolationException e) {
+            // Voted already (unseen by this node), or the review was deleted meanwhile.
+            return changeVote(reviewId, userId, helpful) ? Outcome.CHANGED : Outcome.UNCHANGED;
+        }
+    }
+
+    private boolean changeVote(Long reviewId, Long userId, boolean helpful) {
+        return jdbcTemplate.update(CHANGE_VOTE_SQL, helpful, reviewId, userId, helpful) == 1;
+    }
+
+    private Voters voters(Long reviewId) {
+        Voters cached = voters.get(reviewId);
+        if (cached != null) {
+            return cached;
+        }
+        Long authorId = reviewRepository.findAuthorIdById(reviewId)
+            .orElseThrow(() -> new EntityNotFoundException("Review not found"));
+        List<Object[]> rows = reviewVoteRepository.findVotesByReviewId(reviewId);
+        Voters loaded = new Voters(authorId, new LongByteMap(rows.size()));
+        for (Object[] row : rows) {
+            loaded.votes.put((Long) row[0], Boolean.TRUE.equals(row[1]) ? HELPFUL : NOT_HELPFUL);
+        }
+        voters.put(reviewId, loaded);
+        return loaded;
+    }
+
+    private void addDelta(Long reviewId, Delta delta) {
+        pending.merge(reviewId, delta, Delta::plus);
+    }
+
+    /**
+     * Write pending counter deltas to {@code reviews}.
+     *
+     * @return the number of reviews updated
+     */
+    @Scheduled(fixedDelayString = "${bookreview.reviews.votes.flush-interval-ms:5000}",
+               initialDelayString = "${bookreview.reviews.votes.flush-interval-ms:5000}")
+    public int flush() {
+        flushLock.lock();
+        try {
+            // Sorted so concurrent flushers on other nodes lock rows in the same order.
+            Map<Long, Delta> drained = new TreeMap<>();
+            for (Long reviewId : pending.keySet()) {
+                Delta delta = pending.remove(reviewId);
+                if (delta != null && !delta.isZero()) {
+                    drained.put(reviewId, delta);
+                }
+            }
+            if (drained.isEmpty()) {
+                return 0;
+            }
+            List<Object[]> args = new ArrayList<>(drained.size());
+            drained.forEach((reviewId, delta) -> args.add(new Object[]{delta.helpful, delta.notHelpful, reviewId}));
+            try {
+                // One transaction, so a failed batch leaves nothing applied and requeueing cannot double count.
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_COUNTS_SQL, args));
+            } catch (DataAccessException e) {
+                logger.warn("Could not flush vote counts for {} reviews; will retry", drained.size(), e);
+                drained.forEach(this::addDelta);
+                return 0;
+            }
+            return drained.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private static final class Voters {
+        private final long authorId;
+        /** Guarded by {@code this}. */
+        private final LongByteMap votes;
+
+        Voters(long authorId, LongByteMap votes) {
+            this.authorId = authorId;
+            this.votes = votes;
+        }
+    }
+
+    private record Delta(long helpful, long notHelpful) {
+
+        Delta plus(Delta other) {
+            return new Delta(helpful + other.helpful, notHelpful + other.notHelpful);
+        }
+
+        boolean isZero() {
+            return helpful == 0 && notHelpful == 0;
+        }
+    }
+}
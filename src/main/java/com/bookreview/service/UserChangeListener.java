@@ -0,0 +1,30 @@
+package com.bookreview.service;
+
+import com.bookreview.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA listener on {@link User} that evicts the row from {@link UserResolver}
+ * whenever Hibernate updates or deletes it, covering profile, role and lock
+ * changes alike. Bulk JPQL updates bypass entity listeners and must call
+ * {@link UserResolver#evict} themselves.
+ * <p>
+ * Instantiated by Hibernate through Spring's bean container; the resolver is
+ * looked up lazily because it depends on the entity manager being built.
+ */
+public class UserChangeListener {
+
+    private final ObjectProvider<UserResolver> userResolver;
+
+    public UserChangeListener(ObjectProvider<UserResolver> userResolver) {
+        this.userResolver = userResolver;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void onChange(User user) {
+        userResolver.ifAvailable(resolver -> resolver.evict(user.getId(), user.getUsername()));
+    }
+}
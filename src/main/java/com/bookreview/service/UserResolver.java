@@ -0,0 +1,219 @@
+package com.bookreview.service;
+
+import com.bookreview.cache.TtlCache;
+import com.bookreview.entity.User;
+import com.bookreview.models.UserRole;
+import com.bookreview.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.security.Principal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Resolves users by username or id through two layers: a map on the current
+ * HTTP request, so one request never loads the same user twice, and a shared
+ * bounded TTL cache keyed both ways.
+ * <p>
+ * Callers get a detached {@link User} carrying every column except the
+ * password, with empty association collections. It is fine as the target of a
+ * new association ({@code book.setAuthor(user)}) and for permission checks; it
+ * must not be modified and saved. Entries are evicted by {@link UserChangeListener}
+ * when a user row is updated or deleted.
+ */
+@Component
+public class UserResolver {
+
+    private static final String REQUEST_ATTRIBUTE = UserResolver.class.getName() + ".users";
+
+    private final UserRepository userRepository;
+    private final TtlCache<String, CachedUser> byUsername;
+    private final TtlCache<Long, CachedUser> byId;
+    /** Bumped by every eviction; loads that raced one are not cached. */
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter requestHits;
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserResolver(UserRepository userRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${bookreview.users.cache.ttl-seconds:300}") long ttlSeconds,
+                        @Value("${bookreview.users.cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.byUsername = new TtlCache<>(TimeUnit.SECONDS.toNanos(ttlSeconds), maxSize);
+        this.byId = new TtlCache<>(TimeUnit.SECONDS.toNanos(ttlSeconds), maxSize);
+        this.requestHits = resolutions(meterRegistry, "request");
+        this.hits = resolutions(meterRegistry, "hit");
+        this.misses = resolutions(meterRegistry, "miss");
+        Gauge.builder("bookreview.users.cache.size", byId, TtlCache::size)
+            .description("Users held in the shared resolution cache")
+            .register(meterRegistry);
+    }
+
+    private static Counter resolutions(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("bookreview.users.resolutions")
+            .description("User lookups by the layer that answered them")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    public Optional<User> findByUsername(String username) {
+        return resolve(username, () -> byUsername.get(username), () -> userRepository.findByUsername(username));
+    }
+
+    public Optional<User> findById(Long id) {
+        return resolve(id, () -> byId.get(id), () -> userRepository.findById(id));
+    }
+
+    /**
+     * The caller of the current request.
+     *
+     * @throws EntityNotFoundException if the principal has no user row
+     */
+    public User require(Principal principal) {
+        String username = principal.getName();
+        return findByUsername(username)
+            .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+    }
+
+    /**
+     * Drop a user from both layers, now and again once the surrounding
+     * transaction commits so no reader re-caches the pre-commit row.
+     */
+    public void evict(Long id, String username) {
+        evictNow(id, username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(id, username);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long id, String username) {
+        generation.incrementAndGet();
+        CachedUser cached = id != null ? byId.get(id) : null;
+        if (cached != null) {
+            byUsername.invalidate(cached.username());
+        }
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        if (username != null) {
+            byUsername.invalidate(username);
+        }
+        Map<Object, User> local = requestLocal();
+        if (local != null) {
+            local.clear();
+        }
+    }
+
+    private Optional<User> resolve(Object key, Supplier<CachedUser> cache, Supplier<Optional<User>> loader) {
+        Map<Object, User> local = requestLocal();
+        if (local != null) {
+            User user = local.get(key);
+            if (user != null) {
+                requestHits.increment();
+                return Optional.of(user);
+            }
+        }
+        CachedUser cached = cache.get();
+        if (cached != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            long before = generation.get();
+            Optional<User> loaded = loader.get();
+            if (loaded.isEmpty()) {
+                return Optional.empty();
+            }
+            cached = CachedUser.of(loaded.get());
+            if (generation.get() == before) {
+                byId.put(cached.id(), cached);
+                byUsername.put(cached.username(), cached);
+            }
+        }
+        User user = cached.toUser();
+        if (local != null) {
+            local.put(user.getId(), user);
+            local.put(user.getUsername(), user);
+        }
+        return Optional.of(user);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Object, User> requestLocal() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object local = attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (local == null) {
+            local = new HashMap<Object, User>();
+            attributes.setAttribute(REQUEST_ATTRIBUTE, local, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<Object, User>) local;
+    }
+
+    /**
+     * Immutable copy of the user columns; never shared as an entity.
+     */
+    record CachedUser(Long id, String username, String email, String firstName, String lastName,
+                      String biography, LocalDate birthDate, String nationality, String website,
+                      Boolean isActive, Boolean isVerified, Boolean isLocked, Integer failedLoginAttempts,
+                      LocalDateTime lastLoginAt, LocalDateTime passwordChangedAt, Set<UserRole> roles,
+                      LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static CachedUser of(User user) {
+            Set<UserRole> roles = user.getRoles().isEmpty() ? Set.of() : Set.copyOf(EnumSet.copyOf(user.getRoles()));
+            return new CachedUser(user.getId(), user.getUsername(), user.getEmail(), user.getFirstName(),
+                user.getLastName(), user.getBiography(), user.getBirthDate(), user.getNationality(),
+                user.getWebsite(), user.getIsActive(), user.getIsVerified(), user.getIsLocked(),
+                user.getFailedLoginAttempts(), user.getLastLoginAt(), user.getPasswordChangedAt(), roles,
+                user.getCreatedAt(), user.getUpdatedAt());
+        }
+
+        User toUser() {
+            User user = User.builder()
+                .id(id)
+                .username(username)
+                .email(email)
+                .firstName(firstName)
+                .lastName(lastName)
+                .biography(biography)
+                .birthDate(birthDate)
+                .nationality(nationality)
+                .website(website)
+                .isActive(isActive)
+                .isVerified(isVerified)
+                .isLocked(isLocked)
+                .failedLoginAttempts(failedLoginAttempts)
+                .lastLoginAt(lastLoginAt)
+                .passwordChangedAt(passwordChangedAt)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+            user.getRoles().addAll(roles);
+            return user;
+        }
+    }
+}
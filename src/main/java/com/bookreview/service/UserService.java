@@ -17,6 +17,7 @@ import java.util.Optional;
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserResolver userResolver;
 
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
@@ -50,7 +51,7 @@ public class UserService {
     }
 
     public Optional<UserDTO> getUserProfile(String username) {
-        return userRepository.findByUsername(username)
+        return userResolver.findByUsername(username)
                 .map(user -> new UserDTO(user.getId(), user.getUsername(), user.getEmail(), user.getFirstName(), user.getLastName()));
     }
 }
@@ -0,0 +1,4 @@
+-- Runs after Hibernate's schema update (spring.jpa.defer-datasource-initialization).
+-- search_vector is queried with @@, which a btree index cannot serve.
+DROP INDEX IF EXISTS idx_books_search;
+CREATE INDEX IF NOT EXISTS idx_books_search_vector ON books USING GIN (search_vector);
@@ -0,0 +1,32 @@
+package com.bookreview.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IsbnTest {
+
+    @Test
+    void normalizesBothFormsToIsbn13() {
+        assertEquals("9780306406157", Isbn.toIsbn13("0-306-40615-2"));
+        assertEquals("9780306406157", Isbn.toIsbn13("978-0-306-40615-7"));
+        assertEquals("9780306406157", Isbn.toIsbn13(" 978 0306406157 "));
+        assertEquals("9780804429573", Isbn.toIsbn13("0-8044-2957-x"));
+        assertEquals("9791034304509", Isbn.toIsbn13("979-10-343-0450-9"));
+
+        assertNull(Isbn.toIsbn13("0-306-40615-3"));
+        assertNull(Isbn.toIsbn13("978-0-306-40615-8"));
+        assertNull(Isbn.toIsbn13("X-306-40615-2"));
+        assertNull(Isbn.toIsbn13("1234567890123"));
+        assertNull(Isbn.toIsbn13("ISBN 0306406152"));
+        assertNull(Isbn.toIsbn13(null));
+    }
+
+    @Test
+    void prefersAValidIsbn13Column() {
+        assertEquals("9780198526636", Isbn.key("0-306-40615-2", "9780198526636"));
+        assertEquals("9780306406157", Isbn.key("0-306-40615-2", "not an isbn"));
+        assertNull(Isbn.key(null, null));
+    }
+}
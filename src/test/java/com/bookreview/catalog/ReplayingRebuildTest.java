@@ -0,0 +1,51 @@
+package com.bookreview.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReplayingRebuildTest {
+
+    private final ReplayingRebuild<List<String>, String> rebuild =
+        new ReplayingRebuild<>(new ArrayList<>(List.of("old")), List::add);
+
+    @Test
+    void replaysChangesCommittedDuringTheRebuild() {
+        rebuild.apply("before");
+        List<String> fresh = rebuild.rebuild(() -> {
+            // Committed after the loader read the catalog.
+            rebuild.apply("during");
+            return new ArrayList<>(List.of("loaded"));
+        });
+
+        assertEquals(List.of("loaded", "during"), fresh);
+        rebuild.apply("after");
+        assertEquals(List.of("loaded", "during", "after"), rebuild.read(List::copyOf));
+    }
+
+    @Test
+    void failedRebuildKeepsTheCurrentState() {
+        assertThrows(IllegalStateException.class, () -> rebuild.rebuild(() -> {
+            rebuild.apply("during");
+            throw new IllegalStateException("database down");
+        }));
+        rebuild.apply("after");
+        assertEquals(List.of("old", "during", "after"), rebuild.read(List::copyOf));
+
+        // Nothing is still recorded for the failed rebuild.
+        assertEquals(List.of("loaded"), rebuild.rebuild(() -> new ArrayList<>(List.of("loaded"))));
+    }
+
+    @Test
+    void buildsOnFirstUseOnlyWhenEmpty() {
+        ReplayingRebuild<List<String>, String> lazy = new ReplayingRebuild<>(null, List::add);
+        lazy.apply("dropped");
+        lazy.rebuildIfAbsent(() -> new ArrayList<>(List.of("built")));
+        lazy.rebuildIfAbsent(() -> new ArrayList<>(List.of("rebuilt")));
+        assertEquals(List.of("built"), lazy.read(List::copyOf));
+    }
+}
@@ -0,0 +1,68 @@
+package com.bookreview.controller;
+
+import com.bookreview.entity.Book;
+import com.bookreview.entity.User;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class CursorListingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long bookId;
+
+    @BeforeEach
+    void seed() {
+        User author = userRepository.save(User.builder().username("author").email("author@example.com").password("x").build());
+        bookId = bookRepository.save(Book.builder().title("Dune").author(author).build()).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"NEWEST||5", "NEWEST|yesterday|5", "TOP_RATED|high|5", "NEWEST|2024-01-01T00:00|x"})
+    void tamperedBookCursorIsBadRequest(String raw) throws Exception {
+        mockMvc.perform(get("/books/cursor").param("sort", raw.substring(0, raw.indexOf('|')))
+                .param("cursor", token(raw)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"||5", "|yesterday|5", "|2024-01-01T00:00|x"})
+    void tamperedReviewCursorIsBadRequest(String suffix) throws Exception {
+        mockMvc.perform(get("/reviews/book/{id}/cursor", bookId)
+                .param("cursor", token("BOOK_REVIEWS:" + bookId + suffix)))
+            .andExpect(status().isBadRequest());
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
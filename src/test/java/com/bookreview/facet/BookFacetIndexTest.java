@@ -0,0 +1,70 @@
+package com.bookreview.facet;
+
+import com.bookreview.catalog.BookChangedEvent;
+import com.bookreview.catalog.BookSnapshot;
+import com.bookreview.entity.BookStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookFacetIndexTest {
+
+    @Test
+    void filtersAndCountsFacets() {
+        BookFacetIndex index = new BookFacetIndex(null);
+        index.onBookChanged(BookChangedEvent.created(book(1, List.of(10L, 11L), "Orbit", 2020, "9.99")));
+        index.onBookChanged(BookChangedEvent.created(book(2, List.of(10L), "Orbit", 2021, "30")));
+        index.onBookChanged(BookChangedEvent.created(book(3, List.of(11L), "Tor", 2020, null)));
+        index.onBookChanged(BookChangedEvent.created(book(4, List.of(12L), "Tor", 2020, "12")));
+
+        BookFacetIndex.BrowseResult all = index.browse(Map.of(), 0, 10, 10);
+        assertEquals(List.of(1L, 2L, 3L, 4L), all.bookIds());
+        assertEquals(Map.of("10", 2L, "11", 2L, "12", 1L), all.counts().get(Facet.GENRE));
+        assertEquals(Map.of("0-10", 1L, "10-25", 1L, "25-50", 1L), all.counts().get(Facet.PRICE));
+
+        // Genres are ORed, facets ANDed; the genre counts ignore the genre selection.
+        BookFacetIndex.BrowseResult filtered = index.browse(
+            Map.of(Facet.GENRE, Set.of("10", "12"), Facet.YEAR, Set.of("2020")), 0, 1, 10);
+        assertEquals(2, filtered.total());
+        assertEquals(List.of(1L), filtered.bookIds());
+        assertTrue(filtered.hasNext());
+        assertEquals(Map.of("10", 1L, "11", 2L, "12", 1L), filtered.counts().get(Facet.GENRE));
+        assertEquals(Map.of("2020", 2L, "2021", 1L), filtered.counts().get(Facet.YEAR));
+        assertEquals(Map.of("Orbit", 1L, "Tor", 1L), filtered.counts().get(Facet.PUBLISHER));
+
+        BookFacetIndex.BrowseResult next = index.browse(
+            Map.of(Facet.GENRE, Set.of("10", "12"), Facet.YEAR, Set.of("2020")), 1, 1, 10);
+        assertEquals(List.of(4L), next.bookIds());
+        assertFalse(next.hasNext());
+
+        index.onBookChanged(BookChangedEvent.updated(book(4, List.of(10L), "Orbit", 2020, "12")));
+        index.onBookChanged(BookChangedEvent.deleted(1L));
+        BookFacetIndex.BrowseResult orbit = index.browse(Map.of(Facet.PUBLISHER, Set.of("Orbit")), 0, 10, 1);
+        assertEquals(List.of(2L, 4L), orbit.bookIds());
+        assertEquals(Map.of("10", 2L), orbit.counts().get(Facet.GENRE));
+        assertEquals(Map.of("PUBLISHED", 2L), orbit.counts().get(Facet.STATUS));
+        assertEquals(0, index.browse(Map.of(Facet.LANGUAGE, Set.of("fr")), 0, 10, 10).total());
+    }
+
+    private static BookSnapshot book(long id, List<Long> genreIds, String publisher, int year, String price) {
+        return BookSnapshot.builder()
+            .id(id)
+            .title("Book " + id)
+            .genreIds(genreIds)
+            .publisher(publisher)
+            .publicationDate(LocalDate.of(year, 1, 1))
+            .price(price != null ? new BigDecimal(price) : null)
+            .status(BookStatus.PUBLISHED)
+            .language("en")
+            .isFree(false)
+            .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.bookreview.facet;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IdBitmapTest {
+
+    @Test
+    void agreesWithATreeSetAcrossBothChunkLayouts() {
+        SplittableRandom random = new SplittableRandom(5);
+        IdBitmap dense = new IdBitmap();
+        IdBitmap sparse = new IdBitmap();
+        TreeSet<Integer> denseIds = new TreeSet<>();
+        TreeSet<Integer> sparseIds = new TreeSet<>();
+        // The first chunk of "dense" crosses the array/bitset threshold both ways.
+        for (int i = 0; i < 40_000; i++) {
+            int id = random.nextInt(70_000);
+            if (random.nextInt(4) == 0) {
+                dense.remove(id);
+                denseIds.remove(id);
+            } else {
+                dense.add(id);
+                denseIds.add(id);
+            }
+            int sparseId = random.nextInt(1_000_000);
+            sparse.add(sparseId);
+            sparseIds.add(sparseId);
+        }
+        assertEquals(denseIds.size(), dense.cardinality());
+        assertEquals(List.copyOf(denseIds), ids(dense, 0));
+        assertEquals(List.copyOf(sparseIds.tailSet(65_000)), ids(sparse, 65_000));
+
+        TreeSet<Integer> and = new TreeSet<>(denseIds);
+        and.retainAll(sparseIds);
+        TreeSet<Integer> or = new TreeSet<>(denseIds);
+        or.addAll(sparseIds);
+        assertEquals(List.copyOf(and), ids(dense.and(sparse), 0));
+        assertEquals(and.size(), dense.andCardinality(sparse));
+        assertEquals(and.size(), sparse.andCardinality(dense));
+        assertEquals(List.copyOf(or), ids(dense.or(sparse), 0));
+        assertEquals(denseIds.size(), dense.andCardinality(dense));
+
+        for (int id : denseIds) {
+            dense.remove(id);
+        }
+        assertEquals(0, dense.cardinality());
+        assertEquals(List.of(), ids(dense, 0));
+    }
+
+    private static List<Integer> ids(IdBitmap bitmap, int from) {
+        List<Integer> ids = new ArrayList<>();
+        bitmap.forEachFrom(from, id -> ids.add(id));
+        return ids;
+    }
+}
@@ -0,0 +1,105 @@
+package com.bookreview.ranking;
+
+import com.bookreview.dto.ReviewDTO;
+import com.bookreview.entity.Book;
+import com.bookreview.entity.Genre;
+import com.bookreview.entity.User;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.repository.GenreRepository;
+import com.bookreview.service.ReviewService;
+import com.bookreview.support.ReviewFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static com.bookreview.support.ReviewFixtures.as;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = {
+    "bookreview.leaderboard.size=2",
+    "bookreview.leaderboard.prior-weight=1"
+})
+@Import(ReviewFixtures.class)
+class BookLeaderboardTest {
+
+    @Autowired
+    private BookLeaderboard bookLeaderboard;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private GenreRepository genreRepository;
+    @Autowired
+    private ReviewFixtures fixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        fixtures.deleteAll();
+        genreRepository.deleteAll();
+    }
+
+    @Test
+    void followsReviewWritesAndSurvivesRebuild() {
+        User author = fixtures.user("ranker");
+        fixtures.users("r1", "r2", "r3");
+        Genre scifi = genreRepository.save(Genre.builder().name("SciFi").slug("scifi").build());
+        Book a = bookRepository.save(Book.builder().title("A").author(author).build());
+        Book b = bookRepository.save(Book.builder().title("B").author(author).build());
+        jdbcTemplate.update("INSERT INTO book_genres (book_id, genre_id) VALUES (?, ?), (?, ?)",
+            a.getId(), scifi.getId(), b.getId(), scifi.getId());
+        Book c = bookRepository.save(Book.builder().title("C").author(author).build());
+        // Empty catalog: prior mean 0, so score = ratingSum / (reviewCount + 1).
+        bookLeaderboard.rebuild();
+
+        fixtures.review(a, 5, "r1");
+        ReviewDTO b1 = fixtures.review(b, 4, "r1");
+        ReviewDTO b2 = fixtures.review(b, 4, "r2");
+        fixtures.review(c, 3, "r3");
+        assertEquals(List.of(b.getId(), a.getId()), ids(bookLeaderboard.top(10)));
+        assertEquals(List.of(b.getId(), a.getId()), ids(bookLeaderboard.topInGenre(scifi.getId(), 10)));
+
+        fixtures.review(a, 5, "r2");
+        assertEquals(List.of(a.getId(), b.getId()), ids(bookLeaderboard.top(2)));
+
+        reviewService.deleteReview(b1.getId(), as("r1"));
+        reviewService.deleteReview(b2.getId(), as("r2"));
+        assertEquals(List.of(a.getId(), c.getId()), ids(bookLeaderboard.top(2)));
+        assertEquals(List.of(a.getId()), ids(bookLeaderboard.topInGenre(scifi.getId(), 2)));
+
+        bookLeaderboard.rebuild();
+        assertEquals(List.of(a.getId(), c.getId()), ids(bookLeaderboard.top(2)));
+        assertEquals(List.of(a.getId()), ids(bookLeaderboard.topInGenre(scifi.getId(), 2)));
+        assertEquals(List.of(), bookLeaderboard.topInGenre(-1, 2));
+    }
+
+    @Test
+    void boardAsksForRefillOnceItCannotVouchForTheTop() {
+        TopKBoard board = new TopKBoard(2);
+        board.update(ranked(1, 5));
+        board.update(ranked(2, 4));
+        board.update(ranked(3, 3));
+        assertEquals(List.of(1L, 2L), ids(board.top(2)));
+
+        board.update(ranked(1, 1));
+        assertEquals(List.of(2L), ids(board.top(1)));
+        assertNull(board.top(2));
+    }
+
+    private static RankedBook ranked(long bookId, double score) {
+        return new RankedBook(bookId, 1, (long) score, new long[0], score);
+    }
+
+    private static List<Long> ids(List<RankedBook> books) {
+        return books.stream().map(RankedBook::bookId).toList();
+    }
+}
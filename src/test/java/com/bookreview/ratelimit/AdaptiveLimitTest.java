@@ -0,0 +1,58 @@
+package com.bookreview.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimitTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    void growsWhileLatencyHoldsAndShrinksWhenItClimbs() {
+        AdaptiveLimit limit = new AdaptiveLimit(20, 4, 200, 1.5);
+        for (int i = 0; i < 500; i++) {
+            limit.onSample(10 * MS, limit.limit());
+        }
+        assertEquals(200, limit.limit());
+
+        // The database slows down fivefold.
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(50 * MS, limit.limit());
+        }
+        int degraded = limit.limit();
+        assertTrue(degraded < 50, "limit " + degraded);
+
+        // It recovers, and so does the limit.
+        for (int i = 0; i < 500; i++) {
+            limit.onSample(10 * MS, limit.limit());
+        }
+        assertTrue(limit.limit() > degraded * 2, "limit " + limit.limit());
+    }
+
+    @Test
+    void doesNotGrowWhileMostOfTheLimitIsUnused() {
+        AdaptiveLimit limit = new AdaptiveLimit(20, 4, 200, 1.5);
+        for (int i = 0; i < 500; i++) {
+            limit.onSample(10 * MS, 3);
+        }
+        assertEquals(20, limit.limit());
+    }
+
+    @Test
+    void staysWithinItsBounds() {
+        assertEquals(16, new AdaptiveLimit(1_000, 4, 16, 1.5).limit());
+        assertEquals(4, new AdaptiveLimit(1, 4, 16, 1.5).limit());
+
+        AdaptiveLimit limit = new AdaptiveLimit(5, 4, 16, 1.5);
+        limit.onSample(MS, 5);
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(1_000 * MS, limit.limit());
+            assertTrue(limit.limit() >= 4, "limit " + limit.limit());
+        }
+        assertEquals(4, limit.limit());
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimit(10, 0, 16, 1.5));
+    }
+}
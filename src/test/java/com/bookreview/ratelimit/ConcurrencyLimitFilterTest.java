@@ -0,0 +1,85 @@
+package com.bookreview.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // A fixed limit of 10: bulk requests may fill 5 slots, normal ones 9, single-book reads all 10.
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(registry, true, 10, 10, 10, 1.5, 0.5, 0.9);
+
+    @Test
+    void shedsLowerLanesFirst() throws Exception {
+        List<String> outcomes = new ArrayList<>();
+        // Each admitted request issues the next one while still in flight.
+        List<String[]> requests = List.of(
+            new String[] {"GET", "/books/search"},
+            new String[] {"GET", "/books"},
+            new String[] {"POST", "/reviews/batch"},
+            new String[] {"GET", "/reviews/user/3"},
+            new String[] {"GET", "/admin/export/books"},
+            new String[] {"GET", "/books/browse"},
+            new String[] {"GET", "/genres"},
+            new String[] {"POST", "/reviews"},
+            new String[] {"GET", "/books/top"},
+            new String[] {"PUT", "/books/7"},
+            new String[] {"GET", "/genres/1"},
+            new String[] {"GET", "/books/7"},
+            new String[] {"GET", "/books/8/ratings"});
+        send(requests, 0, outcomes);
+
+        assertEquals(List.of(
+            "/books/search 200", "/books 200", "/reviews/batch 200", "/reviews/user/3 200", "/admin/export/books 200",
+            "/books/browse 503", "/genres 200", "/reviews 200", "/books/top 200", "/books/7 200",
+            "/genres/1 503", "/books/7 200", "/books/8/ratings 503"), outcomes);
+        assertEquals(1.0, registry.get("bookreview.concurrency.shed").tag("lane", "bulk").counter().count());
+        assertEquals(1.0, registry.get("bookreview.concurrency.shed").tag("lane", "normal").counter().count());
+        assertEquals(1.0, registry.get("bookreview.concurrency.shed").tag("lane", "point_read").counter().count());
+        assertEquals(0.0, registry.get("bookreview.concurrency.in_flight").gauge().value());
+    }
+
+    @Test
+    void answersShedRequestsWithRetryAfter() throws Exception {
+        ConcurrencyLimitFilter tiny = new ConcurrencyLimitFilter(new SimpleMeterRegistry(), true, 1, 1, 1, 1.5, 0.5, 0.9);
+        MockHttpServletResponse[] inner = new MockHttpServletResponse[1];
+        FilterChain chain = (request, response) -> {
+            inner[0] = new MockHttpServletResponse();
+            tiny.doFilter(new MockHttpServletRequest("GET", "/books/1"), inner[0], (req, res) -> { });
+        };
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        tiny.doFilter(new MockHttpServletRequest("GET", "/books/1"), outer, chain);
+
+        assertEquals(200, outer.getStatus());
+        assertEquals(503, inner[0].getStatus());
+        assertEquals("1", inner[0].getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    private void send(List<String[]> requests, int index, List<String> outcomes) throws ServletException, IOException {
+        if (index == requests.size()) {
+            return;
+        }
+        String[] next = requests.get(index);
+        MockHttpServletRequest request = new MockHttpServletRequest(next[0], next[1]);
+        request.setServletPath(next[1]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        int position = outcomes.size();
+        outcomes.add(null);
+        filter.doFilter(request, response, (req, res) -> send(requests, index + 1, outcomes));
+        outcomes.set(position, next[1] + " " + response.getStatus());
+        if (response.getStatus() == 503) {
+            send(requests, index + 1, outcomes);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.bookreview.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-request cost of the rate limit filter over 10,000 clients. Skipped by
+ * default; run with
+ * {@code mvn test -Dtest=RateLimitFilterBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RateLimitFilterBenchmarkTest {
+
+    @Test
+    void filterOverhead() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(new SimpleMeterRegistry(), true, 100_000,
+            1_000, 1_000, 1_000, 1_000, 1_000, 1_000);
+        int clients = 10_000;
+        MockHttpServletRequest[] requests = new MockHttpServletRequest[clients];
+        for (int i = 0; i < clients; i++) {
+            requests[i] = new MockHttpServletRequest("GET", "/books/search");
+            requests[i].setServletPath("/books/search");
+            requests[i].setRemoteAddr("10.0." + (i >> 8) + "." + (i & 255));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        int calls = 2_000_000;
+        long[] nanos = new long[calls / 1000];
+        for (int batch = 0; batch < nanos.length; batch++) {
+            long started = System.nanoTime();
+            for (int i = 0; i < 1000; i++) {
+                MockHttpServletRequest request = requests[(batch * 1000 + i) % clients];
+                request.removeAttribute(RateLimitFilter.class.getName() + ".FILTERED");
+                filter.doFilter(request, response, chain);
+                chain.reset();
+            }
+            nanos[batch] = (System.nanoTime() - started) / 1000;
+        }
+        // The first half warms up the JIT.
+        long[] measured = Arrays.copyOfRange(nanos, nanos.length / 2, nanos.length);
+        Arrays.sort(measured);
+        System.out.printf("per request: p50=%d ns p99=%d ns%n",
+            measured[measured.length / 2], measured[measured.length * 99 / 100]);
+        assertTrue(measured[measured.length / 2] > 0);
+    }
+}
@@ -0,0 +1,75 @@
+package com.bookreview.ratelimit;
+
+import com.bookreview.security.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RateLimitFilter filter = new RateLimitFilter(registry, true, 100, 2, 0.001, 5, 0.001, 1, 0.001);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void limitsEachClientPerRouteGroup() throws Exception {
+        MockHttpServletResponse first = get("/books", "10.0.0.1");
+        assertEquals(200, first.getStatus());
+        assertEquals("2", first.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("1", first.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertEquals(200, get("/books/search", "10.0.0.1").getStatus());
+
+        MockHttpServletResponse rejected = get("/books/1", "10.0.0.1");
+        assertEquals(429, rejected.getStatus());
+        assertEquals("0", rejected.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertNotNull(rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, registry.get("bookreview.ratelimit.rejected").tag("group", "books").counter().count());
+
+        // Other clients, other groups and unlimited paths are unaffected.
+        assertEquals(200, get("/books", "10.0.0.2").getStatus());
+        assertEquals(200, get("/reviews/1", "10.0.0.1").getStatus());
+        assertEquals(200, get("/bookshelf", "10.0.0.1").getStatus());
+        assertNull(get("/genres", "10.0.0.1").getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals(200, get("/auth/login", "10.0.0.1").getStatus());
+        assertEquals(429, get("/users/register", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void keysSignedInClientsByUserRatherThanAddress() throws Exception {
+        AuthenticatedUser user = new AuthenticatedUser(42L, "reader", null, List.of("READER"));
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        assertEquals(200, get("/books", "10.0.0.1").getStatus());
+        assertEquals(200, get("/books", "10.0.0.2").getStatus());
+        assertEquals(429, get("/books", "10.0.0.3").getStatus());
+
+        SecurityContextHolder.clearContext();
+        assertEquals(200, get("/books", "10.0.0.3").getStatus());
+    }
+
+    private MockHttpServletResponse get(String path, String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,74 @@
+package com.bookreview.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    @Test
+    void spendsTheBurstThenRefillsAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(TokenBucket.Limit.of(3, 2), 1);
+
+        assertEquals(2000, bucket.tryAcquire(1));
+        assertEquals(1000, bucket.tryAcquire(1));
+        assertEquals(0, bucket.tryAcquire(1));
+        assertEquals(-1, bucket.tryAcquire(1));
+
+        // Two tokens a second: one every 500 ms.
+        assertTrue(bucket.tryAcquire(400) < 0);
+        assertEquals(0, bucket.tryAcquire(501));
+        assertFalse(bucket.isFull(1000));
+        assertTrue(bucket.isFull(2001));
+        assertEquals(2000, bucket.tryAcquire(10_000));
+    }
+
+    @Test
+    void accumulatesSlowRatesAcrossFrequentCalls() {
+        // One token every five seconds, probed every millisecond.
+        TokenBucket bucket = new TokenBucket(TokenBucket.Limit.of(1, 0.2), 1);
+        assertEquals(0, bucket.tryAcquire(1));
+        int acquired = 0;
+        for (long now = 2; now <= 20_001; now++) {
+            if (bucket.tryAcquire(now) >= 0) {
+                acquired++;
+            }
+        }
+        assertEquals(4, acquired);
+    }
+
+    @Test
+    void neverGrantsMoreThanTheBalanceUnderContention() throws Exception {
+        TokenBucket bucket = new TokenBucket(TokenBucket.Limit.of(1000, 0.001), 1);
+        AtomicInteger acquired = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire(1) >= 0) {
+                        acquired.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1000, acquired.get());
+    }
+
+    @Test
+    void rejectsLimitsThatDoNotFitThePackedState() {
+        assertThrows(IllegalArgumentException.class, () -> TokenBucket.Limit.of(TokenBucket.MAX_CAPACITY + 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> TokenBucket.Limit.of(10, 0));
+    }
+}
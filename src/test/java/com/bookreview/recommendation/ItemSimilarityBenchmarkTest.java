@@ -0,0 +1,85 @@
+package com.bookreview.recommendation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Build time and memory of the recommendation model on synthetic data.
+ * Skipped by default; run with
+ * {@code mvn test -Dtest=ItemSimilarityBenchmarkTest -Dbenchmark=true}
+ * and optionally {@code -Dbenchmark.reviews=... -Dbenchmark.books=... -Dbenchmark.users=...}.
+ * Needs a few GB of heap at the default 10M reviews.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ItemSimilarityBenchmarkTest {
+
+    @Test
+    void buildOnSyntheticReviews() {
+        int reviews = Integer.getInteger("benchmark.reviews", 10_000_000);
+        int books = Integer.getInteger("benchmark.books", 200_000);
+        int users = Integer.getInteger("benchmark.users", 1_000_000);
+        int parallelism = Integer.getInteger("benchmark.parallelism", Runtime.getRuntime().availableProcessors());
+
+        RatingLog log = syntheticReviews(reviews, books, users);
+        long heapBefore = usedHeap();
+        long started = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        ItemSimilarityModel model;
+        try {
+            model = new ItemSimilarityBuilder(20, 2).build(log, pool);
+        } finally {
+            pool.shutdown();
+        }
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+        long heapAfter = usedHeap();
+
+        long lookups = 1_000_000;
+        SplittableRandom random = new SplittableRandom(7);
+        long sink = 0;
+        long lookupStarted = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            sink += model.neighbors(1 + random.nextInt(books), 10).size();
+        }
+        long lookupNanos = (System.nanoTime() - lookupStarted) / lookups;
+
+        System.out.printf("reviews=%d books=%d users=%d parallelism=%d%n", log.size(), books, users, parallelism);
+        System.out.printf("build=%d ms, model=%d books / %d links, model arrays ~%d MB, retained heap delta ~%d MB%n",
+            buildMillis, model.getBooks(), model.getNeighborLinks(), model.getEstimatedBytes() >> 20,
+            (heapAfter - heapBefore) >> 20);
+        System.out.printf("lookup=%d ns/op (%d results)%n", lookupNanos, sink);
+        assertTrue(model.getBooks() > 0);
+    }
+
+    /**
+     * Popularity-skewed reviews: a few books and a few readers account for
+     * most of them, as in real catalogs.
+     */
+    private static RatingLog syntheticReviews(int reviews, int books, int users) {
+        SplittableRandom random = new SplittableRandom(42);
+        RatingLog log = new RatingLog(reviews);
+        for (int i = 0; i < reviews; i++) {
+            long user = 1 + skewed(random, users);
+            long book = 1 + skewed(random, books);
+            // Readers lean towards books near their own "taste" bucket.
+            int rating = Math.abs((user % 50) - (book % 50)) < 10 ? 4 + random.nextInt(2) : 1 + random.nextInt(4);
+            log.add(user, book, rating);
+        }
+        return log;
+    }
+
+    private static int skewed(SplittableRandom random, int bound) {
+        double u = random.nextDouble();
+        return (int) (bound * u * u);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,62 @@
+package com.bookreview.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemSimilarityBuilderTest {
+
+    private static final long A = 10, B = 20, C = 30, D = 40;
+
+    @Test
+    void recommendsBooksLikedByTheSameReaders() {
+        RatingLog log = new RatingLog(0);
+        rate(log, 1, A, 5, B, 5, C, 1);
+        rate(log, 2, A, 4, B, 5, C, 2);
+        rate(log, 3, A, 5, B, 4, D, 3);
+        rate(log, 4, C, 5, D, 4, A, 1);
+
+        ItemSimilarityModel model = new ItemSimilarityBuilder(5, 2).build(log, ForkJoinPool.commonPool());
+
+        assertEquals(4, model.getBooks());
+        assertEquals(List.of(B), ids(model.neighbors(A, 10)));
+        assertEquals(List.of(A), ids(model.neighbors(B, 10)));
+        // C and D share only one reader, below the two required.
+        assertEquals(List.of(), model.neighbors(C, 10));
+        assertEquals(List.of(), model.neighbors(99, 10));
+        assertTrue(model.neighbors(A, 10).get(0).score() > 0);
+        assertEquals(List.of(), model.neighbors(A, 0));
+    }
+
+    @Test
+    void keepsOnlyTheBestNeighbors() {
+        RatingLog log = new RatingLog(0);
+        // Every reader rates book 1 high and books 2..6 in increasing agreement with it.
+        for (long user = 1; user <= 20; user++) {
+            log.add(user, 1, user % 2 == 0 ? 5 : 1);
+            for (long book = 2; book <= 6; book++) {
+                boolean agrees = user % 7 < book;
+                log.add(user, book, agrees == (user % 2 == 0) ? 5 : 1);
+            }
+        }
+        ItemSimilarityModel model = new ItemSimilarityBuilder(2, 2).build(log, ForkJoinPool.commonPool());
+
+        List<ScoredBook> neighbors = model.neighbors(1, 10);
+        assertEquals(List.of(6L, 5L), ids(neighbors));
+        assertTrue(neighbors.get(0).score() >= neighbors.get(1).score());
+    }
+
+    private static void rate(RatingLog log, long user, long... bookAndRating) {
+        for (int i = 0; i < bookAndRating.length; i += 2) {
+            log.add(user, bookAndRating[i], (int) bookAndRating[i + 1]);
+        }
+    }
+
+    private static List<Long> ids(List<ScoredBook> books) {
+        return books.stream().map(ScoredBook::bookId).toList();
+    }
+}
@@ -0,0 +1,67 @@
+package com.bookreview.recommendation;
+
+import com.bookreview.catalog.BookChangedEvent;
+import com.bookreview.catalog.BookSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimilarBookIndexTest {
+
+    private final SimilarBookIndex index = new SimilarBookIndex(null, 16, 2, 100);
+
+    @Test
+    void findsBooksSharingGenresAndPeople() {
+        index.onBookChanged(BookChangedEvent.created(book(1, 100, List.of(1L, 2L, 3L), List.of(200L))));
+        index.onBookChanged(BookChangedEvent.created(book(2, 100, List.of(1L, 2L, 3L), List.of(200L))));
+        index.onBookChanged(BookChangedEvent.created(book(3, 100, List.of(1L, 2L, 3L), List.of())));
+        index.onBookChanged(BookChangedEvent.created(book(4, 300, List.of(7L, 8L), List.of())));
+
+        List<ScoredBook> similar = index.similar(1, 10);
+        assertEquals(2L, similar.get(0).bookId());
+        assertEquals(1.0, similar.get(0).score());
+        assertEquals(3L, similar.get(1).bookId());
+        assertTrue(similar.stream().noneMatch(book -> book.bookId() == 4L || book.bookId() == 1L));
+        assertEquals(1, index.similar(1, 1).size());
+        assertEquals(List.of(), index.similar(99, 10));
+    }
+
+    @Test
+    void followsGenreChangesAndDeletes() {
+        index.onBookChanged(BookChangedEvent.created(book(1, 100, List.of(1L, 2L), List.of())));
+        index.onBookChanged(BookChangedEvent.created(book(2, 100, List.of(1L, 2L), List.of())));
+        assertEquals(List.of(2L), ids(index.similar(1, 10)));
+
+        index.onBookChanged(BookChangedEvent.updated(book(2, 500, List.of(9L), List.of())));
+        assertEquals(List.of(), index.similar(1, 10));
+
+        index.onBookChanged(BookChangedEvent.updated(book(2, 100, List.of(1L, 2L), List.of())));
+        assertEquals(List.of(2L), ids(index.similar(1, 10)));
+        index.onBookChanged(BookChangedEvent.deleted(2L));
+        assertEquals(List.of(), index.similar(1, 10));
+    }
+
+    @Test
+    void jaccardOfSortedSets() {
+        assertEquals(0.5, SimilarBookIndex.jaccard(new long[]{1, 2, 3}, new long[]{2, 3, 4}));
+        assertEquals(0.0, SimilarBookIndex.jaccard(new long[]{1}, new long[]{2}));
+    }
+
+    private static BookSnapshot book(long id, long authorId, List<Long> genreIds, List<Long> coAuthorIds) {
+        return BookSnapshot.builder()
+            .id(id)
+            .title("Book " + id)
+            .genreNames(List.of())
+            .genreIds(genreIds)
+            .authorId(authorId)
+            .coAuthorIds(coAuthorIds)
+            .build();
+    }
+
+    private static List<Long> ids(List<ScoredBook> books) {
+        return books.stream().map(ScoredBook::bookId).toList();
+    }
+}
@@ -0,0 +1,80 @@
+package com.bookreview.search;
+
+import com.bookreview.catalog.BookChangedEvent;
+import com.bookreview.catalog.BookSnapshot;
+import com.bookreview.dto.SuggestionDTO;
+import com.bookreview.entity.Book;
+import com.bookreview.entity.User;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "bookreview.suggest.review-weight=10")
+class BookSuggesterTest {
+
+    @Autowired
+    private BookSuggester bookSuggester;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+        bookSuggester.rebuild();
+    }
+
+    @Test
+    void ranksByPopularityAndFollowsChanges() {
+        User tolkien = userRepository.save(User.builder().username("Tolkien").email("jrr@example.com").password("x").build());
+        User rowling = userRepository.save(User.builder().username("rowling").email("jk@example.com").password("x").build());
+        Book hobbit = bookRepository.save(Book.builder().title("The Hobbit").author(tolkien)
+            .viewCount(100L).reviewCount(0).build());
+        Book potter = bookRepository.save(Book.builder().title("Harry Potter").subtitle("The Philosopher's Stone")
+            .author(rowling).viewCount(50L).reviewCount(10).build());
+        bookSuggester.rebuild();
+
+        // Potter weighs 50 + 10 * 10 = 150; it matches by subtitle only.
+        assertEquals(List.of(
+                new SuggestionDTO("The Philosopher's Stone", "SUBTITLE", potter.getId(), null),
+                new SuggestionDTO("The Hobbit", "TITLE", hobbit.getId(), null)),
+            bookSuggester.suggest("the", 10));
+        assertEquals(List.of(new SuggestionDTO("Tolkien", "AUTHOR", null, tolkien.getId())),
+            bookSuggester.suggest("TOL", 10));
+        assertEquals(1, bookSuggester.suggest("the", 1).size());
+        Book potterTwo = bookRepository.save(Book.builder().title("Harry Potter 2").subtitle("Harry Potter 2")
+            .author(rowling).build());
+        bookSuggester.rebuild();
+        assertEquals(List.of(
+                new SuggestionDTO("Harry Potter", "TITLE", potter.getId(), null),
+                new SuggestionDTO("Harry Potter 2", "TITLE", potterTwo.getId(), null)),
+            bookSuggester.suggest("harry", 10));
+        assertEquals(List.of(), bookSuggester.suggest("  ", 10));
+
+        hobbit.setTitle("The Hobbit, or There and Back Again");
+        bookSuggester.onBookChanged(BookChangedEvent.updated(BookSnapshot.of(hobbit)));
+        Book silmarillion = bookRepository.save(Book.builder().title("The Silmarillion").author(tolkien).build());
+        bookSuggester.onBookChanged(BookChangedEvent.created(BookSnapshot.of(silmarillion)));
+        bookSuggester.onBookChanged(BookChangedEvent.deleted(potter.getId()));
+
+        assertEquals(List.of(
+                new SuggestionDTO("The Hobbit, or There and Back Again", "TITLE", hobbit.getId(), null),
+                new SuggestionDTO("The Silmarillion", "TITLE", silmarillion.getId(), null)),
+            bookSuggester.suggest("the", 10));
+        assertEquals(List.of(hobbit.getId()), bookIds(bookSuggester.suggest("back ag", 10)));
+        assertEquals(List.of(potterTwo.getId()), bookIds(bookSuggester.suggest("harry", 10)));
+    }
+
+    private static List<Long> bookIds(List<SuggestionDTO> suggestions) {
+        return suggestions.stream().map(SuggestionDTO::getBookId).toList();
+    }
+}
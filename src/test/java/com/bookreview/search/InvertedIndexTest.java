@@ -0,0 +1,60 @@
+package com.bookreview.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+    @Test
+    void ranksConjunctionAndDisjunctionAndHonoursUpdates() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, document("dune desert planet"));
+        index.put(2, document("desert survival guide"));
+        index.put(3, document("planet earth"));
+
+        SearchHits and = index.search(List.of("desert", "planet"), SearchOperator.AND, 0, 10);
+        assertEquals(1, and.getTotalHits());
+        assertArrayEquals(new long[]{1}, and.getBookIds());
+
+        SearchHits or = index.search(List.of("desert", "planet"), SearchOperator.OR, 0, 10);
+        assertEquals(3, or.getTotalHits());
+        assertEquals(1, or.getBookIds()[0]);
+
+        SearchHits secondPage = index.search(List.of("desert", "planet"), SearchOperator.OR, 1, 1);
+        assertEquals(3, secondPage.getTotalHits());
+        assertEquals(1, secondPage.getBookIds().length);
+
+        index.put(1, document("dune"));
+        index.remove(3);
+        assertEquals(0, index.search(List.of("planet"), SearchOperator.OR, 0, 10).getTotalHits());
+        assertArrayEquals(new long[]{2}, index.search(List.of("desert"), SearchOperator.AND, 0, 10).getBookIds());
+    }
+
+    @Test
+    void compactionKeepsLiveDocuments() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 0; id < 5000; id++) {
+            index.put(id, document("common " + (id % 2 == 0 ? "even" : "odd")));
+        }
+        for (long id = 0; id < 5000; id += 2) {
+            index.remove(id);
+        }
+        assertEquals(2500, index.size());
+        assertEquals(2500, index.search(List.of("common"), SearchOperator.AND, 0, 10).getTotalHits());
+        assertEquals(0, index.search(List.of("even"), SearchOperator.AND, 0, 10).getTotalHits());
+        assertTrue(index.stats().getDeletedDocuments() < 2500, "tombstones should have been compacted");
+    }
+
+    private static Map<String, Integer> document(String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        Tokenizer.tokenize(text).forEach(token -> frequencies.merge(token, 1, Integer::sum));
+        return frequencies;
+    }
+}
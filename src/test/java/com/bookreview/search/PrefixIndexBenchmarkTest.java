@@ -0,0 +1,70 @@
+package com.bookreview.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Build time and query latency of the typeahead index on synthetic titles.
+ * Skipped by default; run with
+ * {@code mvn test -Dtest=PrefixIndexBenchmarkTest -Dbenchmark=true}
+ * and optionally {@code -Dbenchmark.titles=...}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PrefixIndexBenchmarkTest {
+
+    private static final String SYLLABLES = "ka lo mi ra ne to shi an el or un the be da fi go";
+
+    @Test
+    void queryLatencyOnSyntheticTitles() {
+        int titles = Integer.getInteger("benchmark.titles", 1_000_000);
+        String[] syllables = SYLLABLES.split(" ");
+        SplittableRandom random = new SplittableRandom(11);
+        String[] texts = new String[titles];
+        long[] weights = new long[titles];
+        for (int i = 0; i < titles; i++) {
+            StringBuilder title = new StringBuilder();
+            int words = 1 + random.nextInt(5);
+            for (int w = 0; w < words; w++) {
+                title.append(w > 0 ? " " : "");
+                int length = 1 + random.nextInt(3);
+                for (int s = 0; s < length; s++) {
+                    title.append(syllables[random.nextInt(syllables.length)]);
+                }
+            }
+            texts[i] = PrefixIndex.normalize(title.toString());
+            // Popularity is heavy-tailed.
+            weights[i] = (long) (1_000_000 / Math.pow(1 + random.nextInt(titles), 0.8));
+        }
+
+        long started = System.nanoTime();
+        PrefixIndex index = new PrefixIndex(texts, weights);
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+
+        int queries = 200_000;
+        long[] nanos = new long[queries];
+        long sink = 0;
+        for (int q = 0; q < queries; q++) {
+            String text = texts[random.nextInt(titles)];
+            String prefix = text.substring(0, 1 + random.nextInt(Math.min(text.length(), 6)));
+            int[] seen = {0};
+            long queryStarted = System.nanoTime();
+            index.forEachByWeight(prefix, entry -> ++seen[0] < 10);
+            nanos[q] = System.nanoTime() - queryStarted;
+            sink += seen[0];
+        }
+        // The first half warms up the JIT.
+        long[] measured = Arrays.copyOfRange(nanos, queries / 2, queries);
+        Arrays.sort(measured);
+
+        System.out.printf("titles=%d keys=%d build=%d ms%n", titles, index.keys(), buildMillis);
+        System.out.printf("p50=%d ns p99=%d ns p999=%d ns (%d results)%n",
+            measured[measured.length / 2], measured[measured.length * 99 / 100],
+            measured[measured.length * 999 / 1000], sink);
+        assertTrue(index.keys() >= titles);
+    }
+}
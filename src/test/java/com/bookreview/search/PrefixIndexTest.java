@@ -0,0 +1,80 @@
+package com.bookreview.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PrefixIndexTest {
+
+    @Test
+    void matchesWordStartsHeaviestFirst() {
+        String[] texts = {
+            PrefixIndex.normalize("Harry Potter and the Philosopher's Stone"),
+            PrefixIndex.normalize("The Hobbit"),
+            PrefixIndex.normalize("Harry, a History"),
+            PrefixIndex.normalize("  POTTERY -- for beginners")
+        };
+        PrefixIndex index = new PrefixIndex(texts, new long[]{50, 10, 5, 20});
+
+        assertEquals("pottery for beginners", texts[3]);
+        assertEquals(List.of(0, 2), visit(index, "harry"));
+        assertEquals(List.of(0, 3), visit(index, "pott"));
+        assertEquals(List.of(0, 1), visit(index, "the"));
+        assertEquals(List.of(2), visit(index, "harry a h"));
+        assertEquals(List.of(0, 1, 2), visit(index, "h"));
+        assertEquals(List.of(), visit(index, "tolkien"));
+        assertEquals(List.of(), visit(PrefixIndex.empty(), "a"));
+    }
+
+    @Test
+    void agreesWithScanningEveryEntry() {
+        SplittableRandom random = new SplittableRandom(3);
+        int entries = 2_000;
+        String[] texts = new String[entries];
+        long[] weights = new long[entries];
+        for (int i = 0; i < entries; i++) {
+            StringBuilder text = new StringBuilder();
+            int words = 1 + random.nextInt(5);
+            for (int w = 0; w < words; w++) {
+                text.append(w > 0 ? " " : "");
+                int letters = 1 + random.nextInt(4);
+                for (int c = 0; c < letters; c++) {
+                    text.append((char) ('a' + random.nextInt(4)));
+                }
+            }
+            texts[i] = text.toString();
+            weights[i] = random.nextInt(1000);
+        }
+        PrefixIndex index = new PrefixIndex(texts, weights);
+
+        for (String prefix : List.of("a", "ab", "abc", "d d", "ca", "bbbb")) {
+            List<Integer> found = visit(index, prefix);
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < entries; i++) {
+                if (texts[i].startsWith(prefix) || texts[i].contains(" " + prefix)) {
+                    expected.add(i);
+                }
+            }
+            assertEquals(Set.copyOf(expected), Set.copyOf(found), prefix);
+            for (int i = 1; i < found.size(); i++) {
+                assertEquals(true, weights[found.get(i - 1)] >= weights[found.get(i)], prefix);
+            }
+        }
+    }
+
+    /** Distinct entries in visiting order. */
+    private static List<Integer> visit(PrefixIndex index, String prefix) {
+        Set<Integer> seen = new LinkedHashSet<>();
+        index.forEachByWeight(prefix, entry -> {
+            seen.add(entry);
+            return true;
+        });
+        return new ArrayList<>(seen);
+    }
+}
@@ -0,0 +1,49 @@
+package com.bookreview.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    @Test
+    void ignoresQueriesTooShortToBeSelective() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "A");
+        index.put(2, "Ab");
+        index.put(3, "Abc");
+
+        assertEquals(List.of(), index.search("a", 0.1f, 10));
+        assertEquals(List.of(), index.search("a b", 0.1f, 10));
+        assertEquals(3L, index.search("abc", 0.3f, 10).get(0).bookId());
+    }
+
+    @Test
+    void scoresAtMostTheCandidateCap() {
+        TrigramIndex index = new TrigramIndex();
+        for (int i = 0; i < TrigramIndex.MAX_CANDIDATES + 500; i++) {
+            index.put(i, "Saga " + i);
+        }
+        List<TitleMatch> matches = index.search("saga", 0.1f, Integer.MAX_VALUE);
+        assertEquals(TrigramIndex.MAX_CANDIDATES, matches.size());
+    }
+
+    @Test
+    void keepsMatchingAfterCompaction() {
+        TrigramIndex index = new TrigramIndex();
+        for (int i = 0; i < 3000; i++) {
+            index.put(i, "Filler " + i);
+        }
+        index.put(5000, "The Hobbit");
+        for (int i = 0; i < 3000; i++) {
+            index.remove(i);
+        }
+        List<TitleMatch> matches = index.search("hobit", 0.3f, 10);
+        assertEquals(1, matches.size());
+        assertEquals(5000L, matches.get(0).bookId());
+        assertTrue(matches.get(0).similarity() < 1f);
+    }
+}
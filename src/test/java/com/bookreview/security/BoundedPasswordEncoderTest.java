@@ -0,0 +1,70 @@
+package com.bookreview.security;
+
+import com.bookreview.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void rejectsImmediatelyOnceThePoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking(started, release), 1, 1, 10_000, registry)) {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+            while (registry.get("bookreview.auth.hashing.queued").gauge().value() < 1) {
+                Thread.onSpinWait();
+            }
+
+            long before = System.nanoTime();
+            assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("c"));
+            assertTrue(System.nanoTime() - before < TimeUnit.SECONDS.toNanos(1));
+            assertEquals(1, registry.get("bookreview.auth.hashing.rejected").counter().count());
+
+            release.countDown();
+            assertEquals("hash:a", running.get(5, TimeUnit.SECONDS));
+            assertEquals("hash:b", queued.get(5, TimeUnit.SECONDS));
+            assertTrue(encoder.matches("x", "hash:x"));
+        }
+    }
+
+    @Test
+    void givesUpWhenAHashTakesLongerThanTheTimeout() {
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+                blocking(new CountDownLatch(1), new CountDownLatch(1)), 1, 1, 50, new SimpleMeterRegistry())) {
+            assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("slow"));
+        }
+    }
+
+    private static PasswordEncoder blocking(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals("hash:" + rawPassword);
+            }
+        };
+    }
+}
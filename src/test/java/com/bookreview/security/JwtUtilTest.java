@@ -0,0 +1,63 @@
+package com.bookreview.security;
+
+import io.jsonwebtoken.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil(60, 100);
+
+    @Test
+    void tokenCarriesIdentityClaims() {
+        String token = jwtUtil.generateToken(new AuthenticatedUser(42L, "alice", "secret", List.of("READER", "ADMIN")));
+
+        VerifiedToken verified = jwtUtil.verify(token);
+
+        assertEquals("alice", verified.getUsername());
+        assertEquals(42L, verified.getUserId());
+        assertEquals(List.of("ADMIN", "READER"), verified.getRoles());
+        assertTrue(verified.hasIdentityClaims());
+        assertSame(verified, jwtUtil.verify(token));
+
+        AuthenticatedUser principal = AuthenticatedUser.of(verified);
+        assertEquals(42L, principal.getId());
+        assertEquals(List.of("ADMIN", "READER"), principal.getRoleNames());
+    }
+
+    @Test
+    void legacyTokenHasNoIdentityClaims() {
+        VerifiedToken verified = jwtUtil.verify(jwtUtil.generateToken("bob"));
+
+        assertEquals("bob", verified.getUsername());
+        assertFalse(verified.hasIdentityClaims());
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String token = jwtUtil.generateToken(new AuthenticatedUser(1L, "alice", null, List.of("READER")));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(SignatureException.class, () -> jwtUtil.verify(tampered));
+    }
+
+    @Test
+    void cacheStaysBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(60_000, 2);
+        VerifiedToken token = new VerifiedToken("alice", 1L, List.of("READER"), Long.MAX_VALUE);
+        cache.put("a", token, 0);
+        cache.put("b", token, 0);
+        cache.put("c", token, 0);
+
+        assertTrue(cache.size() <= 2);
+        assertSame(token, cache.get("c", 0));
+        assertEquals(null, cache.get("c", 60_000));
+    }
+}
@@ -0,0 +1,105 @@
+package com.bookreview.security;
+
+import com.bookreview.controller.AuthController;
+import com.bookreview.entity.User;
+import com.bookreview.exception.InvalidCredentialsException;
+import com.bookreview.repository.UserRepository;
+import com.bookreview.service.UserResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+    "bookreview.auth.login.max-failures=3",
+    "bookreview.auth.login.lock-seconds=1",
+    "bookreview.auth.login.flush-interval-ms=3600000"
+})
+class LoginAttemptTrackerTest {
+
+    @Autowired
+    private AuthController authController;
+    @Autowired
+    private LoginAttemptTracker loginAttemptTracker;
+    @Autowired
+    private UserResolver userResolver;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        loginAttemptTracker.flush();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void locksAfterRepeatedFailuresAndFlushesTheCounters() throws Exception {
+        save("dora", "secret");
+        assertFalse(userResolver.findByUsername("dora").orElseThrow().getIsLocked());
+
+        assertThrows(InvalidCredentialsException.class, () -> login("dora", "wrong"));
+        assertThrows(InvalidCredentialsException.class, () -> login("dora", "wrong"));
+        assertEquals(HttpStatus.OK, login("dora", "secret").getStatusCode());
+        for (int i = 0; i < 3; i++) {
+            assertThrows(InvalidCredentialsException.class, () -> login("dora", "wrong"));
+        }
+
+        ResponseEntity<Map<String, String>> rejected = login("dora", "secret");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatusCode());
+        assertNotNull(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        assertEquals(1, loginAttemptTracker.flush());
+        assertEquals(3, column("failed_login_attempts", "dora"));
+        assertTrue(userResolver.findByUsername("dora").orElseThrow().getIsLocked());
+
+        Thread.sleep(1100);
+        assertEquals(0, loginAttemptTracker.remainingLockSeconds("dora"));
+        assertEquals(1, loginAttemptTracker.flush());
+        assertEquals(0, column("failed_login_attempts", "dora"));
+        assertFalse(userResolver.findByUsername("dora").orElseThrow().getIsLocked());
+        assertEquals(HttpStatus.OK, login("dora", "secret").getStatusCode());
+        assertEquals(0, loginAttemptTracker.flush());
+    }
+
+    @Test
+    void honorsLocksFoundInTheDatabaseAndIgnoresUnknownUsers() {
+        save("eve", "secret");
+        jdbcTemplate.update("UPDATE users SET is_locked = TRUE, failed_login_attempts = 3 WHERE username = 'eve'");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, login("eve", "secret").getStatusCode());
+        assertTrue(loginAttemptTracker.remainingLockSeconds("eve") > 0);
+
+        assertThrows(InvalidCredentialsException.class, () -> login("nobody", "secret"));
+        assertEquals(0, loginAttemptTracker.remainingLockSeconds("nobody"));
+    }
+
+    private void save(String username, String password) {
+        userRepository.save(User.builder().username(username).email(username + "@example.com")
+            .password(passwordEncoder.encode(password)).build());
+    }
+
+    private ResponseEntity<Map<String, String>> login(String username, String password) {
+        return authController.login(Map.of("username", username, "password", password));
+    }
+
+    private int column(String column, String username) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM users WHERE username = ?", Integer.class, username);
+    }
+}
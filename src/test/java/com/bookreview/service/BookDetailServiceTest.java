@@ -0,0 +1,68 @@
+package com.bookreview.service;
+
+import com.bookreview.dto.BookDTO;
+import com.bookreview.dto.ReviewCreateRequest;
+import com.bookreview.entity.Book;
+import com.bookreview.entity.User;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.repository.ReviewRepository;
+import com.bookreview.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.security.Principal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookDetailServiceTest {
+
+    @Autowired
+    private BookDetailService bookDetailService;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void cleanUp() {
+        reviewRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void cachesUntilRatingChangeCommits() throws Exception {
+        User reader = userRepository.save(User.builder().username("dave").email("dave@example.com").password("x").build());
+        Book book = bookRepository.save(Book.builder().title("Cached").author(reader).build());
+
+        BookDetailService.BookDetail first = bookDetailService.getBookDetail(book.getId()).orElseThrow();
+        assertSame(first, bookDetailService.getBookDetail(book.getId()).orElseThrow());
+        assertTrue(first.getEtag().startsWith("\"") && first.getEtag().endsWith("\""));
+
+        ReviewCreateRequest review = new ReviewCreateRequest();
+        review.setBookId(book.getId());
+        review.setRating(4);
+        review.setTitle("Good");
+        review.setContent("Worth it");
+        Principal principal = () -> "dave";
+        reviewService.createReview(review, principal);
+
+        BookDetailService.BookDetail second = bookDetailService.getBookDetail(book.getId()).orElseThrow();
+        assertNotEquals(first.getEtag(), second.getEtag());
+        assertEquals(4.0, objectMapper.readValue(second.getBody(), BookDTO.class).getAverageRating());
+        assertTrue(bookDetailService.getBookDetail(-1L).isEmpty());
+    }
+}
@@ -0,0 +1,104 @@
+package com.bookreview.service;
+
+import com.bookreview.dto.BookImportResult;
+import com.bookreview.entity.Book;
+import com.bookreview.entity.Genre;
+import com.bookreview.entity.User;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.repository.GenreRepository;
+import com.bookreview.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "bookreview.import.chunk-size=2")
+class BookImportServiceTest {
+
+    @Autowired
+    private BookImportService bookImportService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private GenreRepository genreRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User author;
+    private User coAuthor;
+    private Genre fantasy;
+
+    @BeforeEach
+    void seed() {
+        author = userRepository.save(User.builder().username("importer").email("importer@example.com").password("x").build());
+        coAuthor = userRepository.save(User.builder().username("co").email("co@example.com").password("x").build());
+        fantasy = genreRepository.save(Genre.builder().name("Fantasy").slug("fantasy").build());
+        bookRepository.save(Book.builder().title("Existing").isbn("111").author(author).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAll();
+        genreRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importsCsvAndReportsRejectedRows() throws Exception {
+        String csv = "title,isbn,publicationDate,genreIds,coAuthorIds,description\n" +
+            "Dune,222,1965-08-01," + fantasy.getId() + "," + coAuthor.getId() + ",\"Spice, sand\n\"\"worms\"\"\"\n" +
+            "Existing,,,,,\n" +
+            "Emma,111,,,,\n" +
+            "Dune,,,,,\n" +
+            "Ubik,,,999,,\n" +
+            "Solaris,,not-a-date,,,\n" +
+            ",,,,,\n" +
+            "Neuromancer,333,,," + coAuthor.getId() + ",\n";
+
+        BookImportResult result = bookImportService.importBooks(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BookImportService.Format.CSV, author);
+
+        assertEquals(8, result.getTotalRows());
+        assertEquals(2, result.getImported());
+        assertEquals(6, result.getFailed());
+        List<Integer> failedLines = result.getErrors().stream().map(BookImportResult.RowError::getLine).toList();
+        assertEquals(List.of(4, 5, 6, 7, 8, 9), failedLines);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Book dune = bookRepository.findByTitle("Dune").orElseThrow();
+            assertEquals("Spice, sand\n\"worms\"", dune.getDescription());
+            assertEquals(author.getId(), dune.getAuthor().getId());
+            assertEquals(1, dune.getGenres().size());
+            assertEquals(1, dune.getCoAuthors().size());
+            assertEquals(0, dune.getReviewCount());
+            assertTrue(bookRepository.findByTitle("Neuromancer").isPresent());
+        });
+    }
+
+    @Test
+    void importsNdjson() throws Exception {
+        String ndjson = "{\"title\":\"Kindred\",\"status\":\"draft\",\"genreIds\":[" + fantasy.getId() + "]}\n" +
+            "\n" +
+            "{not json}\n" +
+            "{\"title\":\"Beloved\",\"status\":\"SHELVED\"}\n";
+
+        BookImportResult result = bookImportService.importBooks(
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), BookImportService.Format.NDJSON, author);
+
+        assertEquals(3, result.getTotalRows());
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(3, 4), result.getErrors().stream().map(BookImportResult.RowError::getLine).toList());
+        assertTrue(bookRepository.findByTitle("Kindred").isPresent());
+    }
+}
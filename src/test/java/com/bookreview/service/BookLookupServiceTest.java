@@ -0,0 +1,82 @@
+package com.bookreview.service;
+
+import com.bookreview.dto.IsbnResolution;
+import com.bookreview.dto.RankedBookDTO;
+import com.bookreview.entity.Book;
+import com.bookreview.entity.User;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.repository.UserRepository;
+import com.bookreview.search.BookSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookLookupServiceTest {
+
+    @Autowired
+    private BookLookupService bookLookupService;
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+        bookSearchIndex.rebuild();
+    }
+
+    @Test
+    void resolvesIsbnsInEitherFormInOneBatch() {
+        User author = userRepository.save(User.builder().username("isbn").email("isbn@example.com").password("x").build());
+        Book dashed = bookRepository.save(Book.builder().title("Dashed").isbn("0-306-40615-2").author(author).build());
+        Book thirteen = bookRepository.save(Book.builder().title("Thirteen").isbn13("978-0-19-852663-6").author(author).build());
+        Book legacy = bookRepository.save(Book.builder().title("Legacy").isbn("080442957X").author(author).build());
+        // As if written before isbn_key was maintained.
+        jdbcTemplate.update("UPDATE books SET isbn_key = NULL WHERE id = ?", legacy.getId());
+        bookLookupService.backfillIsbnKeys();
+
+        List<IsbnResolution> resolved = bookLookupService.resolveIsbns(
+            List.of("9780306406157", "0198526636", "978-0-8044-2957-3", "0-306-40615-3", "9780000000002"));
+        assertEquals(List.of(dashed.getId(), thirteen.getId(), legacy.getId()),
+            resolved.subList(0, 3).stream().map(IsbnResolution::getBookId).toList());
+        assertEquals(new IsbnResolution("9780306406157", "9780306406157", dashed.getId(), "Dashed"), resolved.get(0));
+        assertEquals(new IsbnResolution("0-306-40615-3", null, null, null), resolved.get(3));
+        assertEquals(new IsbnResolution("9780000000002", "9780000000002", null, null), resolved.get(4));
+
+        assertEquals(thirteen.getId(), bookLookupService.findByIsbn("0-19-852663-6").orElseThrow().getId());
+        assertTrue(bookLookupService.findByIsbn("garbage").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> bookLookupService.resolveIsbns(
+            new ArrayList<>(Collections.nCopies(BookLookupService.MAX_RESOLVE_BATCH + 1, "0306406152"))));
+    }
+
+    @Test
+    void findsTitlesDespiteTypos() {
+        User author = userRepository.save(User.builder().username("fuzzy").email("fuzzy@example.com").password("x").build());
+        Book potter = bookRepository.save(Book.builder().title("Harry Potter").author(author).build());
+        Book hobbit = bookRepository.save(Book.builder().title("The Hobbit").author(author).build());
+        bookSearchIndex.rebuild();
+
+        List<RankedBookDTO> matches = bookLookupService.fuzzyTitleSearch("hary poter", 10);
+        assertEquals(List.of(potter.getId()), matches.stream().map(m -> m.getBook().getId()).toList());
+        assertTrue(matches.get(0).getScore() > 0.5 && matches.get(0).getScore() < 1);
+        assertEquals(hobbit.getId(), bookLookupService.fuzzyTitleSearch("The Hobit", 10).get(0).getBook().getId());
+        assertEquals(List.of(), bookLookupService.fuzzyTitleSearch("Silmarillion", 10));
+    }
+}
@@ -0,0 +1,112 @@
+package com.bookreview.service;
+
+import com.bookreview.entity.Book;
+import com.bookreview.entity.Genre;
+import com.bookreview.entity.User;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.repository.GenreRepository;
+import com.bookreview.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class BookServiceQueryCountTest {
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private GenreRepository genreRepository;
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> seedCatalog());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    private void seedCatalog() {
+        User author = userRepository.save(User.builder().username("author").email("author@example.com").password("x").build());
+        User coAuthor = userRepository.save(User.builder().username("co").email("co@example.com").password("x").build());
+        Genre fantasy = genreRepository.save(Genre.builder().name("Fantasy").slug("fantasy").build());
+        Genre classic = genreRepository.save(Genre.builder().name("Classic").slug("classic").build());
+        for (int i = 0; i < 100; i++) {
+            bookRepository.save(Book.builder()
+                .title("Book " + i)
+                .author(author)
+                .coAuthors(Set.of(coAuthor))
+                .genres(Set.of(fantasy, classic))
+                .build());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        statistics.setStatisticsEnabled(false);
+        bookRepository.deleteAll();
+        genreRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 50, 100})
+    void pagedListingUsesFixedNumberOfQueries(int pageSize) {
+        statistics.clear();
+        int returned = transactionTemplate.execute(status ->
+            bookService.getAllBooks(PageRequest.of(0, pageSize)).getNumberOfElements());
+
+        assertEquals(pageSize, returned);
+        // id page + count + books/author/genres + co-authors, plus one batched
+        // load of the EAGER user_roles collection after each of the two passes
+        assertEquals(6, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void fullListingUsesFixedNumberOfQueries() {
+        statistics.clear();
+        int returned = transactionTemplate.execute(status -> bookService.getAllBooks().size());
+
+        assertEquals(100, returned);
+        // ids + books/author/genres + co-authors + two batched user_roles loads
+        assertEquals(5, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void exportLoadsEachChunkWithFixedNumberOfQueries() throws Exception {
+        statistics.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.exportBooks(out);
+
+        assertEquals(100, written);
+        assertEquals(100, out.toString(StandardCharsets.UTF_8).lines().count());
+        // id cursor + books/author/genres + co-authors + two batched user_roles loads
+        assertEquals(5, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,85 @@
+package com.bookreview.service;
+
+import com.bookreview.entity.Book;
+import com.bookreview.entity.User;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "bookreview.books.view-count.flush-interval-ms=3600000")
+class BookViewCounterTest {
+
+    @Autowired
+    private BookViewCounter bookViewCounter;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        bookViewCounter.flush();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void coalescesConcurrentViewsIntoOneFlush() throws Exception {
+        User author = userRepository.save(User.builder().username("viewed").email("viewed@example.com").password("x").build());
+        Book first = bookRepository.save(Book.builder().title("First").author(author).build());
+        Book second = bookRepository.save(Book.builder().title("Second").author(author).build());
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            Long id = i % 4 == 0 ? second.getId() : first.getId();
+            pool.execute(() -> bookViewCounter.recordView(id));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(0L, bookRepository.findById(first.getId()).orElseThrow().getViewCount());
+        assertEquals(1000, bookViewCounter.flush());
+        assertEquals(750L, bookRepository.findById(first.getId()).orElseThrow().getViewCount());
+        assertEquals(250L, bookRepository.findById(second.getId()).orElseThrow().getViewCount());
+
+        assertEquals(0, bookViewCounter.flush());
+        bookViewCounter.recordView(first.getId());
+        assertEquals(1, bookViewCounter.flush());
+        assertEquals(751L, bookRepository.findById(first.getId()).orElseThrow().getViewCount());
+    }
+
+    @Test
+    void failedFlushAppliesNothingTwice() {
+        User author = userRepository.save(User.builder().username("viewed").email("viewed@example.com").password("x").build());
+        Book first = bookRepository.save(Book.builder().title("First").author(author).build());
+        Book second = bookRepository.save(Book.builder().title("Second").author(author).build());
+        bookViewCounter.recordView(first.getId());
+        for (int i = 0; i < 5; i++) {
+            bookViewCounter.recordView(second.getId());
+        }
+
+        // The first row of the batch succeeds, the second fails.
+        jdbcTemplate.execute("ALTER TABLE books ADD CONSTRAINT few_views CHECK (COALESCE(view_count, 0) < 5)");
+        try {
+            assertEquals(0, bookViewCounter.flush());
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE books DROP CONSTRAINT few_views");
+        }
+        assertEquals(6, bookViewCounter.flush());
+        assertEquals(1L, bookRepository.findById(first.getId()).orElseThrow().getViewCount());
+        assertEquals(5L, bookRepository.findById(second.getId()).orElseThrow().getViewCount());
+    }
+}
@@ -0,0 +1,69 @@
+package com.bookreview.service;
+
+import com.bookreview.dto.GenreCreateRequest;
+import com.bookreview.dto.GenreDTO;
+import com.bookreview.repository.GenreRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class GenreServiceTest {
+
+    @Autowired
+    private GenreService genreService;
+    @Autowired
+    private GenreRepository genreRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void cleanUp() {
+        genreRepository.findAll().forEach(genre -> genreService.deleteGenre(genre.getId()));
+    }
+
+    @Test
+    void readsAreServedFromCatalogAndFollowWrites() throws Exception {
+        GenreDTO poetry = genreService.createGenre(request("Poetry", "poetry"));
+        GenreDTO drama = genreService.createGenre(request("Drama", "drama"));
+        genreService.deactivateGenre(drama.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            assertEquals("Poetry", genreService.getGenreBySlug("poetry").orElseThrow().getName());
+            assertEquals("drama", genreService.getGenre(drama.getId()).orElseThrow().getSlug());
+            assertEquals(List.of(poetry.getId()), genreService.getActiveGenres().stream().map(GenreDTO::getId).toList());
+            GenreDTO[] all = objectMapper.readValue(genreService.getAllGenresJson(), GenreDTO[].class);
+            assertEquals(2, all.length);
+            assertEquals(0, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        genreService.updateGenre(poetry.getId(), request("Verse", "verse"));
+        assertTrue(genreService.getGenreBySlug("poetry").isEmpty());
+        assertEquals("Verse", genreService.getGenreBySlug("verse").orElseThrow().getName());
+    }
+
+    private static GenreCreateRequest request(String name, String slug) {
+        GenreCreateRequest request = new GenreCreateRequest();
+        request.setName(name);
+        request.setSlug(slug);
+        request.setIsActive(true);
+        return request;
+    }
+}
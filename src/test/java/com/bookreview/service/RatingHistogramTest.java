@@ -0,0 +1,74 @@
+package com.bookreview.service;
+
+import com.bookreview.dto.ReviewDTO;
+import com.bookreview.dto.ReviewUpdateRequest;
+import com.bookreview.entity.Book;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.support.ReviewFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static com.bookreview.support.ReviewFixtures.as;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Import(ReviewFixtures.class)
+class RatingHistogramTest {
+
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private RatingAggregateReconciler reconciler;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ReviewFixtures fixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void followsReviewWritesAndIsRepairedByTheReconciler() {
+        fixtures.users("h1", "h2", "h3");
+        Book book = bookRepository.save(Book.builder().title("Histogram").author(fixtures.user("hist")).build());
+
+        ReviewDTO first = fixtures.review(book, 5, "h1");
+        fixtures.review(book, 5, "h2");
+        ReviewDTO third = fixtures.review(book, 2, "h3");
+        assertEquals(List.of(0, 1, 0, 0, 2), histogram(book));
+
+        ReviewUpdateRequest update = new ReviewUpdateRequest();
+        update.setTitle("Changed my mind");
+        update.setContent("...");
+        update.setRating(3);
+        reviewService.updateReview(first.getId(), update, as("h1"));
+        reviewService.deleteReview(third.getId(), as("h3"));
+        assertEquals(List.of(0, 0, 1, 0, 1), histogram(book));
+        assertEquals(List.of(0, 0, 1, 0, 1), bookService.getBook(book.getId()).orElseThrow().getRatingHistogram());
+        assertEquals(2, bookService.getRatingHistogram(book.getId()).orElseThrow().getReviewCount());
+        assertEquals(4.0, bookService.getRatingHistogram(book.getId()).orElseThrow().getAverageRating());
+
+        jdbcTemplate.update("UPDATE books SET rating_1_count = 7, rating_3_count = NULL WHERE id = ?", book.getId());
+        reconciler.reconcile();
+        assertEquals(List.of(0, 0, 1, 0, 1), histogram(book));
+        assertTrue(bookService.getRatingHistogram(-1L).isEmpty());
+    }
+
+    private List<Integer> histogram(Book book) {
+        return bookService.getRatingHistogram(book.getId()).orElseThrow().getCounts();
+    }
+}
@@ -0,0 +1,153 @@
+package com.bookreview.service;
+
+import com.bookreview.catalog.BookRatingChangedEvent;
+import com.bookreview.dto.RatingHistogramDTO;
+import com.bookreview.dto.ReviewBatchItem;
+import com.bookreview.dto.ReviewBatchResult;
+import com.bookreview.dto.ReviewCreateRequest;
+import com.bookreview.entity.Book;
+import com.bookreview.entity.User;
+import com.bookreview.ranking.BookLeaderboard;
+import com.bookreview.ranking.RankedBook;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.repository.ReviewRepository;
+import com.bookreview.support.ReviewFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "bookreview.reviews.batch.chunk-size=3")
+@RecordApplicationEvents
+@Import(ReviewFixtures.class)
+class ReviewBatchServiceTest {
+
+    @Autowired
+    private ReviewBatchService reviewBatchService;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private ReviewFixtures fixtures;
+    @Autowired
+    private BookLeaderboard bookLeaderboard;
+    @Autowired
+    private ApplicationEvents events;
+
+    private Book dune;
+    private Book emma;
+
+    @BeforeEach
+    void seed() {
+        User author = fixtures.user("writer");
+        fixtures.users("ann", "bob", "cat");
+        dune = bookRepository.save(Book.builder().title("Dune").author(author).build());
+        emma = bookRepository.save(Book.builder().title("Emma").author(author).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void createsAcceptableReviewsAndReportsTheRest() {
+        ReviewCreateRequest existing = new ReviewCreateRequest();
+        existing.setBookId(emma.getId());
+        existing.setRating(2);
+        existing.setTitle("Meh");
+        existing.setContent("...");
+        reviewService.createReview(existing, () -> "cat");
+
+        List<ReviewBatchItem> items = new ArrayList<>();
+        items.add(item("ann", dune.getId(), 5));
+        items.add(item("bob", dune.getId(), 4));
+        items.add(item("ann", dune.getId(), 1));
+        items.add(item("cat", emma.getId(), 3));
+        items.add(item("nobody", dune.getId(), 3));
+        items.add(item("bob", -1L, 3));
+        items.add(item("bob", emma.getId(), 9));
+        items.add(null);
+        items.add(item("ann", emma.getId(), 4));
+        items.add(item("cat", dune.getId(), 4));
+
+        ReviewBatchResult result = reviewBatchService.createReviews(items);
+
+        assertEquals(10, result.getTotal());
+        assertEquals(4, result.getCreated());
+        assertEquals(6, result.getFailed());
+        List<ReviewBatchResult.Status> statuses = result.getItems().stream().map(ReviewBatchResult.ItemResult::getStatus).toList();
+        assertEquals(List.of(
+            ReviewBatchResult.Status.CREATED,
+            ReviewBatchResult.Status.CREATED,
+            ReviewBatchResult.Status.DUPLICATE,
+            ReviewBatchResult.Status.DUPLICATE,
+            ReviewBatchResult.Status.USER_NOT_FOUND,
+            ReviewBatchResult.Status.BOOK_NOT_FOUND,
+            ReviewBatchResult.Status.INVALID,
+            ReviewBatchResult.Status.INVALID,
+            ReviewBatchResult.Status.CREATED,
+            ReviewBatchResult.Status.CREATED), statuses);
+        for (ReviewBatchResult.ItemResult item : result.getItems()) {
+            if (item.getStatus() == ReviewBatchResult.Status.CREATED) {
+                assertNotNull(item.getReviewId());
+                assertEquals("Rated", reviewRepository.findById(item.getReviewId()).orElseThrow().getTitle());
+            } else {
+                assertNull(item.getReviewId());
+                assertNotNull(item.getMessage());
+            }
+        }
+
+        List<RatingHistogramDTO> books = result.getBooks();
+        assertEquals(List.of(dune.getId(), emma.getId()), books.stream().map(RatingHistogramDTO::getBookId).toList());
+        assertEquals(List.of(0, 0, 0, 2, 1), books.get(0).getCounts());
+        assertEquals(13.0 / 3, books.get(0).getAverageRating(), 1e-6);
+        assertEquals(List.of(0, 1, 0, 1, 0), books.get(1).getCounts());
+        assertEquals(bookService.getRatingHistogram(emma.getId()).orElseThrow(), books.get(1));
+    }
+
+    @Test
+    void publishesOneRatingEventPerChunk() {
+        bookLeaderboard.rebuild();
+        events.clear();
+        reviewBatchService.createReviews(List.of(
+            item("ann", dune.getId(), 5),
+            item("bob", emma.getId(), 4),
+            item("cat", dune.getId(), 3),
+            item("ann", emma.getId(), 2)));
+
+        List<List<Long>> published = events.stream(BookRatingChangedEvent.class).map(BookRatingChangedEvent::getBookIds).toList();
+        assertEquals(List.of(List.of(dune.getId(), emma.getId()), List.of(emma.getId())), published);
+        List<Long> ranked = bookLeaderboard.top(10).stream().map(RankedBook::bookId).toList();
+        assertTrue(ranked.containsAll(List.of(dune.getId(), emma.getId())), "ranked " + ranked);
+    }
+
+    @Test
+    void rejectsOversizedBatches() {
+        List<ReviewBatchItem> items = Collections.nCopies(ReviewBatchService.MAX_BATCH_SIZE + 1, item("ann", dune.getId(), 5));
+        assertThrows(IllegalArgumentException.class, () -> reviewBatchService.createReviews(items));
+    }
+
+    private static ReviewBatchItem item(String username, Long bookId, int rating) {
+        return new ReviewBatchItem(username, bookId, rating, "Rated", "Rated " + rating);
+    }
+}
@@ -0,0 +1,114 @@
+package com.bookreview.service;
+
+import com.bookreview.entity.Book;
+import com.bookreview.entity.Review;
+import com.bookreview.entity.User;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.repository.ReviewRepository;
+import com.bookreview.repository.ReviewVoteRepository;
+import com.bookreview.support.ReviewFixtures;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static com.bookreview.support.ReviewFixtures.as;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "bookreview.reviews.votes.flush-interval-ms=3600000")
+@Import(ReviewFixtures.class)
+class ReviewVoteServiceTest {
+
+    @Autowired
+    private ReviewVoteService reviewVoteService;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private ReviewVoteRepository reviewVoteRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ReviewFixtures fixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Review review;
+
+    @BeforeEach
+    void seed() {
+        User author = fixtures.user("writer");
+        fixtures.users("alice", "bob");
+        Book book = bookRepository.save(Book.builder().title("Voted").author(author).build());
+        review = reviewRepository.save(Review.builder().content("Great").rating(5).user(author).book(book).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reviewVoteService.flush();
+        reviewVoteRepository.deleteAll();
+        fixtures.deleteAll();
+    }
+
+    @Test
+    void enforcesOneVotePerUserAndBatchesCounters() {
+        assertEquals(ReviewVoteService.Outcome.RECORDED, reviewVoteService.vote(review.getId(), true, as("alice")));
+        assertEquals(ReviewVoteService.Outcome.UNCHANGED, reviewVoteService.vote(review.getId(), true, as("alice")));
+        assertEquals(ReviewVoteService.Outcome.RECORDED, reviewVoteService.vote(review.getId(), true, as("bob")));
+        assertEquals(ReviewVoteService.Outcome.CHANGED, reviewVoteService.vote(review.getId(), false, as("bob")));
+        assertEquals(2, reviewVoteRepository.count());
+
+        Review beforeFlush = reviewRepository.findById(review.getId()).orElseThrow();
+        assertEquals(0, beforeFlush.getHelpfulCount());
+
+        assertEquals(1, reviewVoteService.flush());
+        Review afterFlush = reviewRepository.findById(review.getId()).orElseThrow();
+        assertEquals(1, afterFlush.getHelpfulCount());
+        assertEquals(1, afterFlush.getNotHelpfulCount());
+        assertEquals(0, reviewVoteService.flush());
+    }
+
+    @Test
+    void failedWriteDoesNotBlockRetry() {
+        reviewVoteService.vote(review.getId(), true, as("bob"));
+        jdbcTemplate.execute("ALTER TABLE review_votes RENAME TO review_votes_offline");
+        try {
+            assertThrows(DataAccessException.class, () -> reviewVoteService.vote(review.getId(), true, as("alice")));
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE review_votes_offline RENAME TO review_votes");
+        }
+        assertEquals(ReviewVoteService.Outcome.RECORDED, reviewVoteService.vote(review.getId(), true, as("alice")));
+        assertEquals(2, reviewVoteRepository.count());
+    }
+
+    @Test
+    void failedFlushAppliesNothingTwice() {
+        User author = review.getUser();
+        Book other = bookRepository.save(Book.builder().title("Also voted").author(author).build());
+        Review second = reviewRepository.save(Review.builder().content("Meh").rating(2).user(author).book(other).build());
+        reviewVoteService.vote(review.getId(), true, as("alice"));
+        reviewVoteService.vote(second.getId(), false, as("alice"));
+
+        // The first row of the batch succeeds, the second fails.
+        jdbcTemplate.execute("ALTER TABLE reviews ADD CONSTRAINT no_downvotes CHECK (COALESCE(not_helpful_count, 0) = 0)");
+        try {
+            assertEquals(0, reviewVoteService.flush());
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE reviews DROP CONSTRAINT no_downvotes");
+        }
+        assertEquals(2, reviewVoteService.flush());
+        assertEquals(1, reviewRepository.findById(review.getId()).orElseThrow().getHelpfulCount());
+        assertEquals(1, reviewRepository.findById(second.getId()).orElseThrow().getNotHelpfulCount());
+    }
+
+    @Test
+    void rejectsOwnAndMissingReviews() {
+        assertThrows(IllegalArgumentException.class, () -> reviewVoteService.vote(review.getId(), true, as("writer")));
+        assertThrows(EntityNotFoundException.class, () -> reviewVoteService.vote(-1L, true, as("alice")));
+    }
+}
@@ -0,0 +1,65 @@
+package com.bookreview.service;
+
+import com.bookreview.entity.User;
+import com.bookreview.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureObservability(tracing = false)
+class UserResolverTest {
+
+    @Autowired
+    private UserResolver userResolver;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void servesRepeatLookupsFromCacheUntilUserChanges() {
+        User saved = userRepository.save(User.builder().username("carol").email("carol@example.com").password("x").firstName("Carol").build());
+        double misses = count("miss");
+        double hits = count("hit");
+        double requestHits = count("request");
+
+        // The test runs inside a mock request, so the second lookup is answered by the request layer.
+        User first = userResolver.findByUsername("carol").orElseThrow();
+        assertSame(first, userResolver.findById(saved.getId()).orElseThrow());
+        assertEquals(requestHits + 1, count("request"));
+
+        RequestContextHolder.resetRequestAttributes();
+        User byId = userResolver.findById(saved.getId()).orElseThrow();
+
+        assertEquals(misses + 1, count("miss"));
+        assertEquals(hits + 1, count("hit"));
+        assertEquals("Carol", byId.getFirstName());
+        assertNull(first.getPassword());
+        assertTrue(first.getRoles().containsAll(saved.getRoles()));
+
+        saved.setFirstName("Caroline");
+        userRepository.save(saved);
+
+        assertEquals("Caroline", userResolver.findByUsername("carol").orElseThrow().getFirstName());
+        assertEquals(misses + 2, count("miss"));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("bookreview.users.resolutions").tag("result", result).counter().count();
+    }
+}
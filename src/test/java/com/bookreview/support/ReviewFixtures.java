@@ -0,0 +1,71 @@
+package com.bookreview.support;
+
+import com.bookreview.dto.ReviewCreateRequest;
+import com.bookreview.dto.ReviewDTO;
+import com.bookreview.entity.Book;
+import com.bookreview.entity.User;
+import com.bookreview.repository.BookRepository;
+import com.bookreview.repository.ReviewRepository;
+import com.bookreview.repository.UserRepository;
+import com.bookreview.service.ReviewService;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.security.Principal;
+
+/**
+ * Users and reviews for integration tests that write through {@link ReviewService}.
+ * Pull it in with {@code @Import(ReviewFixtures.class)}.
+ */
+@TestComponent
+public class ReviewFixtures {
+
+    private final ReviewService reviewService;
+    private final UserRepository userRepository;
+    private final BookRepository bookRepository;
+    private final ReviewRepository reviewRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReviewFixtures(ReviewService reviewService,
+                          UserRepository userRepository,
+                          BookRepository bookRepository,
+                          ReviewRepository reviewRepository,
+                          JdbcTemplate jdbcTemplate) {
+        this.reviewService = reviewService;
+        this.userRepository = userRepository;
+        this.bookRepository = bookRepository;
+        this.reviewRepository = reviewRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public User user(String username) {
+        return userRepository.save(User.builder().username(username).email(username + "@example.com").password("x").build());
+    }
+
+    public void users(String... usernames) {
+        for (String username : usernames) {
+            user(username);
+        }
+    }
+
+    public ReviewDTO review(Book book, int rating, String username) {
+        ReviewCreateRequest request = new ReviewCreateRequest();
+        request.setBookId(book.getId());
+        request.setRating(rating);
+        request.setTitle("Rated " + rating);
+        request.setContent("...");
+        return reviewService.createReview(request, as(username));
+    }
+
+    /** Deletes reviews, genre links, books and users, in foreign-key order. */
+    public void deleteAll() {
+        reviewRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM book_genres");
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    public static Principal as(String username) {
+        return () -> username;
+    }
+}